@@ -15,6 +15,9 @@ CREATE SCHEMA anpl_sports;
 -- Set search path for this session
 SET search_path TO anpl_sports, public;
 
+-- Trigram matching for the user directory search
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 -- ================================================================
 -- CORE TABLES
 -- ================================================================
@@ -113,7 +116,12 @@ CREATE TABLE anpl_sports.events (
     
     -- Timestamps
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    -- current_participants counts APPROVED registrations; it is only changed by conditional UPDATEs
+    CONSTRAINT chk_events_participants CHECK (
+        current_participants >= 0
+        AND (max_participants IS NULL OR current_participants <= max_participants))
 );
 
 -- 4. EVENT REGISTRATIONS TABLE
@@ -303,6 +311,7 @@ CREATE TABLE anpl_sports.payments (
     razorpay_order_id VARCHAR(255),
     razorpay_payment_id VARCHAR(255),
     razorpay_signature VARCHAR(255),
+    idempotency_key VARCHAR(64),
     
     -- Payment Status
     payment_status VARCHAR(50) NOT NULL,
@@ -316,10 +325,12 @@ CREATE TABLE anpl_sports.payments (
     
     -- Timestamps
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_reconciled_at TIMESTAMP,
     
     -- Foreign Keys
     CONSTRAINT fk_payments_registration FOREIGN KEY (registration_id) 
-        REFERENCES anpl_sports.event_registrations(id) ON DELETE CASCADE
+        REFERENCES anpl_sports.event_registrations(id) ON DELETE CASCADE,
+    CONSTRAINT uk_payments_idempotency_key UNIQUE(idempotency_key)
 );
 
 -- 9. PASSWORD RESET TOKENS TABLE
@@ -363,6 +374,7 @@ CREATE TABLE anpl_sports.badminton_registration_bundles (
     payment_reference VARCHAR(100),
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_reconciled_at TIMESTAMP,
     CONSTRAINT fk_badminton_bundle_user FOREIGN KEY (user_id)
         REFERENCES anpl_sports.users(id) ON DELETE CASCADE,
     CONSTRAINT fk_badminton_bundle_event FOREIGN KEY (event_id)
@@ -394,6 +406,89 @@ CREATE TABLE anpl_sports.badminton_registration_entries (
         REFERENCES anpl_sports.badminton_categories(id)
 );
 
+-- Entry ids are allocated by Hibernate in blocks of 50 (pooled optimizer) so inserts can be batched
+ALTER SEQUENCE anpl_sports.badminton_registration_entries_id_seq INCREMENT BY 50;
+
+-- 13. EMAIL OUTBOX
+-- Rendered emails queued in the caller's transaction and drained by the background dispatcher
+CREATE TABLE anpl_sports.email_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(500) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(1000),
+    lease_token VARCHAR(36),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP
+);
+
+-- 14. UPLOAD BLOBS
+-- Content-addressed uploads (blobs/<2>/<2>/<sha256>.<ext>). ref_count counts records pointing at the blob;
+-- blobs at zero are swept once touched_at is older than the grace period
+CREATE TABLE anpl_sports.upload_blobs (
+    hash VARCHAR(64) PRIMARY KEY,
+    extension VARCHAR(10) NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    touched_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- 15. AUTH RATE LIMITS
+-- Shared token buckets for login/password-reset throttling (app.auth.rate-limit.backend=jdbc).
+-- Unlogged: losing the buckets on a crash only resets the limits.
+CREATE UNLOGGED TABLE anpl_sports.auth_rate_limits (
+    bucket_key VARCHAR(400) PRIMARY KEY,
+    tokens DOUBLE PRECISION NOT NULL,
+    refilled_at TIMESTAMPTZ NOT NULL
+);
+
+-- 16. REFRESH TOKENS
+-- Only the SHA-256 of each refresh token is stored; tokens in a family share one login and rotate on use
+CREATE TABLE anpl_sports.refresh_tokens (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    token_hash VARCHAR(64) NOT NULL,
+    family_id VARCHAR(36) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    revoked_at TIMESTAMP,
+    replaced_by_id BIGINT,
+
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id)
+        REFERENCES anpl_sports.users(id) ON DELETE CASCADE,
+    CONSTRAINT uk_refresh_tokens_hash UNIQUE(token_hash)
+);
+
+-- 17. REVOKED ACCESS TOKENS
+-- Access tokens (by jti) refused before their expiry, e.g. after logout; purged once expired
+CREATE TABLE anpl_sports.revoked_access_tokens (
+    jti VARCHAR(36) PRIMARY KEY,
+    expires_at TIMESTAMP NOT NULL
+);
+
+-- 18. SIGNUP UPLOADS
+-- Images uploaded before signup completes; registration claims them once by token (SHA-256 stored)
+CREATE TABLE anpl_sports.signup_uploads (
+    token_hash VARCHAR(64) PRIMARY KEY,
+    blob_handle VARCHAR(255) NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    uploader_address VARCHAR(64),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+-- 19. REGISTRATION NUMBER NODES
+-- Node ids leased by running instances for registration numbers; a lapsed lease can be taken over
+CREATE TABLE anpl_sports.registration_number_nodes (
+    node_id INTEGER PRIMARY KEY CHECK (node_id BETWEEN 0 AND 1023),
+    holder VARCHAR(255) NOT NULL,
+    leased_until TIMESTAMPTZ NOT NULL
+);
+
 -- ================================================================
 -- INDEXES FOR PERFORMANCE
 -- ================================================================
@@ -405,6 +500,11 @@ CREATE INDEX idx_users_aadhaar ON anpl_sports.users(aadhaar_number);
 CREATE INDEX idx_users_block ON anpl_sports.users(block);
 CREATE INDEX idx_users_role ON anpl_sports.users(role);
 CREATE INDEX idx_users_active ON anpl_sports.users(is_active);
+CREATE INDEX idx_users_updated_at ON anpl_sports.users(updated_at);
+-- Trigram GIN indexes serve the directory search's ILIKE '%q%' and word-similarity (<%) predicates
+CREATE INDEX idx_users_full_name_trgm ON anpl_sports.users USING gin (full_name gin_trgm_ops);
+CREATE INDEX idx_users_registration_number_trgm ON anpl_sports.users USING gin (registration_number gin_trgm_ops);
+CREATE INDEX idx_users_house_number_trgm ON anpl_sports.users USING gin (house_number gin_trgm_ops);
 
 -- Events Table Indexes
 CREATE INDEX idx_events_type ON anpl_sports.events(event_type);
@@ -419,6 +519,7 @@ CREATE INDEX idx_event_reg_event ON anpl_sports.event_registrations(event_id);
 CREATE INDEX idx_event_reg_status ON anpl_sports.event_registrations(registration_status);
 CREATE INDEX idx_event_reg_user_event ON anpl_sports.event_registrations(user_id, event_id);
 CREATE INDEX idx_event_reg_number ON anpl_sports.event_registrations(registration_number);
+CREATE INDEX idx_event_reg_updated_id ON anpl_sports.event_registrations(updated_at DESC, id DESC);
 
 -- Player Profiles Indexes
 CREATE INDEX idx_player_profile_user ON anpl_sports.player_profiles(user_id);
@@ -443,6 +544,35 @@ CREATE INDEX idx_payment_order ON anpl_sports.payments(razorpay_order_id);
 CREATE INDEX idx_payment_payment ON anpl_sports.payments(razorpay_payment_id);
 CREATE INDEX idx_payment_status ON anpl_sports.payments(payment_status);
 CREATE INDEX idx_payment_date ON anpl_sports.payments(payment_date);
+CREATE INDEX idx_payment_registration_created ON anpl_sports.payments(registration_id, created_at DESC);
+CREATE INDEX idx_payment_pending_created ON anpl_sports.payments(last_reconciled_at NULLS FIRST, created_at)
+    WHERE payment_status = 'PENDING' AND razorpay_order_id IS NOT NULL;
+
+-- Badminton Bundle Payment Indexes
+CREATE INDEX idx_badminton_bundle_order ON anpl_sports.badminton_registration_bundles(payment_order_id);
+CREATE INDEX idx_badminton_bundle_pending_updated ON anpl_sports.badminton_registration_bundles(
+    last_reconciled_at NULLS FIRST, updated_at)
+    WHERE bundle_status = 'PENDING' AND payment_order_id IS NOT NULL;
+
+-- Email Outbox Indexes
+CREATE INDEX idx_email_outbox_due ON anpl_sports.email_outbox(next_attempt_at)
+    WHERE status IN ('PENDING', 'SENDING');
+CREATE INDEX idx_email_outbox_status ON anpl_sports.email_outbox(status);
+
+-- Unreferenced blob sweep
+CREATE INDEX idx_upload_blobs_unreferenced ON anpl_sports.upload_blobs(touched_at) WHERE ref_count = 0;
+
+-- Auth rate limit sweep
+CREATE INDEX idx_auth_rate_limits_refilled_at ON anpl_sports.auth_rate_limits(refilled_at);
+
+-- Refresh token / revocation indexes
+CREATE INDEX idx_refresh_tokens_user ON anpl_sports.refresh_tokens(user_id);
+CREATE INDEX idx_refresh_tokens_family ON anpl_sports.refresh_tokens(family_id);
+CREATE INDEX idx_refresh_tokens_expires ON anpl_sports.refresh_tokens(expires_at);
+CREATE INDEX idx_revoked_access_tokens_expires ON anpl_sports.revoked_access_tokens(expires_at);
+
+-- Signup upload sweep
+CREATE INDEX idx_signup_uploads_expires ON anpl_sports.signup_uploads(expires_at);
 
 -- Password Reset Tokens Indexes
 CREATE INDEX idx_reset_token ON anpl_sports.password_reset_tokens(token);
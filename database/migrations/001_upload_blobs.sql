@@ -0,0 +1,39 @@
+-- ================================================================
+-- Upload blobs: content-addressed store, counting record references
+-- For databases created from the baseline schema (no upload_blobs table) and for databases that
+-- already have the first version of the table; anpl_sports_schema.sql already has it.
+-- Run once, with the application stopped.
+-- ================================================================
+
+SET search_path TO anpl_sports, public;
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS upload_blobs (
+    hash VARCHAR(64) PRIMARY KEY,
+    extension VARCHAR(10) NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    touched_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- The first version of the table counted uploads and had no touched_at
+ALTER TABLE upload_blobs ADD COLUMN IF NOT EXISTS touched_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE upload_blobs ALTER COLUMN ref_count SET DEFAULT 0;
+
+-- Recount references from the user photo columns, the only records that store blob handles
+UPDATE upload_blobs b
+SET ref_count = (
+    SELECT COUNT(*)
+    FROM (
+        SELECT aadhaar_front_photo AS handle FROM users
+        UNION ALL SELECT aadhaar_back_photo FROM users
+        UNION ALL SELECT player_photo FROM users
+    ) refs
+    WHERE refs.handle = 'blobs/' || substr(b.hash, 1, 2) || '/' || substr(b.hash, 3, 2) || '/' || b.hash || b.extension
+);
+
+CREATE INDEX IF NOT EXISTS idx_upload_blobs_unreferenced ON upload_blobs(touched_at) WHERE ref_count = 0;
+
+COMMIT;
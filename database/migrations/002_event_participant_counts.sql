@@ -0,0 +1,28 @@
+-- ================================================================
+-- Events: backfill current_participants and enforce capacity
+-- For databases created before events.current_participants was maintained;
+-- anpl_sports_schema.sql already has the constraint. Run once, with the application stopped.
+-- ================================================================
+
+SET search_path TO anpl_sports, public;
+
+BEGIN;
+
+-- current_participants counts APPROVED registrations; it was never maintained before
+UPDATE events e
+SET current_participants = (
+    SELECT COUNT(*)
+    FROM event_registrations r
+    WHERE r.event_id = e.id
+      AND r.registration_status = 'APPROVED'
+);
+
+-- Events already over capacity make the constraint below fail. List them with
+--   SELECT id, name, current_participants, max_participants FROM events
+--   WHERE max_participants IS NOT NULL AND current_participants > max_participants;
+-- and raise max_participants (or un-approve registrations) before re-running.
+ALTER TABLE events ADD CONSTRAINT chk_events_participants CHECK (
+    current_participants >= 0
+    AND (max_participants IS NULL OR current_participants <= max_participants));
+
+COMMIT;
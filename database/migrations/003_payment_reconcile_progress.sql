@@ -0,0 +1,22 @@
+-- ================================================================
+-- Payments: record when the stale-order reconciler last checked an order
+-- Lets each sweep take the least recently checked orders instead of the same oldest batch.
+-- ================================================================
+
+SET search_path TO anpl_sports, public;
+
+BEGIN;
+
+ALTER TABLE payments ADD COLUMN IF NOT EXISTS last_reconciled_at TIMESTAMP;
+ALTER TABLE badminton_registration_bundles ADD COLUMN IF NOT EXISTS last_reconciled_at TIMESTAMP;
+
+DROP INDEX IF EXISTS idx_payment_pending_created;
+CREATE INDEX idx_payment_pending_created ON payments(last_reconciled_at NULLS FIRST, created_at)
+    WHERE payment_status = 'PENDING' AND razorpay_order_id IS NOT NULL;
+
+DROP INDEX IF EXISTS idx_badminton_bundle_pending_updated;
+CREATE INDEX idx_badminton_bundle_pending_updated ON badminton_registration_bundles(
+    last_reconciled_at NULLS FIRST, updated_at)
+    WHERE bundle_status = 'PENDING' AND payment_order_id IS NOT NULL;
+
+COMMIT;
@@ -0,0 +1,40 @@
+-- ================================================================
+-- Refresh tokens and access-token revocation
+-- For databases created from the baseline schema; anpl_sports_schema.sql already has both tables.
+-- replaced_by_id remembers which token replaced a rotated one, which tells a rotation apart from a
+-- revocation, so two tabs refreshing at once do not revoke the family.
+-- ================================================================
+
+SET search_path TO anpl_sports, public;
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    token_hash VARCHAR(64) NOT NULL,
+    family_id VARCHAR(36) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    revoked_at TIMESTAMP,
+    replaced_by_id BIGINT,
+
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id)
+        REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT uk_refresh_tokens_hash UNIQUE(token_hash)
+);
+
+-- Tables created before the grace window lack the successor column
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS replaced_by_id BIGINT;
+
+CREATE TABLE IF NOT EXISTS revoked_access_tokens (
+    jti VARCHAR(36) PRIMARY KEY,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user ON refresh_tokens(user_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family ON refresh_tokens(family_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires ON refresh_tokens(expires_at);
+CREATE INDEX IF NOT EXISTS idx_revoked_access_tokens_expires ON revoked_access_tokens(expires_at);
+
+COMMIT;
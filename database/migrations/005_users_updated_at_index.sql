@@ -0,0 +1,11 @@
+-- ================================================================
+-- Users: index updated_at for the search index's periodic delta reload
+-- ================================================================
+
+SET search_path TO anpl_sports, public;
+
+BEGIN;
+
+CREATE INDEX IF NOT EXISTS idx_users_updated_at ON users(updated_at);
+
+COMMIT;
@@ -0,0 +1,17 @@
+-- ================================================================
+-- Registration numbers: node id leases
+-- Instances without app.registration-number.node-id lease their node id here, so two instances can
+-- never mint registration numbers with the same one.
+-- ================================================================
+
+SET search_path TO anpl_sports, public;
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS registration_number_nodes (
+    node_id INTEGER PRIMARY KEY CHECK (node_id BETWEEN 0 AND 1023),
+    holder VARCHAR(255) NOT NULL,
+    leased_until TIMESTAMPTZ NOT NULL
+);
+
+COMMIT;
@@ -0,0 +1,33 @@
+-- ================================================================
+-- Email outbox
+-- For databases created from the baseline schema; anpl_sports_schema.sql already has the table.
+-- lease_token fences the dispatcher's final status write, so a send that outlived its lease cannot
+-- overwrite the state of the dispatcher that re-claimed the message.
+-- ================================================================
+
+SET search_path TO anpl_sports, public;
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(500) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(1000),
+    lease_token VARCHAR(36),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP
+);
+
+-- Tables created before lease fencing lack the token column
+ALTER TABLE email_outbox ADD COLUMN IF NOT EXISTS lease_token VARCHAR(36);
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_due ON email_outbox(next_attempt_at)
+    WHERE status IN ('PENDING', 'SENDING');
+CREATE INDEX IF NOT EXISTS idx_email_outbox_status ON email_outbox(status);
+
+COMMIT;
@@ -0,0 +1,15 @@
+-- ================================================================
+-- Badminton registration entries: pooled id allocation
+-- BadmintonRegistrationEntry allocates ids in blocks of 50 (pooled optimizer) so its inserts can be
+-- batched. The sequence has to step by the same amount; with an increment of 1 the application would
+-- hand out ids below the current value and collide with existing rows. Run before deploying the
+-- application version that uses the sequence generator.
+-- ================================================================
+
+SET search_path TO anpl_sports, public;
+
+BEGIN;
+
+ALTER SEQUENCE badminton_registration_entries_id_seq INCREMENT BY 50;
+
+COMMIT;
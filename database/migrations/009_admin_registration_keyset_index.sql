@@ -0,0 +1,13 @@
+-- ================================================================
+-- Event registrations: keyset index for the admin listing
+-- The admin registrations page walks registrations by (updated_at DESC, id DESC).
+-- For databases created before this index; anpl_sports_schema.sql already has it.
+-- ================================================================
+
+SET search_path TO anpl_sports, public;
+
+BEGIN;
+
+CREATE INDEX IF NOT EXISTS idx_event_reg_updated_id ON event_registrations(updated_at DESC, id DESC);
+
+COMMIT;
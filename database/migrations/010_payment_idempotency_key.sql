@@ -0,0 +1,16 @@
+-- ================================================================
+-- Payments: idempotency key per gateway order attempt
+-- A retried payment initiation finds the payment row it already created instead of opening a second
+-- order. For databases created before the column; anpl_sports_schema.sql already has it.
+-- ================================================================
+
+SET search_path TO anpl_sports, public;
+
+BEGIN;
+
+ALTER TABLE payments ADD COLUMN IF NOT EXISTS idempotency_key VARCHAR(64);
+
+-- Existing rows keep a NULL key, which the unique constraint allows any number of times
+ALTER TABLE payments ADD CONSTRAINT uk_payments_idempotency_key UNIQUE(idempotency_key);
+
+COMMIT;
@@ -0,0 +1,15 @@
+-- ================================================================
+-- Payments: lookup indexes for webhook settlement and the stale-order reconciler
+-- The webhook resolves a bundle by its gateway order id, and a registration's latest payment by
+-- (registration_id, created_at DESC). For databases created before these indexes;
+-- anpl_sports_schema.sql already has them. The reconciler's partial indexes ship in 003.
+-- ================================================================
+
+SET search_path TO anpl_sports, public;
+
+BEGIN;
+
+CREATE INDEX IF NOT EXISTS idx_payment_registration_created ON payments(registration_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_badminton_bundle_order ON badminton_registration_bundles(payment_order_id);
+
+COMMIT;
@@ -0,0 +1,22 @@
+-- ================================================================
+-- Signup uploads
+-- Images uploaded before signup completes; registration claims each one once by token (only the
+-- SHA-256 is stored). For databases created before the table; anpl_sports_schema.sql already has it.
+-- ================================================================
+
+SET search_path TO anpl_sports, public;
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS signup_uploads (
+    token_hash VARCHAR(64) PRIMARY KEY,
+    blob_handle VARCHAR(255) NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    uploader_address VARCHAR(64),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_signup_uploads_expires ON signup_uploads(expires_at);
+
+COMMIT;
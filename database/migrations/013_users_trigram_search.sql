@@ -0,0 +1,19 @@
+-- ================================================================
+-- Users: trigram indexes for the directory search
+-- Serve the search's ILIKE '%q%' and word-similarity (<%) predicates. For databases created before
+-- these indexes; anpl_sports_schema.sql already has them. Creating the extension needs a role allowed
+-- to do so (pg_trgm is a trusted extension from PostgreSQL 13 on). The GIN builds lock users against
+-- writes while they run, so apply outside peak hours.
+-- ================================================================
+
+SET search_path TO anpl_sports, public;
+
+BEGIN;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_full_name_trgm ON users USING gin (full_name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_registration_number_trgm ON users USING gin (registration_number gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_house_number_trgm ON users USING gin (house_number gin_trgm_ops);
+
+COMMIT;
@@ -0,0 +1,20 @@
+-- ================================================================
+-- Auth rate limits
+-- Shared token buckets for login/password-reset throttling, used with
+-- app.auth.rate-limit.backend=jdbc. Unlogged: losing the buckets on a crash only resets the limits.
+-- For databases created before the table; anpl_sports_schema.sql already has it.
+-- ================================================================
+
+SET search_path TO anpl_sports, public;
+
+BEGIN;
+
+CREATE UNLOGGED TABLE IF NOT EXISTS auth_rate_limits (
+    bucket_key VARCHAR(400) PRIMARY KEY,
+    tokens DOUBLE PRECISION NOT NULL,
+    refilled_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_auth_rate_limits_refilled_at ON auth_rate_limits(refilled_at);
+
+COMMIT;
@@ -2,8 +2,10 @@ package com.anpl;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class AnplApplication {
     public static void main(String[] args) {
         SpringApplication.run(AnplApplication.class, args);
@@ -1,6 +1,5 @@
 package com.anpl.config;
 
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
@@ -10,22 +9,13 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.resource.PathResourceResolver;
 
 import java.io.IOException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
 
-    @Value("${file.upload.directory:./uploads}")
-    private String uploadDirectory;
-
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        Path uploadPath = Paths.get(uploadDirectory).toAbsolutePath().normalize();
-        String uploadLocation = uploadPath.toUri().toString();
-
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations(uploadLocation);
+        // /uploads/** is served by UploadController (ETags, ranges, immutable caching)
         registry.addResourceHandler("/**")
             .addResourceLocations("classpath:/static/")
             .resourceChain(true)
@@ -1,21 +1,27 @@
 package com.anpl.controller;
 
 import com.anpl.dto.AdminRegistrationDetailResponse;
+import com.anpl.dto.AdminRegistrationPageResponse;
 import com.anpl.dto.AdminRegistrationStatusUpdateRequest;
-import com.anpl.dto.AdminRegistrationSummaryResponse;
 import com.anpl.dto.ApiResponse;
+import com.anpl.dto.EventDetailResponse;
+import com.anpl.dto.EventPageResponse;
 import com.anpl.dto.EventRequest;
+import com.anpl.dto.UploadStorageStats;
 import com.anpl.model.Event;
 import com.anpl.model.RegistrationStatus;
 import com.anpl.service.AdminService;
+import com.anpl.service.ContentAddressedBlobStore;
 import com.anpl.service.EventService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -25,14 +31,17 @@ import java.util.List;
 public class AdminController {
     private final AdminService adminService;
     private final EventService eventService;
+    private final ContentAddressedBlobStore blobStore;
 
     @GetMapping("/registrations")
-    public ResponseEntity<ApiResponse<List<AdminRegistrationSummaryResponse>>> getAllRegistrations(
+    public ResponseEntity<ApiResponse<AdminRegistrationPageResponse>> getAllRegistrations(
             @RequestParam(required = false) String eventType,
             @RequestParam(required = false) RegistrationStatus status,
-            @RequestParam(required = false, defaultValue = "false") boolean includeFailed) {
-        List<AdminRegistrationSummaryResponse> registrations = adminService.getRegistrationSummaries(
-                eventType, status, includeFailed);
+            @RequestParam(required = false, defaultValue = "false") boolean includeFailed,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        AdminRegistrationPageResponse registrations = adminService.getRegistrationSummaries(
+                eventType, status, includeFailed, cursor, limit);
         return ResponseEntity.ok(ApiResponse.success(registrations));
     }
 
@@ -60,24 +69,34 @@ public class AdminController {
     }
 
     @GetMapping("/export/registrations")
-    public ResponseEntity<byte[]> exportRegistrations() {
-        byte[] excelFile = adminService.exportRegistrationsToExcel();
+    public ResponseEntity<StreamingResponseBody> exportRegistrations() {
+        StreamingResponseBody body = adminService::writeRegistrationsExcel;
         return ResponseEntity.ok()
                 .header("Content-Type", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
                 .header("Content-Disposition", "attachment; filename=registrations.xlsx")
-                .body(excelFile);
+                .body(body);
+    }
+
+    /**
+     * Blob count, references and stored vs. logical bytes (dedup ratio) of the upload store.
+     */
+    @GetMapping("/uploads/stats")
+    public ResponseEntity<ApiResponse<UploadStorageStats>> getUploadStats() {
+        return ResponseEntity.ok(ApiResponse.success(blobStore.stats()));
     }
 
     // Event Management Endpoints
     @GetMapping("/events")
-    public ResponseEntity<ApiResponse<List<Event>>> getAllEvents() {
-        List<Event> events = eventService.getAllEvents();
+    public ResponseEntity<ApiResponse<EventPageResponse>> getAllEvents(
+            @PageableDefault(size = 20, sort = "registrationStartDate", direction = Sort.Direction.DESC)
+            Pageable pageable) {
+        EventPageResponse events = eventService.getEventsPage(pageable);
         return ResponseEntity.ok(ApiResponse.success(events));
     }
 
     @GetMapping("/events/{id}")
-    public ResponseEntity<ApiResponse<Event>> getEventById(@PathVariable Long id) {
-        Event event = eventService.getEventById(id);
+    public ResponseEntity<ApiResponse<EventDetailResponse>> getEventById(@PathVariable Long id) {
+        EventDetailResponse event = eventService.getEventDetail(id);
         return ResponseEntity.ok(ApiResponse.success(event));
     }
 
@@ -101,6 +120,15 @@ public class AdminController {
         return ResponseEntity.ok(ApiResponse.success(null));
     }
 
+    /**
+     * Approves paid registrations parked while the event was full, after its capacity was raised.
+     */
+    @PostMapping("/events/{id}/approve-over-capacity")
+    public ResponseEntity<ApiResponse<Integer>> approveOverCapacity(@PathVariable Long id) {
+        int approved = adminService.approveOverCapacity(id);
+        return ResponseEntity.ok(ApiResponse.success(approved, approved + " registrations approved"));
+    }
+
     @PatchMapping("/events/{id}/toggle-status")
     public ResponseEntity<ApiResponse<Event>> toggleEventStatus(@PathVariable Long id) {
         Event event = eventService.toggleEventStatus(id);
@@ -1,19 +1,29 @@
 package com.anpl.controller;
 
 import com.anpl.dto.ApiResponse;
+import com.anpl.dto.AuthTokensResponse;
 import com.anpl.dto.ChangePasswordRequest;
 import com.anpl.dto.LoginRequest;
+import com.anpl.dto.RefreshTokenRequest;
 import com.anpl.dto.RegistrationRequest;
 import com.anpl.dto.UserResponse;
 import com.anpl.exception.InvalidCredentialsException;
 import com.anpl.security.UserPrincipal;
+import com.anpl.service.AuthTokenService;
+import com.anpl.service.SignupUploadService;
 import com.anpl.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -21,6 +31,13 @@ import org.springframework.web.bind.annotation.*;
 @CrossOrigin(origins = "*")
 public class AuthController {
     private final UserService userService;
+    private final SignupUploadService signupUploadService;
+    private final AuthTokenService authTokenService;
+
+    private static final Map<String, String> SIGNUP_UPLOAD_CATEGORIES = Map.of(
+            "aadhaar-front", "registration-aadhaar-front",
+            "aadhaar-back", "registration-aadhaar-back",
+            "profile-photo", "registration-profile-photo");
 
     @PostMapping("/register")
     public ResponseEntity<ApiResponse<UserResponse>> register(@Valid @RequestBody RegistrationRequest request) {
@@ -28,12 +45,51 @@ public class AuthController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    /**
+     * Signup images are uploaded as multipart before the form is submitted; the returned single-use
+     * token goes into the corresponding *PhotoData field of the registration request. Throttled per
+     * client address by {@link com.anpl.security.AuthRateLimitFilter}.
+     */
+    @PostMapping(value = "/uploads/{kind}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<Map<String, String>>> uploadSignupImage(
+            @PathVariable String kind,
+            @RequestParam("file") MultipartFile file,
+            HttpServletRequest request) throws IOException {
+        String category = SIGNUP_UPLOAD_CATEGORIES.get(kind);
+        if (category == null) {
+            throw new IllegalArgumentException("Unknown upload type: " + kind);
+        }
+        String uploadToken = signupUploadService.upload(file, category, request.getRemoteAddr());
+        return ResponseEntity.ok(ApiResponse.success(Map.of(
+                "uploadToken", uploadToken,
+                "message", "Image uploaded successfully"
+        )));
+    }
+
     @PostMapping("/login")
     public ResponseEntity<ApiResponse<UserResponse>> login(@Valid @RequestBody LoginRequest request) {
         UserResponse response = userService.login(request);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    /**
+     * Trades a refresh token for a new access token and a new refresh token; the old one stops working.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<AuthTokensResponse>> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(authTokenService.refresh(request.getRefreshToken())));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody(required = false) RefreshTokenRequest request) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7) : null;
+        authTokenService.logout(accessToken, request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.ok(ApiResponse.success(null));
+    }
+
     @PostMapping("/password-reset")
     public ResponseEntity<ApiResponse<Void>> initiatePasswordReset(@RequestParam String email,
                                                                    HttpServletRequest request) {
@@ -60,7 +116,7 @@ public class AuthController {
     public ResponseEntity<ApiResponse<Void>> changePassword(@AuthenticationPrincipal UserPrincipal userPrincipal,
                                                             @Valid @RequestBody ChangePasswordRequest request) {
         try {
-            userService.changePassword(userPrincipal.getUser(), request);
+            userService.changePassword(userPrincipal.getId(), request);
             return ResponseEntity.ok(ApiResponse.success(null, "Password updated successfully"));
         } catch (InvalidCredentialsException ex) {
             return ResponseEntity.badRequest().body(ApiResponse.error(ex.getMessage()));
@@ -2,15 +2,17 @@ package com.anpl.controller;
 
 import com.anpl.dto.*;
 import com.anpl.model.User;
+import com.anpl.service.BadmintonCategoryCatalogue;
 import com.anpl.service.BadmintonRegistrationService;
 import com.anpl.service.FileUploadService;
-import com.razorpay.RazorpayException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -25,10 +27,32 @@ public class BadmintonRegistrationController {
 
     private final BadmintonRegistrationService registrationService;
     private final FileUploadService fileUploadService;
+    private final BadmintonCategoryCatalogue categoryCatalogue;
 
+    /**
+     * Served from {@link BadmintonCategoryCatalogue}; clients revalidate with the catalogue ETag.
+     */
     @GetMapping("/categories")
-    public ResponseEntity<ApiResponse<List<BadmintonCategoryOption>>> getCategories() {
-        return ResponseEntity.ok(ApiResponse.success(registrationService.getCategories()));
+    public ResponseEntity<ApiResponse<List<BadmintonCategoryOption>>> getCategories(WebRequest request) {
+        BadmintonCategoryCatalogue.Snapshot catalogue = categoryCatalogue.snapshot();
+        if (request.checkNotModified(catalogue.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(catalogue.etag())
+                .body(ApiResponse.success(catalogue.options()));
+    }
+
+    /**
+     * Eligibility of the current user, paired with {@code partnerId} when given, for every active category.
+     */
+    @GetMapping("/categories/eligibility")
+    public ResponseEntity<ApiResponse<List<BadmintonCategoryEligibility>>> getCategoryEligibility(
+            @AuthenticationPrincipal(expression = "user") User currentUser,
+            @RequestParam(required = false) Long partnerId) {
+        return ResponseEntity.ok(ApiResponse.success(
+                registrationService.getEligibleCategories(currentUser, partnerId)));
     }
 
     @PostMapping("/complete")
@@ -43,7 +67,7 @@ public class BadmintonRegistrationController {
     @PostMapping("/order")
     public ResponseEntity<ApiResponse<BadmintonOrderResponse>> createOrder(
             @AuthenticationPrincipal(expression = "user") User currentUser,
-            @RequestBody Map<String, Long> payload) throws RazorpayException {
+            @RequestBody Map<String, Long> payload) {
         Long bundleId = payload.get("bundleId");
         BadmintonOrderResponse response = registrationService.createOrder(currentUser, bundleId);
         return ResponseEntity.ok(ApiResponse.success(response));
@@ -51,7 +75,7 @@ public class BadmintonRegistrationController {
 
     @PostMapping("/verify")
     public ResponseEntity<ApiResponse<Void>> verifyPayment(
-            @Valid @RequestBody BadmintonPaymentVerificationRequest request) throws RazorpayException {
+            @Valid @RequestBody BadmintonPaymentVerificationRequest request) {
         registrationService.verifyPayment(request);
         return ResponseEntity.ok(ApiResponse.success(null));
     }
@@ -1,11 +1,16 @@
 package com.anpl.controller;
 
 import com.anpl.dto.ApiResponse;
-import com.anpl.model.Event;
+import com.anpl.dto.EventDetailResponse;
+import com.anpl.dto.EventSummaryResponse;
+import com.anpl.service.ActiveEventsCache;
 import com.anpl.service.EventService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 
 @RestController
@@ -14,22 +19,33 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class EventController {
     private final EventService eventService;
+    private final ActiveEventsCache activeEventsCache;
 
+    /**
+     * Served from {@link ActiveEventsCache} as pre-serialized JSON; clients revalidate with the ETag.
+     */
     @GetMapping("/active")
-    public ResponseEntity<ApiResponse<List<Event>>> getActiveEvents() {
-        List<Event> activeEvents = eventService.getActiveEvents();
-        return ResponseEntity.ok(ApiResponse.success(activeEvents));
+    public ResponseEntity<byte[]> getActiveEvents(WebRequest request) {
+        ActiveEventsCache.Snapshot snapshot = activeEventsCache.get();
+        if (request.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(snapshot.etag())
+                .body(snapshot.json());
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Event>>> getAllEvents() {
-        List<Event> events = eventService.getAllEvents();
+    public ResponseEntity<ApiResponse<List<EventSummaryResponse>>> getAllEvents() {
+        List<EventSummaryResponse> events = eventService.getAllEvents();
         return ResponseEntity.ok(ApiResponse.success(events));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Event>> getEventById(@PathVariable Long id) {
-        Event event = eventService.getEventById(id);
+    public ResponseEntity<ApiResponse<EventDetailResponse>> getEventById(@PathVariable Long id) {
+        EventDetailResponse event = eventService.getEventDetail(id);
         return ResponseEntity.ok(ApiResponse.success(event));
     }
 } 
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.anpl.dto.ApiResponse;
 import com.anpl.dto.PaymentInitiateRequest;
 import com.anpl.dto.PaymentResponse;
 import com.anpl.dto.PaymentVerificationRequest;
+import com.anpl.service.PaymentReconciliationService;
 import com.anpl.service.PaymentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 @CrossOrigin(origins = "*")
 public class PaymentController {
     private final PaymentService paymentService;
+    private final PaymentReconciliationService reconciliationService;
 
     @PostMapping("/initiate")
     public ResponseEntity<ApiResponse<PaymentResponse>> initiatePayment(
@@ -30,6 +32,14 @@ public class PaymentController {
         return ResponseEntity.ok(ApiResponse.success(null));
     }
 
+    @PostMapping("/webhook")
+    public ResponseEntity<ApiResponse<Void>> handleWebhook(
+            @RequestHeader(value = "X-Razorpay-Signature", required = false) String signature,
+            @RequestBody String payload) {
+        reconciliationService.handleWebhook(payload, signature);
+        return ResponseEntity.ok(ApiResponse.success(null));
+    }
+
     @GetMapping("/{registrationId}/latest")
     public ResponseEntity<ApiResponse<PaymentResponse>> getLatestPayment(
             @PathVariable Long registrationId) {
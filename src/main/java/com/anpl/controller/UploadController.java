@@ -0,0 +1,242 @@
+package com.anpl.controller;
+
+import com.anpl.service.ImageVariantStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Serves stored uploads. Upload names never change content (content hashes, or UUIDs for older
+ * files), so responses carry a strong ETag and are cacheable forever; repeat views are answered with
+ * 304 or straight from the browser cache. Uploads include identity documents, so caching is
+ * {@code private}: browsers may keep them, shared proxies and CDNs must not. Bodies go out through Tomcat's sendfile when available and
+ * {@link FileChannel#transferTo} otherwise, and single byte ranges are honoured. Thumbnails from
+ * {@link ImageVariantStore} are served the same way under /thumbnails/{size}/.
+ */
+@Controller
+public class UploadController {
+
+    private static final String PATH_PREFIX = "/uploads/";
+    private static final String CACHE_CONTROL = "private, max-age=31536000, immutable";
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final Path uploadRoot;
+    private final ImageVariantStore variantStore;
+
+    public UploadController(@Value("${file.upload.directory:./uploads}") String uploadDirectory,
+                            ImageVariantStore variantStore) {
+        this.uploadRoot = Paths.get(uploadDirectory).toAbsolutePath().normalize();
+        this.variantStore = variantStore;
+    }
+
+    @RequestMapping(value = "/uploads/**", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = resolve(relativePath(request, PATH_PREFIX));
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        send(request, response, file, attributes, etagFor(file, attributes));
+    }
+
+    /**
+     * Downscaled JPEG of an uploaded image ({@link ImageVariantStore#THUMBNAIL} or
+     * {@link ImageVariantStore#PREVIEW} px), generated on first request. Uploads that cannot be scaled
+     * redirect to the original.
+     */
+    @RequestMapping(value = "/thumbnails/{size}/**", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serveVariant(@PathVariable int size, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String handle = relativePath(request, ImageVariantStore.URL_PREFIX + size + "/");
+        Path source = resolve(handle);
+        if (source == null || !ImageVariantStore.isSupportedSize(size)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Path variant = variantStore.variant(handle, size);
+        if (variant == null) {
+            response.sendRedirect(request.getContextPath() + PATH_PREFIX + handle);
+            return;
+        }
+        String sourceEtag = etagFor(source, Files.readAttributes(source, BasicFileAttributes.class));
+        String etag = sourceEtag.substring(0, sourceEtag.length() - 1) + "-w" + size + "\"";
+        send(request, response, variant, Files.readAttributes(variant, BasicFileAttributes.class), etag);
+    }
+
+    private void send(HttpServletRequest request, HttpServletResponse response, Path file,
+                      BasicFileAttributes attributes, String etag) throws IOException {
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        String contentType = request.getServletContext().getMimeType(file.getFileName().toString());
+        response.setContentType(contentType != null ? contentType : "application/octet-stream");
+
+        long start = 0;
+        long end = size - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && rangeApplies(request.getHeader(HttpHeaders.IF_RANGE), etag, lastModified)) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private static String relativePath(HttpServletRequest request, String prefix) {
+        String uri = request.getRequestURI().substring(request.getContextPath().length());
+        if (!uri.startsWith(prefix)) {
+            return null;
+        }
+        return UriUtils.decode(uri.substring(prefix.length()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Maps a path relative to the upload directory onto a file, refusing anything outside it and the
+     * hidden staging and variant areas.
+     */
+    private Path resolve(String relative) {
+        if (relative == null || relative.isEmpty() || relative.startsWith(".") || relative.contains("/.")) {
+            return null;
+        }
+        Path file = uploadRoot.resolve(relative).normalize();
+        if (!file.startsWith(uploadRoot) || !Files.isRegularFile(file)) {
+            return null;
+        }
+        return file;
+    }
+
+    /**
+     * Blob names are their SHA-256, which is the ideal strong validator; older UUID-named files fall
+     * back to size and modification time, which never change for them either.
+     */
+    private static String etagFor(Path file, BasicFileAttributes attributes) {
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String name = file.getFileName().toString();
+        int dot = name.indexOf('.');
+        String stem = dot == -1 ? name : name.substring(0, dot);
+        if (stem.length() == 64 && stem.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+            return "\"" + stem + "\"";
+        }
+        return "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+
+    private static boolean rangeApplies(String ifRange, String etag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME)
+                    .toInstant().toEpochMilli() / 1000 == lastModified / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns {@code [start, end]} for a satisfiable single range, an empty array when the header should
+     * be ignored (unsupported unit or multiple ranges; the full body is sent), or null when unsatisfiable.
+     */
+    private static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') != -1) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash == -1) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            }
+            if (start >= size || start > end) {
+                return null;
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
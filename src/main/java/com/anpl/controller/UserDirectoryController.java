@@ -2,15 +2,16 @@ package com.anpl.controller;
 
 import com.anpl.dto.ApiResponse;
 import com.anpl.dto.UserResponse;
-import com.anpl.model.User;
-import com.anpl.repository.UserRepository;
+import com.anpl.security.UserPrincipal;
+import com.anpl.service.UserDirectoryService;
+import com.anpl.service.UserSearchRateLimiter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/users")
@@ -19,19 +20,15 @@ import java.util.stream.Collectors;
 @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
 public class UserDirectoryController {
 
-    private final UserRepository userRepository;
+    private final UserDirectoryService userDirectoryService;
+    private final UserSearchRateLimiter rateLimiter;
 
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<UserResponse>>> searchUsers(@RequestParam("query") String query) {
-        if (query == null || query.trim().length() < 3) {
-            return ResponseEntity.ok(ApiResponse.success(List.of()));
-        }
-        List<User> users = userRepository
-                .findTop10ByFullNameContainingIgnoreCaseOrRegistrationNumberContainingIgnoreCase(query, query);
-        List<UserResponse> responses = users.stream()
-                .map(UserResponse::fromUser)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(ApiResponse.success(responses));
+    public ResponseEntity<ApiResponse<List<UserResponse>>> searchUsers(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam("query") String query) {
+        rateLimiter.acquire(userPrincipal.getId());
+        return ResponseEntity.ok(ApiResponse.success(userDirectoryService.search(query)));
     }
 }
 
@@ -0,0 +1,14 @@
+package com.anpl.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class AdminRegistrationPageResponse {
+    private List<AdminRegistrationSummaryResponse> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -2,13 +2,18 @@ package com.anpl.dto;
 
 import com.anpl.model.RegistrationCategory;
 import com.anpl.model.RegistrationStatus;
+import com.anpl.service.ImageVariantStore;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class AdminRegistrationSummaryResponse {
     private Long registrationId;
     private String registrationNumber;
@@ -35,5 +40,17 @@ public class AdminRegistrationSummaryResponse {
     private String aadhaarFrontPhoto;
     private String aadhaarBackPhoto;
     private String playerPhoto;
-}
 
+    // Derived rather than stored so the JPQL constructor projection stays unchanged
+    public String getAadhaarFrontThumbnailUrl() {
+        return ImageVariantStore.urlFor(aadhaarFrontPhoto, ImageVariantStore.THUMBNAIL);
+    }
+
+    public String getAadhaarBackThumbnailUrl() {
+        return ImageVariantStore.urlFor(aadhaarBackPhoto, ImageVariantStore.THUMBNAIL);
+    }
+
+    public String getPlayerPhotoThumbnailUrl() {
+        return ImageVariantStore.urlFor(playerPhoto, ImageVariantStore.THUMBNAIL);
+    }
+}
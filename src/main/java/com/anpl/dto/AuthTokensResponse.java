@@ -0,0 +1,15 @@
+package com.anpl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class AuthTokensResponse {
+    private String token;
+    private String refreshToken;
+    /**
+     * Access token lifetime in seconds.
+     */
+    private Long expiresIn;
+}
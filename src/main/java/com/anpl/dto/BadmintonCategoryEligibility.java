@@ -0,0 +1,19 @@
+package com.anpl.dto;
+
+import com.anpl.model.BadmintonCategoryType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BadmintonCategoryEligibility {
+    private Long categoryId;
+    private String name;
+    private BadmintonCategoryType categoryType;
+    private boolean eligible;
+    private String reason;
+    // Family categories only: self relations the player can choose with this partner
+    private List<String> selfRelations;
+}
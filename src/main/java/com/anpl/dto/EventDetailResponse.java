@@ -0,0 +1,30 @@
+package com.anpl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventDetailResponse {
+    private Long id;
+    private String name;
+    private String description;
+    private String eventType;
+    private Double price;
+    private Integer year;
+    private boolean active;
+    private LocalDateTime registrationStartDate;
+    private LocalDateTime registrationEndDate;
+    private LocalDateTime eventStartDate;
+    private LocalDateTime eventEndDate;
+    private Integer maxParticipants;
+    private Integer currentParticipants;
+    private String venue;
+    private String rulesDocument;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,16 @@
+package com.anpl.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class EventPageResponse {
+    private List<EventSummaryResponse> items;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+}
@@ -25,5 +25,9 @@ public class EventRequest {
     private LocalDateTime registrationStartDate;
 
     private LocalDateTime registrationEndDate;
+
+    // Null means no limit on create and keeps the current limit on update
+    @Min(value = 1, message = "Maximum participants must be at least 1")
+    private Integer maxParticipants;
 }
 
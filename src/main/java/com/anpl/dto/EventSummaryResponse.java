@@ -0,0 +1,32 @@
+package com.anpl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * List-view shape of an event, projected directly by {@code EventRepository.EVENT_SUMMARY_SELECT}.
+ * Carries a short {@code summary} in place of the full description; rules and audit columns are only
+ * in {@link EventDetailResponse}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventSummaryResponse {
+    private Long id;
+    private String name;
+    private String eventType;
+    private Double price;
+    private Integer year;
+    private boolean active;
+    private LocalDateTime registrationStartDate;
+    private LocalDateTime registrationEndDate;
+    private LocalDateTime eventStartDate;
+    private LocalDateTime eventEndDate;
+    private Integer maxParticipants;
+    private Integer currentParticipants;
+    private String venue;
+    private String summary;
+}
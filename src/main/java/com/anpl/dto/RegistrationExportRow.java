@@ -0,0 +1,19 @@
+package com.anpl.dto;
+
+import com.anpl.model.RegistrationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class RegistrationExportRow {
+    private String registrationNumber;
+    private String fullName;
+    private String email;
+    private String phoneNumber;
+    private String eventName;
+    private RegistrationStatus registrationStatus;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,21 @@
+package com.anpl.dto;
+
+import com.anpl.model.PaymentStatus;
+import com.anpl.model.RegistrationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class RegistrationStatusView {
+    private Long registrationId;
+    private Long eventId;
+    private String eventName;
+    private String eventType;
+    private String registrationNumber;
+    private RegistrationStatus registrationStatus;
+    private PaymentStatus paymentStatus;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,20 @@
+package com.anpl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UploadStorageStats {
+    private Long blobCount;
+    private Long referenceCount;
+    private Long storedBytes;
+    private Long logicalBytes;
+
+    /**
+     * Logical bytes uploaded per byte actually stored; 1.0 means no duplicates.
+     */
+    public double getDedupRatio() {
+        return storedBytes == null || storedBytes == 0 ? 1.0 : (double) logicalBytes / storedBytes;
+    }
+}
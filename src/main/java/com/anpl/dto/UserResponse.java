@@ -23,6 +23,8 @@ public class UserResponse {
     private String playerPhoto;
     private Boolean hasAadhaarDocuments;
     private String token;
+    private String refreshToken;
+    private Long expiresIn;
     private String role;
 
     public static UserResponse fromUser(User user) {
@@ -0,0 +1,16 @@
+package com.anpl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The searchable columns of a user, streamed by {@code UserRepository.streamSearchDocuments}.
+ */
+@Data
+@AllArgsConstructor
+public class UserSearchDocument {
+    private Long id;
+    private String fullName;
+    private String registrationNumber;
+    private String houseNumber;
+}
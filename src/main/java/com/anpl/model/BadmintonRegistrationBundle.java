@@ -46,6 +46,9 @@ public class BadmintonRegistrationBundle {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt = LocalDateTime.now();
 
+    @Column(name = "last_reconciled_at")
+    private LocalDateTime lastReconciledAt;
+
     @OneToMany(mappedBy = "bundle", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<BadmintonRegistrationEntry> entries = new ArrayList<>();
 
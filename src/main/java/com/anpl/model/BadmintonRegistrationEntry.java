@@ -2,9 +2,6 @@ package com.anpl.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
-import org.springframework.util.StringUtils;
-
-import java.util.UUID;
 
 @Data
 @Entity
@@ -12,7 +9,12 @@ import java.util.UUID;
 public class BadmintonRegistrationEntry {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "badminton_entry_seq")
+    @SequenceGenerator(
+            name = "badminton_entry_seq",
+            sequenceName = "badminton_registration_entries_id_seq",
+            schema = "anpl_sports",
+            allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -66,12 +68,5 @@ public class BadmintonRegistrationEntry {
     @Enumerated(EnumType.STRING)
     @Column(name = "entry_status", nullable = false, length = 20)
     private RegistrationStatus entryStatus = RegistrationStatus.PENDING;
-
-    @PrePersist
-    private void ensureRegistrationCode() {
-        if (!StringUtils.hasText(registrationCode)) {
-            registrationCode = "B" + UUID.randomUUID().toString().replace("-", "").substring(0, 9).toUpperCase();
-        }
-    }
 }
 
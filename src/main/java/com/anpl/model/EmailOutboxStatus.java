@@ -0,0 +1,8 @@
+package com.anpl.model;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    DEAD
+}
@@ -43,10 +43,12 @@ public class Event {
     @Column(name = "event_end_date")
     private LocalDateTime eventEndDate;
 
-    @Column(name = "max_participants")
+    // Set on insert; later changes go through EventCapacityService.resize so they respect the count
+    @Column(name = "max_participants", updatable = false)
     private Integer maxParticipants;
 
-    @Column(name = "current_participants")
+    // Maintained only by EventCapacityService's conditional UPDATEs, never by entity saves
+    @Column(name = "current_participants", updatable = false)
     private Integer currentParticipants = 0;
 
     @Column(length = 255)
@@ -75,9 +75,6 @@ public class EventRegistration {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
-        if (registrationNumber == null) {
-            registrationNumber = generateRegistrationNumber();
-        }
         if (termsAccepted && termsAcceptedAt == null) {
             termsAcceptedAt = LocalDateTime.now();
         }
@@ -90,8 +87,4 @@ public class EventRegistration {
             termsAcceptedAt = LocalDateTime.now();
         }
     }
-
-    private String generateRegistrationNumber() {
-        return "REG" + System.currentTimeMillis();
-    }
 } 
\ No newline at end of file
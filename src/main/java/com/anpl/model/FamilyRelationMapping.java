@@ -2,6 +2,13 @@ package com.anpl.model;
 
 import lombok.Getter;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
 @Getter
 public enum FamilyRelationMapping {
     HUSBAND_WIFE("Husband & Wife", "Husband", "Wife", Gender.MALE, Gender.FEMALE),
@@ -37,14 +44,38 @@ public enum FamilyRelationMapping {
         this.partnerGender = partnerGender;
     }
 
-    public static FamilyRelationMapping forCategoryAndSelf(String categoryName, String selfRelation) {
+    private static final Map<String, FamilyRelationMapping> BY_CATEGORY_AND_SELF = new HashMap<>();
+    private static final Map<String, List<FamilyRelationMapping>> BY_CATEGORY = new HashMap<>();
+
+    static {
         for (FamilyRelationMapping mapping : values()) {
-            if (mapping.categoryName.equalsIgnoreCase(categoryName)
-                    && mapping.selfRelation.equalsIgnoreCase(selfRelation)) {
-                return mapping;
-            }
+            BY_CATEGORY_AND_SELF.put(key(mapping.categoryName, mapping.selfRelation), mapping);
+            BY_CATEGORY.computeIfAbsent(normalize(mapping.categoryName), name -> new ArrayList<>()).add(mapping);
         }
-        return null;
     }
-}
 
+    public static FamilyRelationMapping forCategoryAndSelf(String categoryName, String selfRelation) {
+        if (categoryName == null || selfRelation == null) {
+            return null;
+        }
+        return BY_CATEGORY_AND_SELF.get(key(categoryName, selfRelation));
+    }
+
+    /**
+     * Every self/partner pairing offered by a family category, in declaration order.
+     */
+    public static List<FamilyRelationMapping> forCategory(String categoryName) {
+        if (categoryName == null) {
+            return List.of();
+        }
+        return Collections.unmodifiableList(BY_CATEGORY.getOrDefault(normalize(categoryName), List.of()));
+    }
+
+    private static String key(String categoryName, String selfRelation) {
+        return normalize(categoryName) + '\u0000' + normalize(selfRelation);
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -32,6 +32,9 @@ public class Payment {
     @Column(name = "razorpay_signature")
     private String razorpaySignature;
 
+    @Column(name = "idempotency_key", length = 64, unique = true)
+    private String idempotencyKey;
+
     @Column(name = "payment_status", nullable = false)
     @Enumerated(EnumType.STRING)
     private PaymentStatus paymentStatus;
@@ -55,6 +58,9 @@ public class Payment {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
+    @Column(name = "last_reconciled_at")
+    private LocalDateTime lastReconciledAt;
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
@@ -0,0 +1,41 @@
+package com.anpl.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One issued refresh token, stored as its SHA-256 only. Every rotation revokes the presented token
+ * and issues a successor in the same family, so a revoked token coming back means it was stolen and
+ * the whole family is revoked. {@code replacedById} tells a rotation apart from a revocation.
+ */
+@Data
+@Entity
+@Table(name = "refresh_tokens", schema = "anpl_sports")
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+
+    @Column(name = "replaced_by_id")
+    private Long replacedById;
+}
@@ -5,5 +5,12 @@ public enum RegistrationStatus {
     APPROVED,
     REJECTED,
     FAILED,
-    CANCELLED
+    CANCELLED,
+    /**
+     * Paid, but the event filled up before the payment was settled. An admin raises the capacity
+     * (PUT /api/admin/events/{id} with maxParticipants) and approves parked registrations
+     * (POST /api/admin/events/{id}/approve-over-capacity). Rejecting one does not refund it; the refund
+     * is issued from the gateway dashboard.
+     */
+    PAID_OVER_CAPACITY
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.anpl.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * An access token (by {@code jti}) that must be refused before it expires, e.g. after logout.
+ * Rows are purged once {@code expiresAt} passes since the token is dead anyway.
+ */
+@Data
+@Entity
+@Table(name = "revoked_access_tokens", schema = "anpl_sports")
+public class RevokedAccessToken {
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,36 @@
+package com.anpl.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * An image uploaded during signup, before the account exists. The uploader gets an opaque token
+ * (only its SHA-256 is stored) that registration exchanges once for the blob, and only for the
+ * category it was uploaded as. Unclaimed rows are swept after {@code expiresAt} and their blob
+ * reference released.
+ */
+@Data
+@Entity
+@Table(name = "signup_uploads", schema = "anpl_sports")
+public class SignupUpload {
+    @Id
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    @Column(name = "blob_handle", nullable = false)
+    private String blobHandle;
+
+    @Column(nullable = false, length = 50)
+    private String category;
+
+    @Column(name = "uploader_address", length = 64)
+    private String uploaderAddress;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
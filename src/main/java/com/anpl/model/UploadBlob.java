@@ -0,0 +1,33 @@
+package com.anpl.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "upload_blobs", schema = "anpl_sports")
+public class UploadBlob {
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(nullable = false, length = 10)
+    private String extension;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Last upload or reference change; unreferenced blobs are only swept once this is old enough.
+     */
+    @Column(name = "touched_at", nullable = false)
+    private LocalDateTime touchedAt;
+}
@@ -1,5 +1,6 @@
 package com.anpl.model;
 
+import com.anpl.service.UserSearchIndexListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDate;
@@ -8,6 +9,7 @@ import java.time.LocalDateTime;
 @Data
 @Entity
 @Table(name = "users", schema = "anpl_sports")
+@EntityListeners(UserSearchIndexListener.class)
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,10 +1,18 @@
 package com.anpl.repository;
 
 import com.anpl.model.BadmintonRegistrationBundle;
+import com.anpl.model.RegistrationStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,8 +29,29 @@ public interface BadmintonRegistrationBundleRepository extends JpaRepository<Bad
     Optional<BadmintonRegistrationBundle> findFirstByUserIdAndEventIdAndBundleStatusOrderByUpdatedAtDesc(
             Long userId,
             Long eventId,
-            com.anpl.model.RegistrationStatus bundleStatus);
+            RegistrationStatus bundleStatus);
 
     Optional<BadmintonRegistrationBundle> findByPaymentOrderId(String paymentOrderId);
+
+    @Query("SELECT b FROM BadmintonRegistrationBundle b WHERE b.bundleStatus = :status " +
+            "AND b.paymentOrderId IS NOT NULL AND b.updatedAt > :notBefore AND b.updatedAt < :staleBefore " +
+            "ORDER BY b.lastReconciledAt ASC NULLS FIRST, b.updatedAt")
+    List<BadmintonRegistrationBundle> findStaleOrders(@Param("status") RegistrationStatus status,
+                                                      @Param("notBefore") LocalDateTime notBefore,
+                                                      @Param("staleBefore") LocalDateTime staleBefore,
+                                                      Pageable pageable);
+
+    /**
+     * Stamps the sweep without touching {@code updatedAt}, which bounds the reconcile window.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE BadmintonRegistrationBundle b SET b.lastReconciledAt = :now WHERE b.id IN :ids")
+    int markReconciled(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE BadmintonRegistrationBundle b SET b.paymentOrderId = :orderId, b.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE b.id = :bundleId AND b.paymentOrderId IS NULL")
+    int claimPaymentOrder(@Param("bundleId") Long bundleId, @Param("orderId") String orderId);
 }
 
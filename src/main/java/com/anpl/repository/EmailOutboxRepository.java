@@ -0,0 +1,56 @@
+package com.anpl.repository;
+
+import com.anpl.model.EmailOutboxMessage;
+import com.anpl.model.EmailOutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    /**
+     * Locks up to {@code batchSize} due messages. SENDING rows whose lease has expired are picked up
+     * again so a crashed dispatcher never strands mail. SKIP LOCKED lets several instances poll safely.
+     */
+    @Query(value = "SELECT * FROM anpl_sports.email_outbox " +
+            "WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at " +
+            "LIMIT :batchSize " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailOutboxMessage> lockDueBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+
+    /**
+     * Pushes the lease of messages still being sent under the given tokens. A row another dispatcher
+     * has since re-claimed carries a different token and is left alone.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutboxMessage m SET m.nextAttemptAt = :until " +
+            "WHERE m.leaseToken IN :leaseTokens AND m.status = :sending")
+    int renewLeases(@Param("leaseTokens") Collection<String> leaseTokens, @Param("until") LocalDateTime until,
+                    @Param("sending") EmailOutboxStatus sending);
+
+    /**
+     * Records the outcome of a send, but only while the caller still holds the lease. Returns 0 when
+     * the row was re-claimed in the meantime, in which case the new holder owns its state.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :status, m.attempts = :attempts, " +
+            "m.nextAttemptAt = :nextAttemptAt, m.lastError = :lastError, m.sentAt = :sentAt, m.leaseToken = NULL " +
+            "WHERE m.id = :id AND m.leaseToken = :leaseToken")
+    int completeAttempt(@Param("id") Long id, @Param("leaseToken") String leaseToken,
+                        @Param("status") EmailOutboxStatus status, @Param("attempts") Integer attempts,
+                        @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("lastError") String lastError,
+                        @Param("sentAt") LocalDateTime sentAt);
+
+    long countByStatus(EmailOutboxStatus status);
+}
@@ -1,17 +1,54 @@
 package com.anpl.repository;
 
+import com.anpl.dto.AdminRegistrationSummaryResponse;
+import com.anpl.dto.RegistrationExportRow;
+import com.anpl.dto.RegistrationStatusView;
 import com.anpl.model.EventRegistration;
 import com.anpl.model.RegistrationStatus;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EventRegistrationRepository extends JpaRepository<EventRegistration, Long> {
+    String ADMIN_SUMMARY_SELECT = "SELECT new com.anpl.dto.AdminRegistrationSummaryResponse(" +
+            "r.id, u.registrationNumber, r.registrationStatus, r.createdAt, r.updatedAt, " +
+            "u.id, u.fullName, u.email, u.phoneNumber, u.whatsappNumber, u.block, u.houseNumber, " +
+            "e.id, e.name, e.eventType, " +
+            "r.registrationCategory, r.jerseyNumber, r.availableAllDays, " +
+            "u.aadhaarFrontPhoto, u.aadhaarBackPhoto, u.playerPhoto) " +
+            "FROM EventRegistration r JOIN r.user u JOIN r.event e " +
+            "WHERE (:includeFailed = true OR r.registrationStatus <> com.anpl.model.RegistrationStatus.FAILED) " +
+            "AND (:eventType IS NULL OR UPPER(e.eventType) = :eventType) " +
+            "AND (:status IS NULL OR r.registrationStatus = :status) ";
+
+    String ADMIN_SUMMARY_ORDER = "ORDER BY r.updatedAt DESC, r.id DESC";
+
     List<EventRegistration> findByUserIdAndRegistrationStatusNot(Long userId, RegistrationStatus registrationStatus);
+
+    /**
+     * Locks the event's registrations in the given status, oldest first, so two admins resolving the
+     * same event cannot both move one registration.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM EventRegistration r WHERE r.event.id = :eventId AND r.registrationStatus = :status " +
+            "ORDER BY r.updatedAt, r.id")
+    List<EventRegistration> lockByEventAndStatus(@Param("eventId") Long eventId,
+                                                 @Param("status") RegistrationStatus status);
     Optional<EventRegistration> findByUserIdAndEventIdAndRegistrationStatus(Long userId, Long eventId, RegistrationStatus registrationStatus);
     Optional<EventRegistration> findByUserIdAndEventId(Long userId, Long eventId);
     boolean existsByEventIdAndJerseyNumber(Long eventId, Integer jerseyNumber);
@@ -22,4 +59,51 @@ public interface EventRegistrationRepository extends JpaRepository<EventRegistra
 
     @EntityGraph(attributePaths = {"user", "event"})
     Optional<EventRegistration> findById(Long id);
-} 
\ No newline at end of file
+
+    /**
+     * First page of the admin registration listing, projected straight into the summary DTO.
+     * {@code eventType} must already be upper-cased by the caller.
+     */
+    @Query(ADMIN_SUMMARY_SELECT + ADMIN_SUMMARY_ORDER)
+    List<AdminRegistrationSummaryResponse> findAdminSummaries(@Param("eventType") String eventType,
+                                                              @Param("status") RegistrationStatus status,
+                                                              @Param("includeFailed") boolean includeFailed,
+                                                              Pageable pageable);
+
+    /**
+     * Subsequent pages, continuing strictly after the {@code (updatedAt, id)} keyset of the last row seen.
+     */
+    @Query(ADMIN_SUMMARY_SELECT +
+            "AND (r.updatedAt < :cursorUpdatedAt OR (r.updatedAt = :cursorUpdatedAt AND r.id < :cursorId)) " +
+            ADMIN_SUMMARY_ORDER)
+    List<AdminRegistrationSummaryResponse> findAdminSummariesAfter(@Param("eventType") String eventType,
+                                                                   @Param("status") RegistrationStatus status,
+                                                                   @Param("includeFailed") boolean includeFailed,
+                                                                   @Param("cursorUpdatedAt") LocalDateTime cursorUpdatedAt,
+                                                                   @Param("cursorId") Long cursorId,
+                                                                   Pageable pageable);
+
+    /**
+     * Forward-only stream of export rows. Must be consumed inside a read-only transaction so the
+     * PostgreSQL driver can use a server-side cursor instead of buffering the whole result set.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.anpl.dto.RegistrationExportRow(" +
+            "u.registrationNumber, u.fullName, u.email, u.phoneNumber, e.name, r.registrationStatus, r.createdAt) " +
+            "FROM EventRegistration r JOIN r.user u JOIN r.event e " +
+            "ORDER BY r.id")
+    Stream<RegistrationExportRow> streamExportRows();
+
+    /**
+     * Status poll in one statement: registration, event and latest payment status.
+     */
+    @Query("SELECT new com.anpl.dto.RegistrationStatusView(" +
+            "r.id, e.id, e.name, e.eventType, r.registrationNumber, r.registrationStatus, " +
+            "(SELECT p.paymentStatus FROM Payment p WHERE p.registration = r " +
+            "ORDER BY p.createdAt DESC, p.id DESC LIMIT 1), r.createdAt) " +
+            "FROM EventRegistration r JOIN r.event e WHERE r.id = :id")
+    Optional<RegistrationStatusView> findStatusView(@Param("id") Long id);
+}
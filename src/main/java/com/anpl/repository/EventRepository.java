@@ -1,15 +1,78 @@
 package com.anpl.repository;
 
+import com.anpl.dto.EventDetailResponse;
+import com.anpl.dto.EventSummaryResponse;
 import com.anpl.model.Event;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
-    List<Event> findByActiveIsTrueAndRegistrationEndDateAfterAndRegistrationStartDateBefore(
-        LocalDateTime now,
-        LocalDateTime now2
-    );
-} 
\ No newline at end of file
+    /**
+     * Shared list-view projection: everything but the TEXT description (cut to a short summary),
+     * the rules document and audit columns.
+     */
+    String EVENT_SUMMARY_SELECT = "SELECT new com.anpl.dto.EventSummaryResponse(" +
+            "e.id, e.name, e.eventType, e.price, e.year, e.active, " +
+            "e.registrationStartDate, e.registrationEndDate, e.eventStartDate, e.eventEndDate, " +
+            "e.maxParticipants, e.currentParticipants, e.venue, SUBSTRING(e.description, 1, 280)) " +
+            "FROM Event e ";
+
+    @Query(EVENT_SUMMARY_SELECT +
+            "WHERE e.active = true AND e.registrationEndDate > :now AND e.registrationStartDate < :now " +
+            "ORDER BY e.registrationEndDate ASC, e.id ASC")
+    List<EventSummaryResponse> findActiveSummaries(@Param("now") LocalDateTime now);
+
+    @Query("SELECT MIN(e.registrationStartDate) FROM Event e " +
+            "WHERE e.active = true AND e.registrationStartDate > :now")
+    Optional<LocalDateTime> findNextRegistrationOpening(@Param("now") LocalDateTime now);
+
+    @Query(EVENT_SUMMARY_SELECT)
+    List<EventSummaryResponse> findAllSummaries(Sort sort);
+
+    @Query(value = EVENT_SUMMARY_SELECT, countQuery = "SELECT COUNT(e) FROM Event e")
+    Page<EventSummaryResponse> findSummaryPage(Pageable pageable);
+
+    @Query("SELECT new com.anpl.dto.EventDetailResponse(" +
+            "e.id, e.name, e.description, e.eventType, e.price, e.year, e.active, " +
+            "e.registrationStartDate, e.registrationEndDate, e.eventStartDate, e.eventEndDate, " +
+            "e.maxParticipants, e.currentParticipants, e.venue, e.rulesDocument, e.createdAt, e.updatedAt) " +
+            "FROM Event e WHERE e.id = :id")
+    Optional<EventDetailResponse> findDetailById(@Param("id") Long id);
+
+    /**
+     * Takes one participant slot unless the event is already full. Returns the number of rows updated
+     * (0 when full), which makes concurrent approvals race-free without locking the row up front.
+     */
+    @Modifying
+    @Query("UPDATE Event e SET e.currentParticipants = COALESCE(e.currentParticipants, 0) + 1 " +
+            "WHERE e.id = :eventId " +
+            "AND (e.maxParticipants IS NULL OR COALESCE(e.currentParticipants, 0) < e.maxParticipants)")
+    int tryReserveSlot(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.currentParticipants = e.currentParticipants - 1 " +
+            "WHERE e.id = :eventId AND e.currentParticipants > 0")
+    int releaseSlot(@Param("eventId") Long eventId);
+
+    /**
+     * Sets the capacity unless more registrations are already approved than it allows. Returns the number
+     * of rows updated (0 when the new capacity is too small).
+     */
+    @Modifying
+    @Query("UPDATE Event e SET e.maxParticipants = :maxParticipants " +
+            "WHERE e.id = :eventId AND COALESCE(e.currentParticipants, 0) <= :maxParticipants")
+    int resize(@Param("eventId") Long eventId, @Param("maxParticipants") int maxParticipants);
+
+    @Query("SELECT e.currentParticipants FROM Event e WHERE e.id = :eventId")
+    Integer findCurrentParticipants(@Param("eventId") Long eventId);
+}
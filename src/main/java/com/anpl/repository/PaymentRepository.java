@@ -1,7 +1,16 @@
 package com.anpl.repository;
 
 import com.anpl.model.Payment;
+import com.anpl.model.PaymentStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -9,7 +18,26 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findFirstByRegistration_IdOrderByCreatedAtDesc(Long registrationId);
     Optional<Payment> findByRazorpayPaymentId(String razorpayPaymentId);
     Optional<Payment> findByRazorpayOrderId(String razorpayOrderId);
+    Optional<Payment> findByIdempotencyKey(String idempotencyKey);
+    long countByRegistration_Id(Long registrationId);
     List<Payment> findByRegistration_User_Id(Long userId);
     List<Payment> findByRegistrationUserId(Long userId);
     List<Payment> findByPaymentStatus(String status);
+
+    /**
+     * Stale orders, least recently reconciled first, so successive sweeps work through the whole window
+     * instead of re-fetching the same oldest batch.
+     */
+    @Query("SELECT p FROM Payment p WHERE p.paymentStatus = :status AND p.razorpayOrderId IS NOT NULL " +
+            "AND p.createdAt > :notBefore AND p.createdAt < :staleBefore " +
+            "ORDER BY p.lastReconciledAt ASC NULLS FIRST, p.createdAt")
+    List<Payment> findStaleOrders(@Param("status") PaymentStatus status,
+                                  @Param("notBefore") LocalDateTime notBefore,
+                                  @Param("staleBefore") LocalDateTime staleBefore,
+                                  Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Payment p SET p.lastReconciledAt = :now WHERE p.id IN :ids")
+    int markReconciled(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
 } 
\ No newline at end of file
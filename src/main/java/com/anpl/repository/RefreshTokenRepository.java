@@ -0,0 +1,43 @@
+package com.anpl.repository;
+
+import com.anpl.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Marks the token used if it is still live. Returns 0 when another request already rotated it, so
+     * two concurrent refreshes with the same token cannot both succeed. Clears the persistence context
+     * so the token can be re-read afterwards.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE RefreshToken r SET r.revokedAt = :now " +
+            "WHERE r.id = :id AND r.revokedAt IS NULL AND r.expiresAt > :now")
+    int consume(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.replacedById = :successorId WHERE r.id = :id")
+    int markReplaced(@Param("id") Long id, @Param("successorId") Long successorId);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revokedAt = :now WHERE r.familyId = :familyId AND r.revokedAt IS NULL")
+    int revokeFamily(@Param("familyId") String familyId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revokedAt = :now WHERE r.userId = :userId AND r.revokedAt IS NULL")
+    int revokeAllForUser(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff);
+}
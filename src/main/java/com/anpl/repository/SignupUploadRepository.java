@@ -0,0 +1,29 @@
+package com.anpl.repository;
+
+import com.anpl.model.SignupUpload;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SignupUploadRepository extends JpaRepository<SignupUpload, String> {
+
+    /**
+     * Locks the row so two registrations presenting the same token cannot both claim it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SignupUpload s WHERE s.tokenHash = :tokenHash")
+    Optional<SignupUpload> lockByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SignupUpload s WHERE s.expiresAt <= :now ORDER BY s.expiresAt")
+    List<SignupUpload> lockExpired(@Param("now") LocalDateTime now, Pageable pageable);
+}
@@ -0,0 +1,52 @@
+package com.anpl.repository;
+
+import com.anpl.dto.UploadStorageStats;
+import com.anpl.model.UploadBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadBlobRepository extends JpaRepository<UploadBlob, String> {
+
+    /**
+     * Inserts the blob without references or marks the existing row as just uploaded. Either way the
+     * row stays locked until commit, which serializes it against a concurrent sweep of the same blob.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO anpl_sports.upload_blobs (hash, extension, size_bytes, ref_count, created_at, touched_at) " +
+            "VALUES (:hash, :extension, :sizeBytes, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (hash) DO UPDATE SET touched_at = CURRENT_TIMESTAMP",
+            nativeQuery = true)
+    int touch(@Param("hash") String hash,
+              @Param("extension") String extension,
+              @Param("sizeBytes") long sizeBytes);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM UploadBlob b WHERE b.hash = :hash")
+    Optional<UploadBlob> lockByHash(@Param("hash") String hash);
+
+    /**
+     * Locks blobs nothing has referenced since {@code cutoff}; SKIP LOCKED leaves blobs being uploaded
+     * or referenced right now, and other instances' sweeps, alone.
+     */
+    @Query(value = "SELECT * FROM anpl_sports.upload_blobs " +
+            "WHERE ref_count = 0 AND touched_at < :cutoff " +
+            "ORDER BY touched_at " +
+            "LIMIT :batchSize " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<UploadBlob> lockUnreferenced(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+
+    @Query("SELECT new com.anpl.dto.UploadStorageStats(" +
+            "COUNT(b), COALESCE(SUM(b.refCount), 0L), COALESCE(SUM(b.sizeBytes), 0L), " +
+            "COALESCE(SUM(b.sizeBytes * b.refCount), 0L)) FROM UploadBlob b")
+    UploadStorageStats computeStats();
+}
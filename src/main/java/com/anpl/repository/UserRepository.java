@@ -1,11 +1,21 @@
 package com.anpl.repository;
 
+import com.anpl.dto.UserSearchDocument;
 import com.anpl.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -15,6 +25,37 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByResetToken(String token);
     boolean existsByAadhaarNumber(String aadhaarNumber);
 
-    List<User> findTop10ByFullNameContainingIgnoreCaseOrRegistrationNumberContainingIgnoreCase(
-            String name, String registrationNumber);
-} 
\ No newline at end of file
+    /**
+     * Database search used until {@code UserSearchIndex} has loaded. ILIKE and {@code <%} are both served
+     * by the pg_trgm GIN indexes. {@code pattern} must already be LIKE-escaped and wrapped in %.
+     */
+    @Query(value = "SELECT * FROM anpl_sports.users u " +
+            "WHERE u.full_name ILIKE :pattern OR u.registration_number ILIKE :pattern " +
+            "OR u.house_number ILIKE :pattern OR :query <% u.full_name " +
+            "ORDER BY word_similarity(:query, u.full_name) DESC, u.id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<User> searchByTrigram(@Param("query") String query,
+                               @Param("pattern") String pattern,
+                               @Param("limit") int limit);
+
+    @Query("SELECT new com.anpl.dto.UserSearchDocument(u.id, u.fullName, u.registrationNumber, u.houseNumber) " +
+            "FROM User u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<UserSearchDocument> streamSearchDocuments();
+
+    @Query("SELECT new com.anpl.dto.UserSearchDocument(u.id, u.fullName, u.registrationNumber, u.houseNumber) " +
+            "FROM User u WHERE u.updatedAt > :since")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<UserSearchDocument> streamSearchDocumentsUpdatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Swaps in a re-hashed password only if the stored hash is still the one that was verified, so a
+     * password change racing with the login is never overwritten.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :userId AND u.password = :oldHash")
+    int replacePasswordHash(@Param("userId") Long userId,
+                            @Param("oldHash") String oldHash,
+                            @Param("newHash") String newHash);
+}
@@ -0,0 +1,159 @@
+package com.anpl.security;
+
+import com.anpl.model.RevokedAccessToken;
+import com.anpl.repository.RevokedAccessTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Revoked access tokens, checked on every authenticated request. The {@code revoked_access_tokens} table
+ * is the source of truth; a Bloom filter over its live {@code jti}s answers "definitely not revoked" for
+ * almost every request with a few bit reads. Only a positive (a real revocation or a rare false
+ * positive) goes to the database. The filter is rebuilt from the table periodically, which drops expired
+ * entries and picks up revocations made by other instances.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AccessTokenRevocationList {
+
+    private final RevokedAccessTokenRepository revokedAccessTokenRepository;
+
+    @Value("${security.jwt.revocation.expected-entries:10000}")
+    private int expectedEntries;
+
+    @Value("${security.jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    /**
+     * Revocations made here, kept until the token expires so a rebuild racing with them cannot lose them.
+     */
+    private final Map<String, LocalDateTime> recent = new ConcurrentHashMap<>();
+
+    public boolean isRevoked(String jti) {
+        BloomFilter current = filter;
+        if (current == null) {
+            // Not loaded yet: ask the table directly rather than let revoked tokens through
+            return revokedAccessTokenRepository.existsById(jti);
+        }
+        if (!current.mightContain(jti)) {
+            return false;
+        }
+        return recent.containsKey(jti) || revokedAccessTokenRepository.existsById(jti);
+    }
+
+    /**
+     * Records the revocation; the token stops working here after commit and on other instances at
+     * their next rebuild.
+     */
+    @Transactional
+    public void revoke(String jti, LocalDateTime expiresAt) {
+        if (jti == null || !expiresAt.isAfter(LocalDateTime.now())) {
+            return;
+        }
+        RevokedAccessToken row = new RevokedAccessToken();
+        row.setJti(jti);
+        row.setExpiresAt(expiresAt);
+        revokedAccessTokenRepository.save(row);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recent.put(jti, expiresAt);
+                BloomFilter current = filter;
+                if (current != null) {
+                    current.add(jti);
+                }
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.refresh-ms:60000}",
+            initialDelayString = "${security.jwt.revocation.refresh-ms:60000}")
+    @Transactional
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        revokedAccessTokenRepository.deleteExpired(now);
+        recent.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        List<String> live = revokedAccessTokenRepository.findLiveJtis(now);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, live.size() * 2), falsePositiveRate);
+        live.forEach(rebuilt::add);
+        recent.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+        // Local revocations that landed while the table was being read
+        recent.keySet().forEach(rebuilt::add);
+        log.debug("Rebuilt access token revocation filter with {} entries", live.size());
+    }
+
+    /**
+     * Fixed-size Bloom filter over strings using double hashing of a 64-bit FNV-1a hash. Bits are set
+     * atomically, so adds and lookups need no lock.
+     */
+    static final class BloomFilter {
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(int expectedEntries, double falsePositiveRate) {
+            long m = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.max(1, (m + 63) / 64);
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = words * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedEntries * Math.log(2)));
+        }
+
+        void add(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.anpl.security;
+
+import com.anpl.dto.ApiResponse;
+import com.anpl.security.RateLimitBackend.BucketLimit;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Throttles login and password-reset requests before they reach BCrypt or the mail outbox. Each
+ * attempt takes a token from the client address's bucket and from the target email's bucket, so a
+ * single source spraying many accounts and many sources hammering one account are both capped.
+ * Unauthenticated signup uploads are capped per client address only.
+ *
+ * <p>The client address is {@code getRemoteAddr()}. Behind a proxy that is the proxy unless
+ * {@code server.forward-headers-strategy=native} and {@code server.tomcat.remoteip.internal-proxies} name
+ * it as trusted, in which case Tomcat substitutes the {@code X-Forwarded-For} client; untrusted senders
+ * cannot spoof it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/api/auth/login";
+    private static final String PASSWORD_RESET_PATH = "/api/auth/password-reset";
+    private static final String SIGNUP_UPLOAD_PATH_PREFIX = "/api/auth/uploads/";
+    private static final int MAX_PEEKED_BODY_BYTES = 8 * 1024;
+
+    private final RateLimitBackend backend;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.auth.rate-limit.login.ip.capacity:20}")
+    private int loginIpCapacity;
+
+    @Value("${app.auth.rate-limit.login.ip.refill-per-minute:10}")
+    private double loginIpRefillPerMinute;
+
+    @Value("${app.auth.rate-limit.login.email.capacity:5}")
+    private int loginEmailCapacity;
+
+    @Value("${app.auth.rate-limit.login.email.refill-per-minute:1}")
+    private double loginEmailRefillPerMinute;
+
+    @Value("${app.auth.rate-limit.password-reset.ip.capacity:5}")
+    private int resetIpCapacity;
+
+    @Value("${app.auth.rate-limit.password-reset.ip.refill-per-minute:1}")
+    private double resetIpRefillPerMinute;
+
+    @Value("${app.auth.rate-limit.password-reset.email.capacity:3}")
+    private int resetEmailCapacity;
+
+    @Value("${app.auth.rate-limit.password-reset.email.refill-per-minute:0.1}")
+    private double resetEmailRefillPerMinute;
+
+    @Value("${app.auth.rate-limit.signup-upload.ip.capacity:10}")
+    private int uploadIpCapacity;
+
+    @Value("${app.auth.rate-limit.signup-upload.ip.refill-per-minute:3}")
+    private double uploadIpRefillPerMinute;
+
+    private BucketLimit loginIpLimit;
+    private BucketLimit loginEmailLimit;
+    private BucketLimit resetIpLimit;
+    private BucketLimit resetEmailLimit;
+    private BucketLimit uploadIpLimit;
+
+    @PostConstruct
+    public void init() {
+        loginIpLimit = new BucketLimit(loginIpCapacity, loginIpRefillPerMinute / 60);
+        loginEmailLimit = new BucketLimit(loginEmailCapacity, loginEmailRefillPerMinute / 60);
+        resetIpLimit = new BucketLimit(resetIpCapacity, resetIpRefillPerMinute / 60);
+        resetEmailLimit = new BucketLimit(resetEmailCapacity, resetEmailRefillPerMinute / 60);
+        uploadIpLimit = new BucketLimit(uploadIpCapacity, uploadIpRefillPerMinute / 60);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return true;
+        }
+        String path = pathOf(request);
+        return !LOGIN_PATH.equals(path) && !PASSWORD_RESET_PATH.equals(path)
+                && !path.startsWith(SIGNUP_UPLOAD_PATH_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = pathOf(request);
+        if (path.startsWith(SIGNUP_UPLOAD_PATH_PREFIX)) {
+            long retryAfter = backend.tryAcquire("signup-upload:ip:" + request.getRemoteAddr(), uploadIpLimit);
+            if (retryAfter > 0) {
+                reject(request, response, "signup-upload", "ip", retryAfter);
+                return;
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        boolean login = LOGIN_PATH.equals(path);
+        String action = login ? "login" : "password-reset";
+        HttpServletRequest forwarded = request;
+        String email;
+        if (login) {
+            PeekedBodyRequest peeked = new PeekedBodyRequest(request);
+            email = peeked.jsonField(objectMapper, "email");
+            forwarded = peeked;
+        } else {
+            email = request.getParameter("email");
+        }
+
+        long retryAfter = backend.tryAcquire(action + ":ip:" + request.getRemoteAddr(),
+                login ? loginIpLimit : resetIpLimit);
+        String rejectedBy = retryAfter > 0 ? "ip" : null;
+        if (retryAfter == 0 && StringUtils.hasText(email)) {
+            retryAfter = backend.tryAcquire(action + ":email:" + email.trim().toLowerCase(Locale.ROOT),
+                    login ? loginEmailLimit : resetEmailLimit);
+            rejectedBy = retryAfter > 0 ? "email" : null;
+        }
+
+        if (retryAfter > 0) {
+            reject(request, response, action, rejectedBy, retryAfter);
+            return;
+        }
+        filterChain.doFilter(forwarded, response);
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, String action, String rejectedBy,
+                        long retryAfter) throws IOException {
+        meterRegistry.counter("auth.rate_limited", "action", action, "key", rejectedBy).increment();
+        log.debug("Rate limited {} from {} (by {})", action, request.getRemoteAddr(), rejectedBy);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("Too many attempts, please try again later"));
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * Reads the start of the body up front so the login email can be rate-limited before the
+     * controller runs, then replays it (followed by anything not read) to the rest of the chain.
+     */
+    private static final class PeekedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] head;
+        private final boolean complete;
+
+        private PeekedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.head = request.getInputStream().readNBytes(MAX_PEEKED_BODY_BYTES);
+            this.complete = head.length < MAX_PEEKED_BODY_BYTES;
+        }
+
+        private String jsonField(ObjectMapper objectMapper, String field) {
+            if (!complete || head.length == 0) {
+                return null;
+            }
+            try {
+                JsonNode value = objectMapper.readTree(head).get(field);
+                return value != null && value.isTextual() ? value.asText() : null;
+            } catch (IOException ex) {
+                // Malformed bodies are rejected by the controller; only the address bucket applies
+                return null;
+            }
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            InputStream replay = complete
+                    ? new ByteArrayInputStream(head)
+                    : new SequenceInputStream(new ByteArrayInputStream(head), super.getInputStream());
+            return new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    return replay.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    return replay.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    try {
+                        return replay.available() == 0;
+                    } catch (IOException ex) {
+                        return true;
+                    }
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Async reads are not supported");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? encoding : StandardCharsets.UTF_8.name()));
+        }
+
+        @Override
+        public int getContentLength() {
+            return complete ? head.length : super.getContentLength();
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return complete ? head.length : super.getContentLengthLong();
+        }
+    }
+}
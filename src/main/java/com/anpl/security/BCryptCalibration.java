@@ -0,0 +1,44 @@
+package com.anpl.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+/**
+ * Picks the BCrypt cost for this hardware: the highest strength whose hash still fits the target time.
+ * Each extra cost step doubles the work, so one timed run at the floor strength predicts the rest.
+ */
+@Slf4j
+final class BCryptCalibration {
+
+    private static final int MIN_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 16;
+    private static final int SAMPLES = 3;
+
+    private BCryptCalibration() {
+    }
+
+    /**
+     * Never goes below 10 (Spring's default, which existing hashes use), so calibrating on a slow
+     * machine cannot weaken stored passwords.
+     */
+    static int strengthFor(long targetMillis) {
+        String salt = BCrypt.gensalt(MIN_STRENGTH);
+        BCrypt.hashpw("calibration", salt); // warm up the JIT before timing
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long started = System.nanoTime();
+            BCrypt.hashpw("calibration", salt);
+            best = Math.min(best, System.nanoTime() - started);
+        }
+
+        double millis = best / 1_000_000d;
+        int strength = MIN_STRENGTH;
+        while (strength < MAX_STRENGTH && millis * 2 <= targetMillis) {
+            millis *= 2;
+            strength++;
+        }
+        log.info("BCrypt calibrated to strength {} (~{} ms per hash, target {} ms)",
+                strength, Math.round(millis), targetMillis);
+        return strength;
+    }
+}
@@ -0,0 +1,69 @@
+package com.anpl.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Buckets kept in {@code auth_rate_limits} so every instance draws from the same tokens. Each attempt
+ * is a single upsert that refills and takes a token only if one is available, so concurrent instances
+ * serialize on the row lock and never over-grant. Uses the database clock throughout.
+ */
+@Component
+@ConditionalOnProperty(name = "app.auth.rate-limit.backend", havingValue = "jdbc")
+@RequiredArgsConstructor
+@Slf4j
+public class JdbcRateLimitBackend implements RateLimitBackend {
+
+    private static final String LEVEL = "LEAST(:capacity, b.tokens + EXTRACT(EPOCH FROM now() - b.refilled_at) * :rate)";
+
+    private static final String TAKE_TOKEN = """
+            INSERT INTO auth_rate_limits AS b (bucket_key, tokens, refilled_at)
+            VALUES (:key, :capacity - 1, now())
+            ON CONFLICT (bucket_key) DO UPDATE
+            SET tokens = %1$s - 1, refilled_at = now()
+            WHERE %1$s >= 1
+            RETURNING tokens
+            """.formatted(LEVEL);
+
+    private static final String CURRENT_LEVEL =
+            "SELECT " + LEVEL + " FROM auth_rate_limits b WHERE b.bucket_key = :key";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Value("${app.auth.rate-limit.jdbc.retention-seconds:3600}")
+    private long retentionSeconds;
+
+    @Override
+    public long tryAcquire(String key, BucketLimit limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("key", key)
+                .addValue("capacity", (double) limit.capacity())
+                .addValue("rate", limit.refillPerSecond());
+        if (!jdbcTemplate.queryForList(TAKE_TOKEN, params, Double.class).isEmpty()) {
+            return 0;
+        }
+        List<Double> level = jdbcTemplate.queryForList(CURRENT_LEVEL, params, Double.class);
+        return limit.secondsToRefill(level.isEmpty() ? 1 : 1 - level.get(0));
+    }
+
+    /**
+     * Rows untouched for longer than any bucket takes to refill are equivalent to no row at all.
+     */
+    @Scheduled(fixedDelayString = "${app.auth.rate-limit.sweep-ms:60000}")
+    public void evictIdle() {
+        int removed = jdbcTemplate.update(
+                "DELETE FROM auth_rate_limits WHERE refilled_at < now() - make_interval(secs => :retention)",
+                new MapSqlParameterSource("retention", (double) retentionSeconds));
+        if (removed > 0) {
+            log.debug("Removed {} idle auth rate-limit buckets", removed);
+        }
+    }
+}
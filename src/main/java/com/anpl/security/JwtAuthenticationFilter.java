@@ -1,5 +1,8 @@
 package com.anpl.security;
 
+import com.anpl.model.User;
+import com.anpl.model.UserRole;
+import io.jsonwebtoken.Claims;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.filter.OncePerRequestFilter;
 import lombok.RequiredArgsConstructor;
@@ -23,20 +26,27 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtTokenProvider jwtTokenProvider;
     private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final AccessTokenRevocationList revocationList;
     private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
+            // Never log the token or the header: either is a usable credential until it expires
             String jwt = getJwtFromRequest(request);
-            log.debug("JWT from request: {}", jwt);
 
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                String userEmail = jwtTokenProvider.getEmailFromToken(jwt);
-                log.debug("User email from token: {}", userEmail);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+            Claims claims = StringUtils.hasText(jwt) ? jwtTokenProvider.parseClaims(jwt) : null;
+            if (claims != null && claims.getId() != null && revocationList.isRevoked(claims.getId())) {
+                log.debug("Rejected revoked token {}", claims.getId());
+                claims = null;
+            }
+            if (claims != null) {
+                String userEmail = claims.getSubject();
+                log.debug("Token {} authenticates {}", claims.getId(), userEmail);
+
+                UserDetails userDetails = principalFromClaims(claims, userEmail);
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -50,13 +60,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Tokens carrying id and role claims need no lookup; the user row is loaded (through the principal
+     * cache) only if the handler asks for it. Tokens issued before those claims existed still resolve
+     * the user up front.
+     */
+    private UserPrincipal principalFromClaims(Claims claims, String userEmail) {
+        Number userId = claims.get(JwtTokenProvider.USER_ID_CLAIM, Number.class);
+        String role = claims.get(JwtTokenProvider.ROLE_CLAIM, String.class);
+        if (userId == null || role == null) {
+            return principalCache.getOrLoad(userEmail, () -> loadUser(userEmail));
+        }
+        return new UserPrincipal(userId.longValue(), userEmail, UserRole.valueOf(role),
+                () -> principalCache.getOrLoad(userEmail, () -> loadUser(userEmail)).getUser());
+    }
+
+    private User loadUser(String userEmail) {
+        return ((UserPrincipal) userDetailsService.loadUserByUsername(userEmail)).getUser();
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
-        log.debug("Authorization header: {}", bearerToken);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
-            String token = bearerToken.substring(7);
-            log.debug("Extracted token: {}", token);
-            return token;
+            return bearerToken.substring(7);
         }
         log.debug("No Bearer token found");
         return null;
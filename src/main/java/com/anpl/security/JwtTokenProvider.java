@@ -1,62 +1,141 @@
 package com.anpl.security;
 
+import com.anpl.model.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import jakarta.annotation.PostConstruct;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtTokenProvider {
 
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
-    private int jwtExpirationInMs;
+    private long jwtExpirationInMs;
+
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
 
     private Key key;
+    // Immutable and thread-safe once built, so one instance serves every request
+    private JwtParser parser;
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
 
     @PostConstruct
     public void init() {
         // Use the secret to generate a key
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
     }
 
-    public String generateToken(String email) {
+    /**
+     * Short-lived access token. Besides the email (subject) it carries the user id and role so requests
+     * can be authorized without loading the user, and a {@code jti} so it can be revoked individually.
+     */
+    public String generateToken(User user) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
 
         return Jwts.builder()
-                .setSubject(email)
+                .setSubject(user.getEmail())
+                .setId(UUID.randomUUID().toString())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLE_CLAIM, user.getRole().name())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(key)
                 .compact();
     }
 
-    public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public long getExpirationInMs() {
+        return jwtExpirationInMs;
+    }
 
+    /**
+     * Verifies the token and returns its claims, or {@code null} if the token is malformed, expired or
+     * carries a bad signature. A token that verified before is answered from the cache (keyed by its
+     * SHA-256) until its {@code exp}, skipping the HMAC check and JSON parse on every later request.
+     * The returned claims may be shared between requests and must not be modified.
+     */
+    public Claims parseClaims(String token) {
+        if (token == null) {
+            return null;
+        }
+        String cacheKey = cacheKey(token);
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verifiedTokens.get(cacheKey);
+        if (cached != null) {
+            if (cached.expiresAt() > now) {
+                return cached.claims();
+            }
+            verifiedTokens.remove(cacheKey, cached);
+            return null;
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        if (claims.getExpiration() != null) {
+            if (verifiedTokens.size() >= verifiedCacheMaxSize) {
+                evict(now);
+            }
+            verifiedTokens.put(cacheKey, new VerifiedToken(claims, claims.getExpiration().getTime()));
+        }
+        return claims;
+    }
+
+    public String getEmailFromToken(String token) {
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            throw new JwtException("Invalid or expired token");
+        }
         return claims.getSubject();
     }
 
     public boolean validateToken(String token) {
+        return parseClaims(token) != null;
+    }
+
+    private void evict(long now) {
+        verifiedTokens.entrySet().removeIf(entry -> entry.getValue().expiresAt() <= now);
+        // Still full of live tokens: drop an arbitrary slice rather than growing without bound
+        int excess = verifiedTokens.size() - verifiedCacheMaxSize + Math.max(1, verifiedCacheMaxSize / 10);
+        var iterator = verifiedTokens.keySet().iterator();
+        while (excess-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static String cacheKey(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
-} 
\ No newline at end of file
+
+    private record VerifiedToken(Claims claims, long expiresAt) {
+    }
+}
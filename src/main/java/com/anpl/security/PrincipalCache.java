@@ -0,0 +1,109 @@
+package com.anpl.security;
+
+import com.anpl.model.User;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL-evicting cache of authenticated users keyed by JWT subject (email).
+ * Cached users are never handed out directly: each lookup returns a detached copy, so one request's
+ * changes cannot leak into another. The copy may be up to a TTL old, so it is for reads only; code
+ * that saves the user reloads it by id first and then calls {@link #invalidate}.
+ * <p>
+ * Each subject carries a generation that {@link #invalidate} bumps. A load records the generation
+ * before reading the database and only stores its result if the generation is unchanged, so a load
+ * that raced an invalidation cannot put the pre-change user back into the cache.
+ */
+@Component
+public class PrincipalCache {
+
+    @Value("${security.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    private final Map<String, CachedUser> entries = new ConcurrentHashMap<>();
+
+    // One counter per subject ever invalidated (bounded by the users table). Never pruned: dropping
+    // a counter would reset it to a value an in-flight load may already have recorded.
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+
+    public UserPrincipal getOrLoad(String subject, Supplier<User> loader) {
+        long now = System.nanoTime();
+        CachedUser cached = entries.get(subject);
+        if (cached != null && cached.expiresAt() - now > 0) {
+            return new UserPrincipal(copyOf(cached.user()));
+        }
+
+        long generation = generationOf(subject);
+        User loaded = loader.get();
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        CachedUser fresh = new CachedUser(copyOf(loaded), now + ttlSeconds * 1_000_000_000L);
+        // The check runs under the entry's bin lock, and invalidate bumps the generation before it
+        // removes, so either this put is skipped or the removal that follows it wins.
+        entries.compute(subject, (key, existing) -> generationOf(key) == generation ? fresh : existing);
+        return new UserPrincipal(loaded);
+    }
+
+    /**
+     * Drops the cached user immediately and, when called inside a transaction, once more after commit
+     * so a concurrent request cannot re-cache the pre-commit state.
+     */
+    public void invalidate(String subject) {
+        if (subject == null) {
+            return;
+        }
+        drop(subject);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    drop(subject);
+                }
+            });
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private void drop(String subject) {
+        generations.merge(subject, 1L, Long::sum);
+        entries.remove(subject);
+    }
+
+    private long generationOf(String subject) {
+        return generations.getOrDefault(subject, 0L);
+    }
+
+    private void evict(long now) {
+        entries.entrySet().removeIf(entry -> entry.getValue().expiresAt() - now <= 0);
+        // Still full of live entries: drop an arbitrary slice rather than growing without bound
+        int excess = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        var iterator = entries.keySet().iterator();
+        while (excess-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private User copyOf(User source) {
+        User copy = new User();
+        BeanUtils.copyProperties(source, copy);
+        return copy;
+    }
+
+    private record CachedUser(User user, long expiresAt) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.anpl.security;
+
+/**
+ * Token-bucket store behind {@link AuthRateLimitFilter}. The in-memory implementation
+ * ({@link StripedRateLimitBackend}) is per instance; {@link JdbcRateLimitBackend} keeps the buckets in
+ * PostgreSQL so several instances enforce one shared limit. Selected with
+ * {@code app.auth.rate-limit.backend=memory|jdbc}.
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Bucket shape: up to {@code capacity} requests in a burst, refilled at {@code refillPerSecond}.
+     */
+    record BucketLimit(int capacity, double refillPerSecond) {
+
+        /**
+         * Rejects shapes that can never refill, so a zero {@code refill-per-minute} fails at startup
+         * instead of locking a key out for good.
+         */
+        public BucketLimit {
+            if (capacity < 1 || !(refillPerSecond > 0)) {
+                throw new IllegalArgumentException("Rate limit needs capacity >= 1 and a positive refill rate, got "
+                        + capacity + " and " + refillPerSecond + "/s");
+            }
+        }
+
+        /**
+         * Whole seconds until {@code missing} tokens have been refilled (at least 1).
+         */
+        public long secondsToRefill(double missing) {
+            if (missing <= 0) {
+                return 1;
+            }
+            return Math.max(1, (long) Math.ceil(missing / refillPerSecond));
+        }
+    }
+
+    /**
+     * Takes one token from the bucket named {@code key}, creating it full if it does not exist.
+     *
+     * @return 0 if the token was granted, otherwise the seconds until one will be available
+     */
+    long tryAcquire(String key, BucketLimit limit);
+}
@@ -0,0 +1,91 @@
+package com.anpl.security;
+
+import com.anpl.util.TokenBucket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory buckets spread over a fixed set of lock stripes, so concurrent attempts against different
+ * keys rarely contend and no per-key lock objects pile up. Each key holds a {@link TokenBucket}, only
+ * ever touched under its stripe's lock. A bucket is dropped once it would have refilled completely,
+ * which is indistinguishable from never having existed.
+ */
+@Component
+@ConditionalOnProperty(name = "app.auth.rate-limit.backend", havingValue = "memory", matchIfMissing = true)
+public class StripedRateLimitBackend implements RateLimitBackend {
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final int maxKeysPerStripe;
+
+    public StripedRateLimitBackend(@Value("${app.auth.rate-limit.max-keys:100000}") int maxKeys) {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+    }
+
+    @Override
+    public long tryAcquire(String key, BucketLimit limit) {
+        Stripe stripe = stripes[stripeOf(key)];
+        long now = System.nanoTime();
+        stripe.lock.lock();
+        try {
+            TokenBucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                if (stripe.buckets.size() >= maxKeysPerStripe) {
+                    stripe.evict(now, maxKeysPerStripe);
+                }
+                bucket = new TokenBucket(limit.capacity(), limit.refillPerSecond());
+                stripe.buckets.put(key, bucket);
+            }
+            return bucket.tryConsume() ? 0 : bucket.secondsUntilNextToken();
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.rate-limit.sweep-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.buckets.values().removeIf(bucket -> bucket.isFull(now));
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    private static int stripeOf(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, TokenBucket> buckets = new HashMap<>();
+
+        /**
+         * Caller holds the lock. Drops full buckets first; if every key is live (a spray of distinct
+         * addresses or emails), drops an arbitrary slice rather than growing without bound.
+         */
+        private void evict(long now, int maxKeys) {
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+            int excess = buckets.size() - maxKeys + Math.max(1, maxKeys / 10);
+            var iterator = buckets.keySet().iterator();
+            while (excess-- > 0 && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -1,32 +1,52 @@
 package com.anpl.security;
 
 import com.anpl.model.User;
+import com.anpl.model.UserRole;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.function.Supplier;
 
 public class UserPrincipal implements UserDetails {
-    private final User user;
+    private final Long id;
+    private final String email;
+    private final UserRole role;
+    private Supplier<User> loader;
+    private User user;
 
     public UserPrincipal(User user) {
+        this.id = user.getId();
+        this.email = user.getEmail();
+        this.role = user.getRole();
         this.user = user;
     }
 
+    /**
+     * Principal built from verified access-token claims. Id, email and role are enough for
+     * authorization; the {@link User} is only loaded if a handler asks for it.
+     */
+    public UserPrincipal(Long id, String email, UserRole role, Supplier<User> loader) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.loader = loader;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
+        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name()));
     }
 
     @Override
     public String getPassword() {
-        return user.getPassword();
+        return getUser().getPassword();
     }
 
     @Override
     public String getUsername() {
-        return user.getEmail();
+        return email;
     }
 
     @Override
@@ -50,10 +70,18 @@ public class UserPrincipal implements UserDetails {
     }
 
     public Long getId() {
-        return user.getId();
+        return id;
+    }
+
+    public UserRole getRole() {
+        return role;
     }
 
     public User getUser() {
+        if (user == null) {
+            user = loader.get();
+            loader = null;
+        }
         return user;
     }
 } 
\ No newline at end of file
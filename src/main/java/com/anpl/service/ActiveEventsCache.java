@@ -0,0 +1,124 @@
+package com.anpl.service;
+
+import com.anpl.dto.ApiResponse;
+import com.anpl.dto.EventSummaryResponse;
+import com.anpl.repository.EventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The public active-events response, kept as ready-to-send JSON bytes plus an ETag. The snapshot is
+ * valid until the next registration window opens or closes (whichever comes first), or until an event
+ * or its participant count changes, so steady-state requests touch neither the database nor Jackson.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ActiveEventsCache {
+
+    public record Snapshot(byte[] json, String etag, LocalDateTime expiresAt) {
+        boolean isExpired(LocalDateTime now) {
+            return expiresAt != null && !now.isBefore(expiresAt);
+        }
+    }
+
+    private final EventRepository eventRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+    private final AtomicLong generation = new AtomicLong();
+
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        if (current != null && !current.isExpired(LocalDateTime.now())) {
+            return current;
+        }
+        return rebuild();
+    }
+
+    /**
+     * Drops the snapshot. Inside a transaction this happens after commit, so a concurrent rebuild
+     * cannot re-cache the pre-change rows.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+        } else {
+            clear();
+        }
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private synchronized Snapshot rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        Snapshot current = snapshot;
+        if (current != null && !current.isExpired(now)) {
+            return current;
+        }
+        long startedAt = generation.get();
+        List<EventSummaryResponse> events = eventRepository.findActiveSummaries(now);
+        LocalDateTime expiresAt = nextBoundary(events, now);
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(ApiResponse.success(events));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize active events", e);
+        }
+        Snapshot built = new Snapshot(json, etagOf(json), expiresAt);
+        // An invalidation that landed while we were querying means these rows may already be stale
+        if (generation.get() == startedAt) {
+            snapshot = built;
+        }
+        log.debug("Rebuilt active events snapshot: {} events, valid until {}", events.size(), expiresAt);
+        return built;
+    }
+
+    /**
+     * Earliest moment the active set can change by the clock alone: a listed event's window closing,
+     * or an active event's window opening.
+     */
+    private LocalDateTime nextBoundary(List<EventSummaryResponse> events, LocalDateTime now) {
+        LocalDateTime nextClose = events.stream()
+                .map(EventSummaryResponse::getRegistrationEndDate)
+                .filter(Objects::nonNull)
+                .min(LocalDateTime::compareTo)
+                .orElse(null);
+        LocalDateTime nextOpen = eventRepository.findNextRegistrationOpening(now).orElse(null);
+        if (nextClose == null) {
+            return nextOpen;
+        }
+        return nextOpen == null || nextClose.isBefore(nextOpen) ? nextClose : nextOpen;
+    }
+
+    private static String etagOf(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
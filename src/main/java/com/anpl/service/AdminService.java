@@ -1,7 +1,9 @@
 package com.anpl.service;
 
 import com.anpl.dto.AdminRegistrationDetailResponse;
+import com.anpl.dto.AdminRegistrationPageResponse;
 import com.anpl.dto.AdminRegistrationSummaryResponse;
+import com.anpl.dto.RegistrationExportRow;
 import com.anpl.exception.ResourceNotFoundException;
 import com.anpl.model.*;
 import com.anpl.repository.CricketPlayerSkillsRepository;
@@ -11,16 +13,25 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -31,19 +42,48 @@ public class AdminService {
     private final CricketPlayerSkillsRepository cricketPlayerSkillsRepository;
     private final EventRegistrationService registrationService;
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private static final int EXPORT_ROW_WINDOW = 100;
+    private static final String[] EXPORT_HEADERS = {
+            "Registration Number", "Full Name", "Email", "Phone", "Event", "Status", "Created At"
+    };
+    private static final int[] EXPORT_COLUMN_WIDTHS = {22, 30, 34, 16, 32, 12, 26};
+
     @Transactional(readOnly = true)
-    public List<AdminRegistrationSummaryResponse> getRegistrationSummaries(String eventType,
-                                                                           RegistrationStatus status,
-                                                                           boolean includeFailed) {
-        return registrationRepository.findAll().stream()
-                .filter(reg -> includeFailed || reg.getRegistrationStatus() != RegistrationStatus.FAILED)
-                .filter(reg -> eventType == null ||
-                        (reg.getEvent() != null &&
-                                reg.getEvent().getEventType() != null &&
-                                reg.getEvent().getEventType().equalsIgnoreCase(eventType)))
-                .filter(reg -> status == null || reg.getRegistrationStatus() == status)
-                .map(this::mapToSummary)
-                .collect(Collectors.toList());
+    public AdminRegistrationPageResponse getRegistrationSummaries(String eventType,
+                                                                  RegistrationStatus status,
+                                                                  boolean includeFailed,
+                                                                  String cursor,
+                                                                  Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        String normalizedEventType = StringUtils.hasText(eventType) ? eventType.trim().toUpperCase() : null;
+        // Fetch one extra row so we know whether another page exists without a COUNT(*)
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+        List<AdminRegistrationSummaryResponse> rows;
+        if (StringUtils.hasText(cursor)) {
+            RegistrationCursor decoded = RegistrationCursor.decode(cursor);
+            rows = registrationRepository.findAdminSummariesAfter(normalizedEventType, status, includeFailed,
+                    decoded.updatedAt(), decoded.id(), pageable);
+        } else {
+            rows = registrationRepository.findAdminSummaries(normalizedEventType, status, includeFailed, pageable);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<AdminRegistrationSummaryResponse> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            AdminRegistrationSummaryResponse last = items.get(items.size() - 1);
+            nextCursor = new RegistrationCursor(last.getUpdatedAt(), last.getRegistrationId()).encode();
+        }
+
+        return AdminRegistrationPageResponse.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
     }
 
     @Transactional(readOnly = true)
@@ -60,77 +100,66 @@ public class AdminService {
         registrationService.updateRegistrationStatus(registrationId, status);
     }
 
+    public int approveOverCapacity(Long eventId) {
+        return registrationService.approveOverCapacity(eventId);
+    }
+
+    /**
+     * Streams every registration into an xlsx written directly to {@code outputStream}. Rows are pulled
+     * through a forward-only cursor and SXSSF keeps only {@link #EXPORT_ROW_WINDOW} rows in memory,
+     * so heap use stays flat regardless of how many registrations exist.
+     */
     @Transactional(readOnly = true)
-    public byte[] exportRegistrationsToExcel() {
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Registrations");
-
-            Row headerRow = sheet.createRow(0);
-            headerRow.createCell(0).setCellValue("Registration Number");
-            headerRow.createCell(1).setCellValue("Full Name");
-            headerRow.createCell(2).setCellValue("Email");
-            headerRow.createCell(3).setCellValue("Phone");
-            headerRow.createCell(4).setCellValue("Event");
-            headerRow.createCell(5).setCellValue("Status");
-            headerRow.createCell(6).setCellValue("Created At");
-
-            List<EventRegistration> registrations = registrationRepository.findAll();
-            int rowNum = 1;
-            for (EventRegistration registration : registrations) {
-                Row row = sheet.createRow(rowNum++);
-                User user = registration.getUser();
-                Event event = registration.getEvent();
-                row.createCell(0).setCellValue(user != null ? user.getRegistrationNumber() : "");
-                row.createCell(1).setCellValue(user != null ? user.getFullName() : "");
-                row.createCell(2).setCellValue(user != null ? user.getEmail() : "");
-                row.createCell(3).setCellValue(user != null ? user.getPhoneNumber() : "");
-                row.createCell(4).setCellValue(event != null ? event.getName() : "");
-                row.createCell(5).setCellValue(registration.getRegistrationStatus().name());
-                row.createCell(6).setCellValue(registration.getCreatedAt() != null
-                        ? registration.getCreatedAt().toString()
-                        : "");
-            }
+    public void writeRegistrationsExcel(OutputStream outputStream) {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(EXPORT_ROW_WINDOW);
+             Stream<RegistrationExportRow> rows = registrationRepository.streamExportRows()) {
+            workbook.setCompressTempFiles(true);
+            try {
+                Sheet sheet = workbook.createSheet("Registrations");
 
-            for (int i = 0; i < 7; i++) {
-                sheet.autoSizeColumn(i);
-            }
+                Row headerRow = sheet.createRow(0);
+                for (int i = 0; i < EXPORT_HEADERS.length; i++) {
+                    headerRow.createCell(i).setCellValue(EXPORT_HEADERS[i]);
+                    sheet.setColumnWidth(i, EXPORT_COLUMN_WIDTHS[i] * 256);
+                }
+
+                int[] rowNum = {1};
+                rows.forEach(registration -> {
+                    Row row = sheet.createRow(rowNum[0]++);
+                    row.createCell(0).setCellValue(nullToEmpty(registration.getRegistrationNumber()));
+                    row.createCell(1).setCellValue(nullToEmpty(registration.getFullName()));
+                    row.createCell(2).setCellValue(nullToEmpty(registration.getEmail()));
+                    row.createCell(3).setCellValue(nullToEmpty(registration.getPhoneNumber()));
+                    row.createCell(4).setCellValue(nullToEmpty(registration.getEventName()));
+                    row.createCell(5).setCellValue(registration.getRegistrationStatus() != null
+                            ? registration.getRegistrationStatus().name()
+                            : "");
+                    row.createCell(6).setCellValue(registration.getCreatedAt() != null
+                            ? registration.getCreatedAt().toString()
+                            : "");
+                });
 
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
-        } catch (Exception e) {
+                workbook.write(outputStream);
+                outputStream.flush();
+            } finally {
+                // Deletes the temp files holding flushed rows; close() then releases the workbook
+                workbook.dispose();
+            }
+        } catch (IOException e) {
             log.error("Failed to export registrations", e);
-            throw new RuntimeException("Failed to export registrations", e);
+            throw new UncheckedIOException("Failed to export registrations", e);
         }
     }
 
-    private AdminRegistrationSummaryResponse mapToSummary(EventRegistration registration) {
-        User user = registration.getUser();
-        Event event = registration.getEvent();
+    private String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
 
-        return AdminRegistrationSummaryResponse.builder()
-                .registrationId(registration.getId())
-                .registrationNumber(user != null ? user.getRegistrationNumber() : null)
-                .registrationStatus(registration.getRegistrationStatus())
-                .createdAt(registration.getCreatedAt())
-                .updatedAt(registration.getUpdatedAt())
-                .userId(user != null ? user.getId() : null)
-                .fullName(user != null ? user.getFullName() : null)
-                .email(user != null ? user.getEmail() : null)
-                .phoneNumber(user != null ? user.getPhoneNumber() : null)
-                .whatsappNumber(user != null ? user.getWhatsappNumber() : null)
-                .block(user != null ? user.getBlock() : null)
-                .houseNumber(user != null ? user.getHouseNumber() : null)
-                .eventId(event != null ? event.getId() : null)
-                .eventName(event != null ? event.getName() : null)
-                .eventType(event != null ? event.getEventType() : null)
-                .registrationCategory(registration.getRegistrationCategory())
-                .jerseyNumber(registration.getJerseyNumber())
-                .availableAllDays(registration.getAvailableAllDays())
-                .aadhaarFrontPhoto(user != null ? user.getAadhaarFrontPhoto() : null)
-                .aadhaarBackPhoto(user != null ? user.getAadhaarBackPhoto() : null)
-                .playerPhoto(user != null ? user.getPlayerPhoto() : null)
-                .build();
+    private int resolvePageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
     }
 
     private AdminRegistrationDetailResponse mapToDetail(EventRegistration registration) {
@@ -236,4 +265,30 @@ public class AdminService {
             case SWITCH_HITTER -> HandPreference.BOTH;
         };
     }
-} 
\ No newline at end of file
+
+    /**
+     * Opaque keyset cursor over {@code (updated_at, id)}, encoded as URL-safe base64.
+     */
+    private record RegistrationCursor(LocalDateTime updatedAt, Long id) {
+
+        String encode() {
+            String raw = updatedAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static RegistrationCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                return new RegistrationCursor(
+                        LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException ex) {
+                throw new IllegalArgumentException("Invalid cursor", ex);
+            }
+        }
+    }
+}
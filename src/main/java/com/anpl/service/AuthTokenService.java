@@ -0,0 +1,171 @@
+package com.anpl.service;
+
+import com.anpl.dto.AuthTokensResponse;
+import com.anpl.exception.InvalidCredentialsException;
+import com.anpl.model.RefreshToken;
+import com.anpl.model.User;
+import com.anpl.repository.RefreshTokenRepository;
+import com.anpl.repository.UserRepository;
+import com.anpl.security.AccessTokenRevocationList;
+import com.anpl.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues short-lived access tokens paired with long-lived refresh tokens. Refresh tokens are random
+ * and opaque; only their SHA-256 is stored. Each refresh rotates the token. Presenting an already
+ * rotated token revokes its whole family, which cuts off whoever else holds a copy. The one exception
+ * is a token rotated within the last {@code jwt.refresh-reuse-grace-ms} whose successor is still
+ * unused: that is two tabs refreshing at once, and the late one gets its own successor.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuthTokenService {
+
+    private static final int REFRESH_TOKEN_BYTES = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final AccessTokenRevocationList revocationList;
+
+    @Value("${jwt.refresh-expiration:2592000000}")
+    private long refreshExpirationInMs;
+
+    @Value("${jwt.refresh-reuse-grace-ms:10000}")
+    private long reuseGraceInMs;
+
+    /**
+     * Starts a new token family, e.g. at login or registration.
+     */
+    @Transactional
+    public AuthTokensResponse issue(User user) {
+        return issue(user, UUID.randomUUID().toString(), null);
+    }
+
+    @Transactional(noRollbackFor = InvalidCredentialsException.class)
+    public AuthTokensResponse refresh(String rawRefreshToken) {
+        RefreshToken presented = refreshTokenRepository.findByTokenHash(hash(rawRefreshToken))
+                .orElseThrow(() -> new InvalidCredentialsException("Invalid refresh token"));
+        LocalDateTime now = LocalDateTime.now();
+        if (refreshTokenRepository.consume(presented.getId(), now) == 0) {
+            // Re-read: a concurrent refresh may have rotated it since it was loaded above
+            RefreshToken current = refreshTokenRepository.findById(presented.getId()).orElse(presented);
+            if (isConcurrentRotation(current, now)) {
+                log.debug("Refresh token {} reused within the grace window; issuing a sibling", current.getId());
+                return issue(loadUser(current), current.getFamilyId(), null);
+            }
+            // Judge reuse on the re-read row: presented may predate a rotation that lost the race above
+            if (current.getRevokedAt() != null) {
+                // Rotated or revoked before consume() ran: a replayed copy. Kept despite the exception below.
+                refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+                log.warn("Refresh token reuse for user {}; revoked token family {}",
+                        current.getUserId(), current.getFamilyId());
+            }
+            throw new InvalidCredentialsException("Refresh token expired or revoked");
+        }
+        return issue(loadUser(presented), presented.getFamilyId(), presented);
+    }
+
+    /**
+     * True when the token was rotated (not revoked) moments ago and its successor has not been used or
+     * revoked since, so the caller most likely lost a race with its own other tab.
+     */
+    private boolean isConcurrentRotation(RefreshToken token, LocalDateTime now) {
+        if (token.getReplacedById() == null || token.getRevokedAt() == null
+                || token.getRevokedAt().isBefore(now.minusNanos(reuseGraceInMs * 1_000_000L))) {
+            return false;
+        }
+        return refreshTokenRepository.findById(token.getReplacedById())
+                .map(successor -> successor.getRevokedAt() == null && successor.getExpiresAt().isAfter(now))
+                .orElse(false);
+    }
+
+    private User loadUser(RefreshToken token) {
+        return userRepository.findById(token.getUserId())
+                .orElseThrow(() -> new InvalidCredentialsException("Invalid refresh token"));
+    }
+
+    /**
+     * Ends the session behind the given tokens: the refresh token's family is revoked and the access
+     * token stops being accepted. Either token may be missing or already invalid.
+     */
+    @Transactional
+    public void logout(String accessToken, String rawRefreshToken) {
+        if (StringUtils.hasText(rawRefreshToken)) {
+            refreshTokenRepository.findByTokenHash(hash(rawRefreshToken))
+                    .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+        }
+        Claims claims = StringUtils.hasText(accessToken) ? jwtTokenProvider.parseClaims(accessToken) : null;
+        if (claims != null && claims.getId() != null) {
+            revocationList.revoke(claims.getId(),
+                    LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault()));
+        }
+    }
+
+    /**
+     * Signs the user out everywhere once their current access tokens expire, e.g. after a password change.
+     */
+    @Transactional
+    public void revokeAllRefreshTokens(Long userId) {
+        refreshTokenRepository.revokeAllForUser(userId, LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-cleanup-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int removed = refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+        if (removed > 0) {
+            log.debug("Purged {} expired refresh tokens", removed);
+        }
+    }
+
+    private AuthTokensResponse issue(User user, String familyId, RefreshToken replacing) {
+        byte[] bytes = new byte[REFRESH_TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        String rawRefreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setUserId(user.getId());
+        refreshToken.setTokenHash(hash(rawRefreshToken));
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setCreatedAt(now);
+        refreshToken.setExpiresAt(now.plusNanos(refreshExpirationInMs * 1_000_000L));
+        refreshTokenRepository.save(refreshToken);
+        if (replacing != null) {
+            // A bulk update: saving the loaded entity would overwrite the revoked_at consume() just set
+            refreshTokenRepository.markReplaced(replacing.getId(), refreshToken.getId());
+        }
+
+        return new AuthTokensResponse(jwtTokenProvider.generateToken(user), rawRefreshToken,
+                jwtTokenProvider.getExpirationInMs() / 1000);
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.anpl.service;
+
+import com.anpl.dto.BadmintonEventRegistrationResponse;
+import com.anpl.dto.BadmintonPartnerInfo;
+import com.anpl.dto.BadmintonRegistrationEntryResponse;
+import com.anpl.model.BadmintonRegistrationBundle;
+import com.anpl.model.BadmintonRegistrationEntry;
+import com.anpl.model.RegistrationStatus;
+import com.anpl.model.User;
+import com.anpl.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maps badminton bundles to API responses. All partner users referenced by a bundle are resolved
+ * with a single {@code IN} query, so the number of statements stays constant regardless of how many
+ * double or family entries the bundle holds.
+ */
+@Component
+@RequiredArgsConstructor
+public class BadmintonBundleHydrator {
+
+    private final UserRepository userRepository;
+
+    public BadmintonEventRegistrationResponse toResponse(BadmintonRegistrationBundle bundle) {
+        Map<Long, User> partners = loadPartners(bundle.getEntries());
+        List<BadmintonRegistrationEntryResponse> responses = bundle.getEntries().stream()
+                .map(entry -> toEntryResponse(entry, partners))
+                .collect(Collectors.toList());
+
+        return BadmintonEventRegistrationResponse.builder()
+                .bundleRegistrationId(bundle.getId())
+                .eventId(bundle.getEvent().getId())
+                .eventName(bundle.getEvent().getName())
+                .playerFullName(bundle.getUser().getFullName())
+                .playerPhoto(bundle.getUser().getPlayerPhoto())
+                .totalEntries(bundle.getEntries().size())
+                .totalAmount(bundle.getTotalAmount())
+                .entries(responses)
+                .readyForPayment(bundle.getBundleStatus() == RegistrationStatus.PENDING)
+                .paymentOrderId(bundle.getPaymentOrderId())
+                .build();
+    }
+
+    /**
+     * Loads every primary and secondary partner referenced by {@code entries}, keyed by user id.
+     */
+    public Map<Long, User> loadPartners(Collection<BadmintonRegistrationEntry> entries) {
+        Set<Long> partnerIds = new HashSet<>();
+        for (BadmintonRegistrationEntry entry : entries) {
+            if (entry.getPartnerUserId() != null) {
+                partnerIds.add(entry.getPartnerUserId());
+            }
+            if (entry.getSecondaryPartnerUserId() != null) {
+                partnerIds.add(entry.getSecondaryPartnerUserId());
+            }
+        }
+        if (partnerIds.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findAllById(partnerIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
+    private BadmintonRegistrationEntryResponse toEntryResponse(BadmintonRegistrationEntry entry,
+                                                               Map<Long, User> partners) {
+        return BadmintonRegistrationEntryResponse.builder()
+                .entryId(entry.getId())
+                .categoryId(entry.getCategory().getId())
+                .categoryName(entry.getCategory().getName())
+                .categoryType(entry.getCategoryType())
+                .pricePerPlayer(entry.getPricePerPlayer())
+                .registrationCode(entry.getRegistrationCode())
+                .partnerInfo(buildPartnerInfo(entry, partners))
+                .selfRelation(entry.getSelfRelation())
+                .partnerRelation(entry.getPartnerRelation())
+                .build();
+    }
+
+    private BadmintonPartnerInfo buildPartnerInfo(BadmintonRegistrationEntry entry, Map<Long, User> partners) {
+        if (entry.getPartnerFullName() == null) {
+            return null;
+        }
+        BadmintonPartnerInfo partnerInfo = new BadmintonPartnerInfo();
+        partnerInfo.setUserId(entry.getPartnerUserId());
+        partnerInfo.setFullName(entry.getPartnerFullName());
+        partnerInfo.setAge(entry.getPartnerAge());
+        partnerInfo.setContactNumber(entry.getPartnerContact());
+        partnerInfo.setRelationLabel(entry.getPartnerRelation());
+        User partner = entry.getPartnerUserId() != null ? partners.get(entry.getPartnerUserId()) : null;
+        if (partner != null) {
+            partnerInfo.setPlayerPhoto(partner.getPlayerPhoto());
+            partnerInfo.setHouseNumber(partner.getHouseNumber());
+        }
+        return partnerInfo;
+    }
+}
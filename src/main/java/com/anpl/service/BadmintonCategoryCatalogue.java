@@ -0,0 +1,131 @@
+package com.anpl.service;
+
+import com.anpl.dto.BadmintonCategoryOption;
+import com.anpl.model.BadmintonCategory;
+import com.anpl.repository.BadmintonCategoryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Immutable in-memory copy of the badminton categories. Categories change about once a season, so the
+ * public listing and bundle creation read from here instead of the database. Each load produces a new
+ * {@link Snapshot}; the version only moves (and the ETag only changes) when the content does.
+ * Entities handed out are detached copies and must be treated as read-only.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BadmintonCategoryCatalogue {
+
+    public record Snapshot(long version, String etag, List<BadmintonCategoryOption> options,
+                           List<BadmintonCategory> active, long[] ids, BadmintonCategory[] categories) {
+
+        /**
+         * Category by id (active or not), or null. Binary search over the sorted primitive id array.
+         */
+        public BadmintonCategory byId(long id) {
+            int index = Arrays.binarySearch(ids, id);
+            return index >= 0 ? categories[index] : null;
+        }
+    }
+
+    private final BadmintonCategoryRepository categoryRepository;
+    private final BadmintonCategoryRules categoryRules;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : refresh();
+    }
+
+    public BadmintonCategory byId(Long id) {
+        return id != null ? snapshot().byId(id) : null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAtStartup() {
+        refresh();
+    }
+
+    /**
+     * Picks up category edits made directly in the database.
+     */
+    @Scheduled(fixedDelayString = "${app.badminton.catalogue.refresh-ms:600000}",
+            initialDelayString = "${app.badminton.catalogue.refresh-ms:600000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    /**
+     * Reloads the catalogue; call after changing categories.
+     */
+    public synchronized Snapshot refresh() {
+        List<BadmintonCategory> all = new ArrayList<>(categoryRepository.findAll());
+        all.sort(Comparator.comparing(BadmintonCategory::getId));
+        long[] ids = new long[all.size()];
+        BadmintonCategory[] categories = new BadmintonCategory[all.size()];
+        for (int i = 0; i < all.size(); i++) {
+            ids[i] = all.get(i).getId();
+            categories[i] = all.get(i);
+        }
+
+        List<BadmintonCategory> active = all.stream()
+                .filter(category -> Boolean.TRUE.equals(category.getActive()))
+                .sorted(Comparator.comparing((BadmintonCategory category) ->
+                                category.getDisplayOrder() != null ? category.getDisplayOrder() : 0)
+                        .thenComparing(BadmintonCategory::getName))
+                .toList();
+        List<BadmintonCategoryOption> options = active.stream()
+                .map(cat -> BadmintonCategoryOption.builder()
+                        .id(cat.getId())
+                        .name(cat.getName())
+                        .categoryType(cat.getCategoryType())
+                        .pricePerPlayer(cat.getPricePerPlayer())
+                        .ageLimit(cat.getAgeLimit())
+                        .description(cat.getDescription())
+                        .build())
+                .toList();
+
+        String etag = etagOf(all);
+        Snapshot previous = snapshot;
+        if (previous != null && previous.etag().equals(etag)) {
+            return previous;
+        }
+        long version = previous != null ? previous.version() + 1 : 1;
+        Snapshot loaded = new Snapshot(version, etag, options, active, ids, categories);
+        categoryRules.invalidate();
+        snapshot = loaded;
+        log.info("Loaded badminton category catalogue v{} ({} categories, {} active)",
+                version, all.size(), active.size());
+        return loaded;
+    }
+
+    /**
+     * Content hash over every category (inactive ones included, since bundle creation can see them),
+     * so the ETag is the same on every instance and across restarts.
+     */
+    private String etagOf(List<BadmintonCategory> categories) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(categories));
+            return "\"cat-" + HexFormat.of().formatHex(digest, 0, 12) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to fingerprint badminton categories", e);
+        }
+    }
+}
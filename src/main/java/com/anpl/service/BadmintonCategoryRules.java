@@ -0,0 +1,93 @@
+package com.anpl.service;
+
+import com.anpl.model.BadmintonCategory;
+import com.anpl.model.BadmintonCategoryType;
+import com.anpl.model.Gender;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Badminton category restrictions compiled once per category instead of re-parsing the age-limit
+ * string and re-scanning the name for gender keywords on every participant check.
+ */
+@Component
+@Slf4j
+public class BadmintonCategoryRules {
+
+    /**
+     * Parsed form of a category's {@code ageLimit} ("U15" is a maximum, "35+" a minimum, "Open" or an
+     * unparseable value is unrestricted) and of the gender implied by its name. Family categories take
+     * their genders from {@link com.anpl.model.FamilyRelationMapping} instead.
+     */
+    public record CategoryRule(Long categoryId, String name, Integer minAge, Integer maxAge, Gender requiredGender) {
+
+        public boolean acceptsAge(Integer age) {
+            if (age == null) {
+                return true;
+            }
+            return (minAge == null || age >= minAge) && (maxAge == null || age <= maxAge);
+        }
+    }
+
+    private final ConcurrentHashMap<Long, CategoryRule> rules = new ConcurrentHashMap<>();
+
+    public CategoryRule ruleFor(BadmintonCategory category) {
+        return rules.computeIfAbsent(category.getId(), id -> compile(category));
+    }
+
+    /**
+     * Drops compiled rules, e.g. after categories are edited.
+     */
+    public void invalidate() {
+        rules.clear();
+    }
+
+    static CategoryRule compile(BadmintonCategory category) {
+        Integer minAge = null;
+        Integer maxAge = null;
+        String ageLimit = category.getAgeLimit();
+        if (StringUtils.hasText(ageLimit)) {
+            String normalized = ageLimit.trim().toUpperCase(Locale.ROOT);
+            try {
+                if (normalized.startsWith("U")) {
+                    maxAge = Integer.parseInt(digitsOf(normalized.substring(1)));
+                } else if (normalized.endsWith("+")) {
+                    minAge = Integer.parseInt(digitsOf(normalized));
+                }
+            } catch (NumberFormatException ex) {
+                log.warn("Unable to parse badminton age limit {}: {}", ageLimit, ex.getMessage());
+            }
+        }
+        return new CategoryRule(category.getId(), category.getName(), minAge, maxAge, requiredGender(category));
+    }
+
+    private static Gender requiredGender(BadmintonCategory category) {
+        if (category.getName() == null || category.getCategoryType() == BadmintonCategoryType.FAMILY) {
+            return null;
+        }
+        String value = category.getName().toLowerCase(Locale.ROOT);
+        if (value.contains("women") || value.contains("girl") || value.contains("ladies") || value.contains("female")) {
+            return Gender.FEMALE;
+        }
+        if (value.contains("boys") || value.contains("men's") || value.contains("mens") || value.contains(" men")
+                || value.startsWith("men") || value.contains("male")) {
+            return Gender.MALE;
+        }
+        return null;
+    }
+
+    private static String digitsOf(String value) {
+        StringBuilder digits = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+}
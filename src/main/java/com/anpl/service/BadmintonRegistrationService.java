@@ -1,13 +1,12 @@
 package com.anpl.service;
 
-import com.anpl.dto.BadmintonCategoryOption;
+import com.anpl.dto.BadmintonCategoryEligibility;
 import com.anpl.dto.BadmintonEventRegistrationRequest;
 import com.anpl.dto.BadmintonEventRegistrationResponse;
 import com.anpl.dto.BadmintonOrderResponse;
 import com.anpl.dto.BadmintonPartnerInfo;
 import com.anpl.dto.BadmintonPaymentVerificationRequest;
 import com.anpl.dto.BadmintonRegistrationEntryRequest;
-import com.anpl.dto.BadmintonRegistrationEntryResponse;
 import com.anpl.exception.ResourceNotFoundException;
 import com.anpl.model.BadmintonCategory;
 import com.anpl.model.BadmintonCategoryType;
@@ -20,27 +19,27 @@ import com.anpl.model.RegistrationStatus;
 import com.anpl.model.User;
 import com.anpl.repository.BadmintonCategoryRepository;
 import com.anpl.repository.BadmintonRegistrationBundleRepository;
-import com.anpl.repository.BadmintonRegistrationEntryRepository;
 import com.anpl.repository.EventRepository;
 import com.anpl.repository.UserRepository;
-import com.razorpay.Order;
-import com.razorpay.RazorpayClient;
-import com.razorpay.RazorpayException;
-import com.razorpay.Utils;
+import com.anpl.security.PrincipalCache;
+import com.anpl.service.BadmintonCategoryRules.CategoryRule;
+import com.anpl.service.PaymentGateway.GatewayOrder;
+import com.anpl.util.RegistrationNumberGenerator;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.json.JSONObject;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
-import java.security.SecureRandom;
 import java.time.LocalDate;
 import java.time.Period;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -50,12 +49,17 @@ public class BadmintonRegistrationService {
 
     private final BadmintonCategoryRepository categoryRepository;
     private final BadmintonRegistrationBundleRepository bundleRepository;
-    private final BadmintonRegistrationEntryRepository entryRepository;
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
-    private final RazorpayClient razorpayClient;
+    private final PaymentGateway paymentGateway;
+    private final PaymentLedger paymentLedger;
     private final EmailService emailService;
-    private final SecureRandom secureRandom = new SecureRandom();
+    private final PrincipalCache principalCache;
+    private final FileUploadService fileUploadService;
+    private final BadmintonBundleHydrator bundleHydrator;
+    private final RegistrationNumberGenerator registrationNumberGenerator;
+    private final BadmintonCategoryRules categoryRules;
+    private final BadmintonCategoryCatalogue categoryCatalogue;
 
     private static final int PRICE_PER_PLAYER = 800;
 
@@ -93,6 +97,7 @@ public class BadmintonRegistrationService {
         addCategory(seeds, "Girls Double U19", BadmintonCategoryType.DOUBLE, "U19");
 
         categoryRepository.saveAll(seeds);
+        categoryCatalogue.refresh();
     }
 
     private void addCategory(List<BadmintonCategory> seeds, String name, BadmintonCategoryType type, String ageLimit) {
@@ -104,18 +109,60 @@ public class BadmintonRegistrationService {
         seeds.add(category);
     }
 
+    /**
+     * Every active category with whether the user (and, for pair categories, the given partner) can
+     * enter it and, if not, why. Family categories also list the self relations that fit the pair's
+     * genders. Runs the same checks as {@link #createBundle}.
+     */
     @Transactional(readOnly = true)
-    public List<BadmintonCategoryOption> getCategories() {
-        return categoryRepository.findAllByActiveTrueOrderByDisplayOrderAscNameAsc().stream()
-                .map(cat -> BadmintonCategoryOption.builder()
-                        .id(cat.getId())
-                        .name(cat.getName())
-                        .categoryType(cat.getCategoryType())
-                        .pricePerPlayer(cat.getPricePerPlayer())
-                        .ageLimit(cat.getAgeLimit())
-                        .description(cat.getDescription())
-                        .build())
-                .collect(Collectors.toList());
+    public List<BadmintonCategoryEligibility> getEligibleCategories(User user, Long partnerId) {
+        User player = userRepository.findById(user.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        User partner = null;
+        if (partnerId != null) {
+            partner = userRepository.findById(partnerId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Partner user not found"));
+        }
+        Integer playerAge = calculateAge(player.getDateOfBirth());
+        Integer partnerAge = partner != null ? calculateAge(partner.getDateOfBirth()) : null;
+
+        List<BadmintonCategoryEligibility> result = new ArrayList<>();
+        for (BadmintonCategory category : categoryCatalogue.snapshot().active()) {
+            CategoryRule rule = categoryRules.ruleFor(category);
+            List<String> relations = List.of();
+            String reason = categoryIneligibility(rule, playerAge, player, "Player");
+            if (reason == null && category.getCategoryType() != BadmintonCategoryType.SOLO) {
+                if (partner == null) {
+                    reason = "Select a partner to check this category";
+                } else {
+                    reason = aadhaarIneligibility(partner, "Partner");
+                }
+            }
+            if (reason == null && category.getCategoryType() == BadmintonCategoryType.DOUBLE) {
+                reason = categoryIneligibility(rule, partnerAge, partner, "Partner");
+            }
+            if (reason == null && category.getCategoryType() == BadmintonCategoryType.FAMILY) {
+                User familyPartner = partner;
+                relations = FamilyRelationMapping.forCategory(category.getName()).stream()
+                        .filter(mapping -> mapping.getSelfGender() == player.getGender()
+                                && mapping.getPartnerGender() == familyPartner.getGender())
+                        .map(FamilyRelationMapping::getSelfRelation)
+                        .distinct()
+                        .toList();
+                if (relations.isEmpty()) {
+                    reason = "Player and partner genders do not fit any relation in " + category.getName();
+                }
+            }
+            result.add(BadmintonCategoryEligibility.builder()
+                    .categoryId(category.getId())
+                    .name(category.getName())
+                    .categoryType(category.getCategoryType())
+                    .eligible(reason == null)
+                    .reason(reason)
+                    .selfRelations(relations)
+                    .build());
+        }
+        return result;
     }
 
     @Transactional
@@ -135,21 +182,27 @@ public class BadmintonRegistrationService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (StringUtils.hasText(request.getPlayerPhoto())) {
-            currentUser.setPlayerPhoto(request.getPlayerPhoto());
+            currentUser.setPlayerPhoto(fileUploadService.replaceReference(
+                    currentUser.getPlayerPhoto(), request.getPlayerPhoto()));
             userRepository.save(currentUser);
+            principalCache.invalidate(currentUser.getEmail());
         }
 
+        List<BadmintonRegistrationEntryRequest> entryRequests = request.getEntries();
+        Map<Long, User> partners = prefetchPartners(entryRequests);
+
         BadmintonRegistrationBundle bundle = new BadmintonRegistrationBundle();
         bundle.setUser(currentUser);
         bundle.setEvent(event);
         bundle.setTermsAccepted(true);
-        bundle = bundleRepository.save(bundle);
 
         int totalAmount = 0;
 
-        for (BadmintonRegistrationEntryRequest entryRequest : request.getEntries()) {
-            BadmintonCategory category = categoryRepository.findById(entryRequest.getCategoryId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
+        for (BadmintonRegistrationEntryRequest entryRequest : entryRequests) {
+            BadmintonCategory category = categoryCatalogue.byId(entryRequest.getCategoryId());
+            if (category == null) {
+                throw new ResourceNotFoundException("Category not found");
+            }
 
             validateCategoryForUser(category, currentUser, "Player");
 
@@ -158,13 +211,13 @@ public class BadmintonRegistrationService {
             entry.setCategory(category);
             entry.setCategoryType(category.getCategoryType());
             entry.setPricePerPlayer(category.getPricePerPlayer());
-            entry.setRegistrationCode(generateUniqueRegistrationCode(event));
+            entry.setRegistrationCode(registrationNumberGenerator.generate(RegistrationNumberGenerator.BADMINTON_PREFIX));
 
             switch (category.getCategoryType()) {
                 case SOLO -> handleSoloEntry(entry);
                 case DOUBLE -> {
                     BadmintonPartnerInfo partnerInfo = requireDoublePartner(entryRequest.getPartnerInfo());
-                    User partner = fetchPartnerUser(partnerInfo);
+                    User partner = resolvePartner(partners, partnerInfo);
                     ensureAadhaarDocuments(partner, "Partner");
                     validateCategoryForUser(category, partner, "Partner");
                     handleDoubleEntry(entry, partner);
@@ -172,7 +225,7 @@ public class BadmintonRegistrationService {
                 case FAMILY -> {
                     FamilyRelationMapping mapping = resolveFamilyRelation(category.getName(), entryRequest.getSelfRelation());
                     BadmintonPartnerInfo partnerInfo = requireFamilyPartner(entryRequest.getPartnerInfo());
-                    User partner = fetchPartnerUser(partnerInfo);
+                    User partner = resolvePartner(partners, partnerInfo);
                     ensureAadhaarDocuments(partner, "Partner");
                     validateFamilyRelationGenders(mapping, currentUser, partner);
                     handleFamilyEntry(entry, mapping, partner);
@@ -187,9 +240,24 @@ public class BadmintonRegistrationService {
             throw new IllegalArgumentException("Total amount mismatch");
         }
 
+        // Entries cascade from the bundle and are written as one JDBC batch at commit
         bundle.setTotalAmount(totalAmount);
-        BadmintonRegistrationBundle savedBundle = bundleRepository.saveAndFlush(bundle);
-        return mapBundleToResponse(savedBundle);
+        BadmintonRegistrationBundle savedBundle = bundleRepository.save(bundle);
+        return bundleHydrator.toResponse(savedBundle);
+    }
+
+    private Map<Long, User> prefetchPartners(List<BadmintonRegistrationEntryRequest> entryRequests) {
+        Set<Long> partnerIds = entryRequests.stream()
+                .map(BadmintonRegistrationEntryRequest::getPartnerInfo)
+                .filter(Objects::nonNull)
+                .map(BadmintonPartnerInfo::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (partnerIds.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findAllById(partnerIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
     }
 
     private void handleSoloEntry(BadmintonRegistrationEntry entry) {
@@ -244,24 +312,6 @@ public class BadmintonRegistrationService {
         };
     }
 
-    private String generateUniqueRegistrationCode(Event event) {
-        String prefix = "B";
-        String code;
-        do {
-            code = prefix + randomAlphaNumeric(9);
-        } while (entryRepository.existsByRegistrationCode(code));
-        return code;
-    }
-
-    private String randomAlphaNumeric(int length) {
-        final String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-        StringBuilder builder = new StringBuilder(length);
-        for (int i = 0; i < length; i++) {
-            builder.append(chars.charAt(secureRandom.nextInt(chars.length())));
-        }
-        return builder.toString();
-    }
-
     private void sendBadmintonRegistrationEmails(BadmintonRegistrationBundle bundle,
                                                  List<BadmintonRegistrationEntry> entries) {
         if (entries == null || entries.isEmpty()) {
@@ -274,17 +324,17 @@ public class BadmintonRegistrationService {
                 .filter(entry -> entry.getPartnerUserId() != null)
                 .collect(Collectors.groupingBy(BadmintonRegistrationEntry::getPartnerUserId));
 
+        Map<Long, User> partners = bundleHydrator.loadPartners(entries);
         partnerEntries.forEach((partnerId, partnerEntryList) -> {
-            userRepository.findById(partnerId).ifPresent(partner -> {
-                if (!StringUtils.hasText(partner.getEmail())) {
-                    return;
-                }
-                String registrantEmail = bundle.getUser().getEmail();
-                if (registrantEmail != null && registrantEmail.equalsIgnoreCase(partner.getEmail())) {
-                    return;
-                }
-                emailService.sendBadmintonPartnerEmail(partner, bundle.getUser(), bundle.getEvent(), partnerEntryList);
-            });
+            User partner = partners.get(partnerId);
+            if (partner == null || !StringUtils.hasText(partner.getEmail())) {
+                return;
+            }
+            String registrantEmail = bundle.getUser().getEmail();
+            if (registrantEmail != null && registrantEmail.equalsIgnoreCase(partner.getEmail())) {
+                return;
+            }
+            emailService.sendBadmintonPartnerEmail(partner, bundle.getUser(), bundle.getEvent(), partnerEntryList);
         });
     }
 
@@ -293,64 +343,56 @@ public class BadmintonRegistrationService {
         BadmintonRegistrationBundle bundle = bundleRepository.findById(bundleId)
                 .orElseThrow(() -> new ResourceNotFoundException("Bundle not found"));
 
-        return mapBundleToResponse(bundle);
+        return bundleHydrator.toResponse(bundle);
     }
 
-    @Transactional
-    public BadmintonOrderResponse createOrder(User user, Long bundleId) throws RazorpayException {
+    public BadmintonOrderResponse createOrder(User user, Long bundleId) {
         BadmintonRegistrationBundle bundle = bundleRepository.findById(bundleId)
                 .orElseThrow(() -> new ResourceNotFoundException("Bundle not found"));
 
         if (!bundle.getUser().getId().equals(user.getId())) {
             throw new IllegalArgumentException("You can only pay for your own registrations");
         }
+        if (bundle.getBundleStatus() == RegistrationStatus.APPROVED) {
+            throw new IllegalArgumentException("This registration is already paid");
+        }
 
-        JSONObject orderRequest = new JSONObject();
-        orderRequest.put("amount", bundle.getTotalAmount() * 100);
-        orderRequest.put("currency", "INR");
-        orderRequest.put("receipt", "badminton_bundle_" + bundle.getId());
-
-        Order order = razorpayClient.orders.create(orderRequest);
-        bundle.setPaymentOrderId(order.get("id"));
-        bundleRepository.save(bundle);
+        // A bundle's amount never changes, so its first order is reused; only the first writer's order is kept
+        String orderId = bundle.getPaymentOrderId();
+        if (orderId == null) {
+            GatewayOrder order = paymentGateway.createOrder(bundle.getTotalAmount() * 100L, "INR",
+                    "badminton_bundle_" + bundle.getId(), Map.of("bundle_id", bundle.getId()));
+            orderId = paymentLedger.claimBundleOrder(bundle.getId(), order.id());
+        }
 
         return BadmintonOrderResponse.builder()
                 .bundleId(bundle.getId())
-                .orderId(order.get("id"))
+                .orderId(orderId)
                 .amount(bundle.getTotalAmount())
                 .currency("INR")
                 .build();
     }
 
-    @Transactional
-    public void verifyPayment(BadmintonPaymentVerificationRequest request) throws RazorpayException {
-        BadmintonRegistrationBundle bundle = bundleRepository.findById(request.getBundleId())
-                .orElseThrow(() -> new ResourceNotFoundException("Bundle not found"));
-
-        JSONObject attributes = new JSONObject();
-        attributes.put("razorpay_order_id", request.getOrderId());
-        attributes.put("razorpay_payment_id", request.getPaymentId());
-        attributes.put("razorpay_signature", request.getSignature());
-
-        Utils.verifyPaymentSignature(attributes, request.getSignature());
+    public void verifyPayment(BadmintonPaymentVerificationRequest request) {
+        paymentGateway.verifyPaymentSignature(request.getOrderId(), request.getPaymentId(), request.getSignature());
 
-        Order order = razorpayClient.orders.fetch(request.getOrderId());
-        if (!"paid".equals(order.get("status"))) {
+        GatewayOrder order = paymentGateway.fetchOrder(request.getOrderId());
+        if (!order.isPaid()) {
             throw new IllegalArgumentException("Payment not completed");
         }
 
-        bundle.setBundleStatus(RegistrationStatus.APPROVED);
-        bundle.setPaymentOrderId(request.getOrderId());
-        bundle.setPaymentReference(request.getPaymentId());
-        bundleRepository.save(bundle);
-
-        List<BadmintonRegistrationEntry> entries = entryRepository.findByBundleId(bundle.getId());
-        entries.forEach(entry -> {
-            entry.setEntryStatus(RegistrationStatus.APPROVED);
-            entryRepository.save(entry);
-        });
+        applyPaidOrder(request.getBundleId(), request.getOrderId(), request.getPaymentId(), order.amountPaise());
+    }
 
-        sendBadmintonRegistrationEmails(bundle, entries);
+    /**
+     * Approves a bundle whose order the gateway reports as paid; emails go out only on the first call.
+     */
+    public void applyPaidOrder(Long bundleId, String orderId, String paymentId, long paidAmountPaise) {
+        if (paymentLedger.settleBundle(bundleId, orderId, paymentId, paidAmountPaise)) {
+            BadmintonRegistrationBundle bundle = bundleRepository.findById(bundleId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Bundle not found"));
+            sendBadmintonRegistrationEmails(bundle, bundle.getEntries());
+        }
     }
 
     @Transactional(readOnly = true)
@@ -363,7 +405,7 @@ public class BadmintonRegistrationService {
                         user.getId(),
                         eventId,
                         RegistrationStatus.PENDING)
-                .map(this::mapBundleToResponse)
+                .map(bundleHydrator::toResponse)
                 .orElse(null);
     }
 
@@ -374,102 +416,51 @@ public class BadmintonRegistrationService {
         return Period.between(dob, LocalDate.now()).getYears();
     }
 
-    private BadmintonRegistrationEntryResponse mapEntryToResponse(BadmintonRegistrationEntry entry) {
-        return BadmintonRegistrationEntryResponse.builder()
-                .entryId(entry.getId())
-                .categoryId(entry.getCategory().getId())
-                .categoryName(entry.getCategory().getName())
-                .categoryType(entry.getCategoryType())
-                .pricePerPlayer(entry.getPricePerPlayer())
-                .registrationCode(entry.getRegistrationCode())
-                .partnerInfo(buildPartnerInfo(entry))
-                .selfRelation(entry.getSelfRelation())
-                .partnerRelation(entry.getPartnerRelation())
-                .build();
-    }
-
-    private BadmintonPartnerInfo buildPartnerInfo(BadmintonRegistrationEntry entry) {
-        if (entry.getPartnerFullName() == null) {
-            return null;
-        }
-        BadmintonPartnerInfo partnerInfo = new BadmintonPartnerInfo();
-        partnerInfo.setUserId(entry.getPartnerUserId());
-        partnerInfo.setFullName(entry.getPartnerFullName());
-        partnerInfo.setAge(entry.getPartnerAge());
-        partnerInfo.setContactNumber(entry.getPartnerContact());
-        partnerInfo.setRelationLabel(entry.getPartnerRelation());
-        if (entry.getPartnerUserId() != null) {
-            userRepository.findById(entry.getPartnerUserId()).ifPresent(partner -> {
-                partnerInfo.setPlayerPhoto(partner.getPlayerPhoto());
-                partnerInfo.setHouseNumber(partner.getHouseNumber());
-            });
+    private User resolvePartner(Map<Long, User> partners, BadmintonPartnerInfo partnerInfo) {
+        User partner = partners.get(partnerInfo.getUserId());
+        if (partner == null) {
+            throw new ResourceNotFoundException("Partner user not found");
         }
-        return partnerInfo;
-    }
-
-    private BadmintonEventRegistrationResponse mapBundleToResponse(BadmintonRegistrationBundle bundle) {
-        List<BadmintonRegistrationEntryResponse> responses = bundle.getEntries().stream()
-                .map(this::mapEntryToResponse)
-                .collect(Collectors.toList());
-
-        return BadmintonEventRegistrationResponse.builder()
-                .bundleRegistrationId(bundle.getId())
-                .eventId(bundle.getEvent().getId())
-                .eventName(bundle.getEvent().getName())
-                .playerFullName(bundle.getUser().getFullName())
-                .playerPhoto(bundle.getUser().getPlayerPhoto())
-                .totalEntries(bundle.getEntries().size())
-                .totalAmount(bundle.getTotalAmount())
-                .entries(responses)
-                .readyForPayment(bundle.getBundleStatus() == RegistrationStatus.PENDING)
-                .paymentOrderId(bundle.getPaymentOrderId())
-                .build();
-    }
-
-    private User fetchPartnerUser(BadmintonPartnerInfo partnerInfo) {
-        return userRepository.findById(partnerInfo.getUserId())
-                .orElseThrow(() -> new ResourceNotFoundException("Partner user not found"));
+        return partner;
     }
 
     private void validateCategoryForUser(BadmintonCategory category, User participant, String participantLabel) {
         if (participant == null) {
             throw new IllegalArgumentException(participantLabel + " details are required");
         }
-        Integer age = calculateAge(participant.getDateOfBirth());
-        if (!matchesAgeLimit(category.getAgeLimit(), age)) {
-            throw new IllegalArgumentException(String.format(
-                    "%s does not meet the age criteria for %s",
-                    participantLabel,
-                    category.getName()));
+        String reason = categoryIneligibility(categoryRules.ruleFor(category),
+                calculateAge(participant.getDateOfBirth()), participant, participantLabel);
+        if (reason != null) {
+            throw new IllegalArgumentException(reason);
         }
+    }
 
-        Gender requiredGender = determineRequiredGender(category);
-        if (requiredGender != null) {
-            Gender participantGender = participant.getGender();
-            if (participantGender == null) {
-                throw new IllegalArgumentException(String.format(
-                        "%s must update gender information to enroll in %s",
-                        participantLabel,
-                        category.getName()));
-            }
-            if (participantGender != requiredGender) {
-                throw new IllegalArgumentException(String.format(
-                        "%s must be %s for %s",
-                        participantLabel,
-                        requiredGender.name().toLowerCase(),
-                        category.getName()));
-            }
+    /**
+     * Why {@code participant} (of the given age) cannot enter the category, or null if they can.
+     */
+    private String categoryIneligibility(CategoryRule rule, Integer age, User participant, String participantLabel) {
+        if (!rule.acceptsAge(age)) {
+            return String.format("%s does not meet the age criteria for %s", participantLabel, rule.name());
         }
+        return genderIneligibility(rule.requiredGender(), participant, participantLabel, rule.name());
     }
 
     private void ensureAadhaarDocuments(User participant, String participantLabel) {
+        String reason = aadhaarIneligibility(participant, participantLabel);
+        if (reason != null) {
+            throw new IllegalArgumentException(reason);
+        }
+    }
+
+    private String aadhaarIneligibility(User participant, String participantLabel) {
         boolean hasFront = StringUtils.hasText(participant.getAadhaarFrontPhoto());
         boolean hasBack = StringUtils.hasText(participant.getAadhaarBackPhoto());
         if (!hasFront || !hasBack) {
-            throw new IllegalArgumentException(String.format(
+            return String.format(
                     "%s must upload Aadhaar front and back images before registering for this category",
-                    participantLabel));
+                    participantLabel);
         }
+        return null;
     }
 
     private void validateFamilyRelationGenders(FamilyRelationMapping mapping, User player, User partner) {
@@ -481,61 +472,27 @@ public class BadmintonRegistrationService {
                                            User participant,
                                            String participantLabel,
                                            String categoryName) {
-        if (requiredGender == null) {
-            return;
+        String reason = genderIneligibility(requiredGender, participant, participantLabel, categoryName);
+        if (reason != null) {
+            throw new IllegalArgumentException(reason);
         }
-        Gender participantGender = participant.getGender();
-        if (participantGender == null) {
-            throw new IllegalArgumentException(String.format(
-                    "%s must update gender information to enroll in %s",
-                    participantLabel,
-                    categoryName));
-        }
-        if (participantGender != requiredGender) {
-            throw new IllegalArgumentException(String.format(
-                    "%s must be %s for %s",
-                    participantLabel,
-                    requiredGender.name().toLowerCase(),
-                    categoryName));
-        }
-    }
-
-    private boolean matchesAgeLimit(String ageLimit, Integer age) {
-        if (age == null || !StringUtils.hasText(ageLimit)) {
-            return true;
-        }
-        String normalized = ageLimit.trim().toUpperCase();
-        if ("OPEN".equals(normalized)) {
-            return true;
-        }
-        try {
-            if (normalized.startsWith("U")) {
-                int max = Integer.parseInt(normalized.substring(1).replaceAll("[^0-9]", ""));
-                return age <= max;
-            }
-            if (normalized.endsWith("+")) {
-                int min = Integer.parseInt(normalized.replace("+", "").replaceAll("[^0-9]", ""));
-                return age >= min;
-            }
-        } catch (NumberFormatException ex) {
-            log.warn("Unable to parse badminton age limit {}: {}", ageLimit, ex.getMessage());
-        }
-        return true;
     }
 
-    private Gender determineRequiredGender(BadmintonCategory category) {
-        if (category == null || category.getName() == null) {
-            return null;
-        }
-        if (category.getCategoryType() == BadmintonCategoryType.FAMILY) {
+    private String genderIneligibility(Gender requiredGender,
+                                       User participant,
+                                       String participantLabel,
+                                       String categoryName) {
+        if (requiredGender == null) {
             return null;
         }
-        String value = category.getName().toLowerCase();
-        if (value.contains("women") || value.contains("womens") || value.contains("girl") || value.contains("ladies") || value.contains("female")) {
-            return Gender.FEMALE;
+        Gender participantGender = participant.getGender();
+        if (participantGender == null) {
+            return String.format("%s must update gender information to enroll in %s",
+                    participantLabel, categoryName);
         }
-        if (value.contains("boys") || value.contains("men's") || value.contains("mens") || value.contains(" men") || value.startsWith("men") || value.contains("male")) {
-            return Gender.MALE;
+        if (participantGender != requiredGender) {
+            return String.format("%s must be %s for %s",
+                    participantLabel, requiredGender.name().toLowerCase(), categoryName);
         }
         return null;
     }
@@ -0,0 +1,171 @@
+package com.anpl.service;
+
+import com.anpl.dto.UploadStorageStats;
+import com.anpl.model.UploadBlob;
+import com.anpl.repository.UploadBlobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Upload storage keyed by the SHA-256 of the content. Blobs live at
+ * {@code blobs/<h0h1>/<h2h3>/<hash><ext>} under the upload directory, so identical files uploaded by
+ * different flows are stored once and no directory grows beyond a few hundred entries.
+ * <p>
+ * {@code upload_blobs} counts the records that point at each blob. An upload by itself holds no
+ * reference: whoever stores a handle on an entity calls {@link #acquire}, and {@link #release} when the
+ * handle is replaced. Blobs left without references (replaced photos, uploads nobody used) are removed by
+ * {@link #sweepUnreferenced} after a grace period. Every step holds the blob's row lock and the sweep
+ * deletes the file before its transaction commits, so a concurrent {@link #put} either waits and then
+ * re-creates the file, or finds it intact.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ContentAddressedBlobStore {
+
+    static final String HANDLE_PREFIX = "blobs/";
+
+    private final UploadBlobRepository blobRepository;
+
+    @Value("${file.upload.directory:./uploads}")
+    private String uploadDirectory;
+
+    @Value("${app.upload.blobs.unreferenced-grace-minutes:1440}")
+    private long unreferencedGraceMinutes;
+
+    @Value("${app.upload.blobs.sweep-batch-size:200}")
+    private int sweepBatchSize;
+
+    public record StoredBlob(String handle, Path path, boolean created) {
+    }
+
+    /**
+     * Directory for in-progress uploads; on the same filesystem as the blobs so the final move is atomic.
+     */
+    public Path stagingDirectory() throws IOException {
+        return Files.createDirectories(Paths.get(uploadDirectory, ".staging"));
+    }
+
+    /**
+     * Stores the blob with this hash, moving {@code stagedFile} into place unless the file is already
+     * there. The staged file is left for the caller to delete when it turned out to be a duplicate.
+     */
+    @Transactional
+    public StoredBlob put(Path stagedFile, String sha256, String extension, long sizeBytes) throws IOException {
+        blobRepository.touch(sha256, extension, sizeBytes);
+
+        String handle = handleFor(sha256, extension);
+        Path target = Paths.get(uploadDirectory, handle);
+        if (Files.exists(target)) {
+            return new StoredBlob(handle, target, false);
+        }
+        // New content, or a row whose file went missing: (re)create it under the row lock
+        Files.createDirectories(target.getParent());
+        Files.move(stagedFile, target, StandardCopyOption.ATOMIC_MOVE);
+        return new StoredBlob(handle, target, true);
+    }
+
+    /**
+     * Adds a reference for a record that now stores {@code handle}. Returns the canonical handle to store;
+     * anything that is not an uploaded blob is rejected.
+     */
+    @Transactional
+    public String acquire(String handle) {
+        UploadBlob blob = lock(handle)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown upload: " + handle));
+        blob.setRefCount(blob.getRefCount() + 1);
+        blob.setTouchedAt(LocalDateTime.now());
+        return handleFor(blob.getHash(), blob.getExtension());
+    }
+
+    /**
+     * Drops one reference. A blob left without references is deleted by the next sweep after the grace period.
+     */
+    @Transactional
+    public void release(String handle) {
+        Optional<UploadBlob> locked = lock(handle);
+        if (locked.isEmpty()) {
+            log.warn("Released unknown blob {}", handle);
+            return;
+        }
+        UploadBlob blob = locked.get();
+        blob.setRefCount(Math.max(0, blob.getRefCount() - 1));
+        blob.setTouchedAt(LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${app.upload.blobs.sweep-ms:3600000}",
+            initialDelayString = "${app.upload.blobs.sweep-ms:3600000}")
+    @Transactional
+    public void sweepUnreferenced() {
+        List<UploadBlob> unreferenced = blobRepository.lockUnreferenced(
+                LocalDateTime.now().minusMinutes(unreferencedGraceMinutes), sweepBatchSize);
+        int deleted = 0;
+        for (UploadBlob blob : unreferenced) {
+            String handle = handleFor(blob.getHash(), blob.getExtension());
+            try {
+                Files.deleteIfExists(Paths.get(uploadDirectory, handle));
+            } catch (IOException e) {
+                log.warn("Failed to delete unreferenced blob {}: {}", handle, e.getMessage());
+                continue;
+            }
+            blobRepository.delete(blob);
+            deleted++;
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} unreferenced blobs", deleted);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public UploadStorageStats stats() {
+        return blobRepository.computeStats();
+    }
+
+    public static boolean isBlobHandle(String handle) {
+        return handle != null && handle.startsWith(HANDLE_PREFIX);
+    }
+
+    private Optional<UploadBlob> lock(String handle) {
+        if (!isBlobHandle(handle)) {
+            return Optional.empty();
+        }
+        String sha256 = hashOf(handle);
+        if (sha256.length() != 64 || !isHex(sha256)) {
+            return Optional.empty();
+        }
+        return blobRepository.lockByHash(sha256);
+    }
+
+    private static boolean isHex(String value) {
+        try {
+            HexFormat.of().parseHex(value);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String handleFor(String sha256, String extension) {
+        return HANDLE_PREFIX + sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256 + extension;
+    }
+
+    private static String hashOf(String handle) {
+        String fileName = handle.substring(handle.lastIndexOf('/') + 1);
+        int dot = fileName.indexOf('.');
+        return dot == -1 ? fileName : fileName.substring(0, dot);
+    }
+}
@@ -5,6 +5,8 @@ import com.anpl.exception.ResourceAlreadyExistsException;
 import com.anpl.exception.ResourceNotFoundException;
 import com.anpl.model.*;
 import com.anpl.repository.*;
+import com.anpl.security.PrincipalCache;
+import com.anpl.util.RegistrationNumberGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -35,6 +37,10 @@ public class CricketEventRegistrationService {
     private final CricketPlayerSkillsRepository cricketPlayerSkillsRepository;
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
+    private final PrincipalCache principalCache;
+    private final FileUploadService fileUploadService;
+    private final RegistrationNumberGenerator registrationNumberGenerator;
+    private final EventCapacityService eventCapacityService;
 
     /**
      * Complete cricket event registration process
@@ -60,6 +66,7 @@ public class CricketEventRegistrationService {
         }
 
         validateAvailability(request, event);
+        eventCapacityService.ensureNotFull(event);
 
         // Step 2: update user static information if provided
         User persistedUser = refreshUserDetails(user, request);
@@ -80,6 +87,8 @@ public class CricketEventRegistrationService {
             eventRegistration = new EventRegistration();
             eventRegistration.setUser(persistedUser);
             eventRegistration.setEvent(event);
+            eventRegistration.setRegistrationNumber(
+                    registrationNumberGenerator.generate(RegistrationNumberGenerator.CRICKET_PREFIX));
             eventRegistration.setCreatedAt(LocalDateTime.now());
             log.info("Creating new event registration");
         }
@@ -462,7 +471,10 @@ public class CricketEventRegistrationService {
         };
     }
 
-    private User refreshUserDetails(User user, CricketEventRegistrationRequest request) {
+    private User refreshUserDetails(User principalUser, CricketEventRegistrationRequest request) {
+        // Never write back the principal's cached snapshot: it can predate other changes to the row
+        User user = userRepository.findById(principalUser.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         boolean updated = false;
         if (request.getGender() != null && user.getGender() != request.getGender()) {
             user.setGender(request.getGender());
@@ -481,19 +493,21 @@ public class CricketEventRegistrationService {
             updated = true;
         }
         if (request.getAadhaarFrontPhoto() != null) {
-            user.setAadhaarFrontPhoto(request.getAadhaarFrontPhoto());
+            user.setAadhaarFrontPhoto(fileUploadService.replaceReference(user.getAadhaarFrontPhoto(), request.getAadhaarFrontPhoto()));
             updated = true;
         }
         if (request.getAadhaarBackPhoto() != null) {
-            user.setAadhaarBackPhoto(request.getAadhaarBackPhoto());
+            user.setAadhaarBackPhoto(fileUploadService.replaceReference(user.getAadhaarBackPhoto(), request.getAadhaarBackPhoto()));
             updated = true;
         }
         if (request.getPlayerPhoto() != null) {
-            user.setPlayerPhoto(request.getPlayerPhoto());
+            user.setPlayerPhoto(fileUploadService.replaceReference(user.getPlayerPhoto(), request.getPlayerPhoto()));
             updated = true;
         }
         if (updated) {
-            return userRepository.save(user);
+            User saved = userRepository.save(user);
+            principalCache.invalidate(saved.getEmail());
+            return saved;
         }
         return user;
     }
@@ -0,0 +1,244 @@
+package com.anpl.service;
+
+import com.anpl.model.EmailOutboxMessage;
+import com.anpl.model.EmailOutboxStatus;
+import com.anpl.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the email outbox on a small, bounded worker pool. Request threads only ever insert
+ * outbox rows; all SMTP traffic happens here, with exponential backoff between attempts and a
+ * DEAD state once {@code maxAttempts} is exhausted.
+ * <p>
+ * Each claim stamps the row with a fresh lease token. While a send is in progress the lease is renewed
+ * in the background, so a slow SMTP server does not let another dispatcher claim and send the same
+ * message; the final status write is fenced on the token, so a dispatcher that lost its lease anyway
+ * (a long pause, a dropped connection) cannot overwrite the new holder's state.
+ * <p>
+ * Claimed rows are handed to the workers as detached entities: the claim transaction has committed by
+ * then, so setters on them change nothing in the database. Every write after the claim goes through a
+ * fenced bulk update ({@code completeAttempt}) built from the detached copy.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private static final String FROM_ADDRESS = "noreply@anpl.com";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.email.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${app.email.outbox.workers:4}")
+    private int workers;
+
+    @Value("${app.email.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${app.email.outbox.backoff-base-seconds:30}")
+    private long backoffBaseSeconds;
+
+    @Value("${app.email.outbox.backoff-max-seconds:3600}")
+    private long backoffMaxSeconds;
+
+    @Value("${app.email.outbox.lease-seconds:120}")
+    private long leaseSeconds;
+
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Lease tokens of the messages this instance is sending, keyed by message id
+    private final Map<Long, String> heldLeases = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+    private TransactionTemplate transactionTemplate;
+    private Timer sendTimer;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(batchSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "email-outbox-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("email.outbox.pending", pendingCount, AtomicLong::get)
+                .description("Outbox messages waiting to be sent")
+                .register(meterRegistry);
+        Gauge.builder("email.outbox.in_flight", inFlight, AtomicInteger::get)
+                .description("Outbox messages currently being sent")
+                .register(meterRegistry);
+        sendTimer = Timer.builder("email.outbox.send")
+                .description("SMTP send latency per message")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        pendingCount.set(outboxRepository.countByStatus(EmailOutboxStatus.PENDING));
+
+        // Only claim what the pool can accept, so a lease never expires while a row sits in our own queue
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        List<EmailOutboxMessage> batch = claimBatch(Math.min(capacity, batchSize));
+        for (EmailOutboxMessage message : batch) {
+            // Registered before submitting so the worker's cleanup cannot run ahead of it
+            inFlight.incrementAndGet();
+            heldLeases.put(message.getId(), message.getLeaseToken());
+            try {
+                executor.execute(() -> {
+                    try {
+                        deliver(message);
+                    } finally {
+                        heldLeases.remove(message.getId());
+                        inFlight.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                heldLeases.remove(message.getId());
+                inFlight.decrementAndGet();
+                release(message);
+            }
+        }
+    }
+
+    /**
+     * Hands a claimed message that never reached a worker (pool shutting down or full) straight back
+     * to PENDING, without counting an attempt, instead of leaving it SENDING until the lease lapses.
+     */
+    private void release(EmailOutboxMessage message) {
+        log.warn("Outbox worker pool rejected email {}; returning it to the queue", message.getId());
+        outboxRepository.completeAttempt(message.getId(), message.getLeaseToken(), EmailOutboxStatus.PENDING,
+                message.getAttempts(), LocalDateTime.now(), message.getLastError(), null);
+    }
+
+    /**
+     * Renews the leases of in-flight messages well before they lapse (every third of the lease), so
+     * only a dispatcher that has actually stopped loses its claim.
+     */
+    @Scheduled(fixedDelayString = "${app.email.outbox.lease-renew-ms:40000}")
+    public void renewLeases() {
+        if (heldLeases.isEmpty()) {
+            return;
+        }
+        outboxRepository.renewLeases(List.copyOf(heldLeases.values()),
+                LocalDateTime.now().plusSeconds(leaseSeconds), EmailOutboxStatus.SENDING);
+    }
+
+    private List<EmailOutboxMessage> claimBatch(int limit) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailOutboxMessage> due = outboxRepository.lockDueBatch(now, limit);
+            for (EmailOutboxMessage message : due) {
+                message.setStatus(EmailOutboxStatus.SENDING);
+                message.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+                message.setLeaseToken(UUID.randomUUID().toString());
+            }
+            return due;
+        });
+    }
+
+    private void deliver(EmailOutboxMessage message) {
+        try {
+            sendTimer.recordCallable(() -> {
+                send(message);
+                return null;
+            });
+            message.setStatus(EmailOutboxStatus.SENT);
+            message.setSentAt(LocalDateTime.now());
+            message.setLastError(null);
+        } catch (Exception ex) {
+            int attempts = message.getAttempts() + 1;
+            message.setAttempts(attempts);
+            message.setLastError(truncate(ex.getMessage()));
+            if (attempts >= maxAttempts) {
+                message.setStatus(EmailOutboxStatus.DEAD);
+                log.error("Giving up on outbox email {} to {} after {} attempts", message.getId(),
+                        message.getRecipient(), attempts, ex);
+            } else {
+                message.setStatus(EmailOutboxStatus.PENDING);
+                message.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoffSeconds(attempts)));
+                log.warn("Outbox email {} failed (attempt {}), retrying later: {}", message.getId(),
+                        attempts, ex.getMessage());
+            }
+        }
+        int updated = outboxRepository.completeAttempt(message.getId(), message.getLeaseToken(),
+                message.getStatus(), message.getAttempts(), message.getNextAttemptAt(), message.getLastError(),
+                message.getSentAt());
+        if (updated == 0) {
+            log.warn("Lost the lease on outbox email {} while sending; the dispatcher that re-claimed it owns "
+                    + "its state", message.getId());
+        }
+    }
+
+    private void send(EmailOutboxMessage message) throws MessagingException, MailException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage,
+                MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED,
+                StandardCharsets.UTF_8.name());
+
+        helper.setTo(message.getRecipient());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getBody(), true);
+        helper.setFrom(FROM_ADDRESS);
+
+        mailSender.send(mimeMessage);
+    }
+
+    private long backoffSeconds(int attempts) {
+        long delay = backoffBaseSeconds << Math.min(attempts - 1, 20);
+        return Math.min(delay, backoffMaxSeconds);
+    }
+
+    private String truncate(String value) {
+        if (value == null || value.length() <= MAX_ERROR_LENGTH) {
+            return value;
+        }
+        return value.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,145 @@
+package com.anpl.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.cache.StandardCacheManager;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Dedicated Thymeleaf engine for outbound email. Templates are parsed once and pinned in the
+ * template cache (no TTL), brand and per-sport asset variables live in immutable maps built at
+ * startup, and output is rendered into a per-thread buffer instead of a fresh writer per message.
+ */
+@Component
+@Slf4j
+public class EmailTemplateRenderer {
+
+    public enum AssetSet {
+        DEFAULT,
+        CRICKET,
+        BADMINTON
+    }
+
+    static final List<String> TEMPLATES = List.of(
+            "welcome-email",
+            "event-registration",
+            "cricket-registration",
+            "password-reset",
+            "badminton-registration",
+            "badminton-partner-notification"
+    );
+
+    private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 256 * 1024;
+
+    @Value("${app.email.brand-name:Aggar Nagar Premier League}")
+    private String brandName;
+
+    @Value("${app.email.assets.logo.default:https://images.unsplash.com/photo-1521412644187-c49fa049e84d?auto=format&fit=crop&w=320&q=80}")
+    private String defaultLogoUrl;
+
+    @Value("${app.email.assets.logo.cricket:https://images.unsplash.com/photo-1461896836934-ffe607ba8211?auto=format&fit=crop&w=320&q=80}")
+    private String cricketLogoUrl;
+
+    @Value("${app.email.assets.logo.badminton:https://images.unsplash.com/photo-1517649763962-0c623066013b?auto=format&fit=crop&w=320&q=80}")
+    private String badmintonLogoUrl;
+
+    @Value("${app.email.assets.banner.default:https://images.unsplash.com/photo-1505843513577-22bb7d21e455?auto=format&fit=crop&w=1200&q=80}")
+    private String defaultBannerUrl;
+
+    @Value("${app.email.assets.banner.cricket:https://images.unsplash.com/photo-1505842465776-3acb31c3c3c9?auto=format&fit=crop&w=1200&q=80}")
+    private String cricketBannerUrl;
+
+    @Value("${app.email.assets.banner.badminton:https://images.unsplash.com/photo-1461896836934-ffe607ba8211?auto=format&fit=crop&w=1200&q=80}")
+    private String badmintonBannerUrl;
+
+    private final SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+    private final ThreadLocal<StringWriter> buffers = ThreadLocal.withInitial(() -> new StringWriter(INITIAL_BUFFER_SIZE));
+    private Map<String, Object> baseVariables;
+    private Map<AssetSet, Map<String, Object>> assetVariables;
+
+    @PostConstruct
+    public void init() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resolver.setCacheable(true);
+        resolver.setCacheTTLMs(null);
+
+        StandardCacheManager cacheManager = new StandardCacheManager();
+        cacheManager.setTemplateCacheMaxSize(TEMPLATES.size() * 2);
+
+        templateEngine.setTemplateResolver(resolver);
+        templateEngine.setCacheManager(cacheManager);
+        templateEngine.setEnableSpringELCompiler(true);
+
+        baseVariables = Map.of(
+                "brandName", brandName,
+                "defaultLogoUrl", defaultLogoUrl,
+                "defaultBannerUrl", defaultBannerUrl,
+                "badmintonLogoUrl", badmintonLogoUrl);
+        assetVariables = Map.of(
+                AssetSet.DEFAULT, assets(defaultLogoUrl, defaultBannerUrl),
+                AssetSet.CRICKET, assets(cricketLogoUrl, cricketBannerUrl),
+                AssetSet.BADMINTON, assets(badmintonLogoUrl, badmintonBannerUrl));
+
+        warmUp();
+    }
+
+    /**
+     * Renders {@code template} with the shared brand variables, the given asset set (may be null) and
+     * the message-specific {@code variables}.
+     */
+    public String render(String template, AssetSet assetSet, Map<String, Object> variables) {
+        Map<String, Object> merged = new HashMap<>(baseVariables.size() + 2 + variables.size());
+        merged.putAll(baseVariables);
+        if (assetSet != null) {
+            merged.putAll(assetVariables.get(assetSet));
+        }
+        merged.putAll(variables);
+
+        StringWriter writer = buffers.get();
+        writer.getBuffer().setLength(0);
+        try {
+            templateEngine.process(template, new Context(Locale.getDefault(), merged), writer);
+            return writer.toString();
+        } finally {
+            if (writer.getBuffer().capacity() > MAX_RETAINED_BUFFER_SIZE) {
+                buffers.remove();
+            }
+        }
+    }
+
+    /**
+     * Parses every template once at startup so the first real email does not pay for resolution and
+     * parsing. Rendering with an empty model may fail on null dereferences; the parsed template is
+     * cached before processing starts, so such failures are expected and ignored.
+     */
+    private void warmUp() {
+        for (String template : TEMPLATES) {
+            try {
+                render(template, AssetSet.DEFAULT, Map.of());
+            } catch (RuntimeException ex) {
+                log.debug("Email template {} warmed with empty model: {}", template, ex.getMessage());
+            }
+        }
+    }
+
+    private Map<String, Object> assets(String logoUrl, String bannerUrl) {
+        return Map.of("logoImage", logoUrl, "heroImage", bannerUrl);
+    }
+}
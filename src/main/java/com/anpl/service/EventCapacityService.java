@@ -0,0 +1,155 @@
+package com.anpl.service;
+
+import com.anpl.model.Event;
+import com.anpl.model.RegistrationStatus;
+import com.anpl.repository.EventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps {@code events.current_participants} equal to the number of approved registrations and enforces
+ * {@code max_participants}. The database row is the source of truth: a slot is taken with a conditional
+ * {@code UPDATE ... WHERE current_participants < max_participants}, so concurrent approvals can never
+ * oversell. A per-event {@link LongAdder} mirrors the committed count for the early "event full" check,
+ * which should not touch the database. Mirrors are seeded from the row and dropped after
+ * {@code app.events.capacity.mirror-ttl-ms}, so changes made by other instances, or a delta lost to a
+ * reload racing a commit, only skew the advisory check until the next reload.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EventCapacityService {
+
+    private final EventRepository eventRepository;
+    private final ActiveEventsCache activeEventsCache;
+
+    @Value("${app.events.capacity.mirror-ttl-ms:30000}")
+    private long mirrorTtlMs;
+
+    private final ConcurrentHashMap<Long, Mirror> mirrors = new ConcurrentHashMap<>();
+
+    /**
+     * Adjusts the event's count for a registration moving from {@code from} to {@code to}. Returns
+     * {@code false} (leaving the count untouched) when the move into APPROVED finds the event full.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean onStatusChange(Long eventId, RegistrationStatus from, RegistrationStatus to) {
+        boolean wasCounted = from == RegistrationStatus.APPROVED;
+        boolean isCounted = to == RegistrationStatus.APPROVED;
+        if (wasCounted == isCounted) {
+            return true;
+        }
+        if (isCounted) {
+            return reserve(eventId);
+        }
+        release(eventId);
+        return true;
+    }
+
+    /**
+     * Rejects new registrations up front once the cached count says the event is full. Advisory only;
+     * {@link #onStatusChange} makes the binding decision at approval time.
+     */
+    public void ensureNotFull(Event event) {
+        Integer max = event.getMaxParticipants();
+        if (max != null && currentParticipants(event.getId()) >= max) {
+            throw new IllegalArgumentException("Registrations for " + event.getName() + " are full");
+        }
+    }
+
+    /**
+     * Changes the event's capacity. Refuses to go below the approved count, and does so in the same
+     * statement that writes the new value, so an approval committing in between cannot slip past it.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void resize(Long eventId, int maxParticipants) {
+        if (eventRepository.resize(eventId, maxParticipants) == 0) {
+            throw new IllegalArgumentException("Event already has " + eventRepository.findCurrentParticipants(eventId)
+                    + " approved participants; capacity cannot go below that");
+        }
+        activeEventsCache.invalidate();
+    }
+
+    public int currentParticipants(Long eventId) {
+        return mirror(eventId).count().intValue();
+    }
+
+    public void evict(Long eventId) {
+        mirrors.remove(eventId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.capacity.mirror-ttl-ms:30000}")
+    public void expireMirrors() {
+        long now = System.nanoTime();
+        mirrors.values().removeIf(mirror -> isExpired(mirror, now));
+    }
+
+    private boolean reserve(Long eventId) {
+        if (eventRepository.tryReserveSlot(eventId) == 0) {
+            // Resync the mirror with the row that just refused us
+            mirrors.remove(eventId);
+            log.warn("Event {} is at capacity; approval not counted", eventId);
+            return false;
+        }
+        adjustAfterCommit(eventId, 1);
+        activeEventsCache.invalidate();
+        return true;
+    }
+
+    private void release(Long eventId) {
+        if (eventRepository.releaseSlot(eventId) == 1) {
+            adjustAfterCommit(eventId, -1);
+            activeEventsCache.invalidate();
+        }
+    }
+
+    /**
+     * Applies the delta to the cached counter only once the UPDATE is committed, so rolled-back
+     * approvals never show up in reads.
+     */
+    private void adjustAfterCommit(Long eventId, int delta) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                Mirror mirror = mirrors.get(eventId);
+                if (mirror != null) {
+                    mirror.count().add(delta);
+                }
+            }
+        });
+    }
+
+    private Mirror mirror(Long eventId) {
+        long now = System.nanoTime();
+        Mirror mirror = mirrors.get(eventId);
+        if (mirror != null && !isExpired(mirror, now)) {
+            return mirror;
+        }
+        return mirrors.compute(eventId, (id, existing) ->
+                existing != null && !isExpired(existing, now) ? existing : load(id, now));
+    }
+
+    private Mirror load(Long eventId, long now) {
+        LongAdder count = new LongAdder();
+        Integer current = eventRepository.findCurrentParticipants(eventId);
+        count.add(current != null ? current : 0);
+        return new Mirror(count, now);
+    }
+
+    private boolean isExpired(Mirror mirror, long now) {
+        return now - mirror.loadedAtNanos() > mirrorTtlMs * 1_000_000L;
+    }
+
+    private record Mirror(LongAdder count, long loadedAtNanos) {
+    }
+}
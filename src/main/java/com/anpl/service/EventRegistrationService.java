@@ -11,6 +11,7 @@ import com.anpl.exception.ResourceNotFoundException;
 import com.anpl.repository.EventRegistrationRepository;
 import com.anpl.repository.UserRepository;
 import com.anpl.repository.EventRepository;
+import com.anpl.util.RegistrationNumberGenerator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,6 +25,8 @@ public class EventRegistrationService {
     private final EventRegistrationRepository eventRegistrationRepository;
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
+    private final RegistrationNumberGenerator registrationNumberGenerator;
+    private final EventCapacityService eventCapacityService;
 
     @Transactional
     public EventRegistrationResponse registerForEvent(Long userId, Long eventId) {
@@ -48,9 +51,12 @@ public class EventRegistrationService {
             return buildEventRegistrationResponse(existingRegistration.get());
         }
 
+        eventCapacityService.ensureNotFull(event);
+
         EventRegistration registration = new EventRegistration();
         registration.setUser(user);
         registration.setEvent(event);
+        registration.setRegistrationNumber(registrationNumberGenerator.generateForEventType(event.getEventType()));
         registration.setRegistrationStatus(RegistrationStatus.PENDING);
         registration.setCreatedAt(LocalDateTime.now());
         registration.setUpdatedAt(LocalDateTime.now());
@@ -75,6 +81,10 @@ public class EventRegistrationService {
         EventRegistration registration = eventRegistrationRepository.findById(registrationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Registration not found"));
         
+        if (!eventCapacityService.onStatusChange(registration.getEvent().getId(),
+                registration.getRegistrationStatus(), status)) {
+            throw new IllegalArgumentException("Event is full; increase its capacity before approving");
+        }
         registration.setRegistrationStatus(status);
         registration.setUpdatedAt(LocalDateTime.now());
         EventRegistration updatedRegistration = eventRegistrationRepository.save(registration);
@@ -82,6 +92,27 @@ public class EventRegistrationService {
         return buildEventRegistrationResponse(updatedRegistration);
     }
 
+    /**
+     * Approves registrations parked as PAID_OVER_CAPACITY, oldest first, until the event is full again.
+     * Returns how many were approved; the rest stay parked for a later capacity increase or a refund.
+     */
+    @Transactional
+    public int approveOverCapacity(Long eventId) {
+        List<EventRegistration> parked = eventRegistrationRepository.lockByEventAndStatus(eventId,
+                RegistrationStatus.PAID_OVER_CAPACITY);
+        int approved = 0;
+        for (EventRegistration registration : parked) {
+            if (!eventCapacityService.onStatusChange(eventId, RegistrationStatus.PAID_OVER_CAPACITY,
+                    RegistrationStatus.APPROVED)) {
+                break;
+            }
+            registration.setRegistrationStatus(RegistrationStatus.APPROVED);
+            registration.setUpdatedAt(LocalDateTime.now());
+            approved++;
+        }
+        return approved;
+    }
+
     public EventRegistrationResponse buildEventRegistrationResponse(EventRegistration registration) {
         User user = registration.getUser();
         return EventRegistrationResponse.builder()
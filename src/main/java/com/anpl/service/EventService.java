@@ -1,30 +1,66 @@
 package com.anpl.service;
 
+import com.anpl.dto.EventDetailResponse;
+import com.anpl.dto.EventPageResponse;
 import com.anpl.dto.EventRequest;
+import com.anpl.dto.EventSummaryResponse;
 import com.anpl.exception.ResourceNotFoundException;
 import com.anpl.model.Event;
 import com.anpl.repository.EventRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class EventService {
     private final EventRepository eventRepository;
+    private final EventCapacityService eventCapacityService;
+    private final ActiveEventsCache activeEventsCache;
 
-    public List<Event> getActiveEvents() {
-        LocalDateTime now = LocalDateTime.now();
-        return eventRepository.findByActiveIsTrueAndRegistrationEndDateAfterAndRegistrationStartDateBefore(
-            now,
-            now
-        );
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of(
+        "name", "eventType", "price", "year", "active", "registrationStartDate", "registrationEndDate",
+        "eventStartDate", "createdAt"
+    );
+
+    public List<EventSummaryResponse> getAllEvents() {
+        return eventRepository.findAllSummaries(Sort.by(Sort.Direction.DESC, "registrationStartDate"));
+    }
+
+    /**
+     * One page of event summaries for the admin listing. Sorting is limited to known columns so a bad
+     * {@code sort} parameter is a 400 rather than a query failure.
+     */
+    public EventPageResponse getEventsPage(Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort events by " + order.getProperty());
+            }
+        }
+        Pageable bounded = pageable.getPageSize() > MAX_PAGE_SIZE
+            ? PageRequest.of(pageable.getPageNumber(), MAX_PAGE_SIZE, pageable.getSort())
+            : pageable;
+        Page<EventSummaryResponse> page = eventRepository.findSummaryPage(bounded);
+        return EventPageResponse.builder()
+            .items(page.getContent())
+            .page(page.getNumber())
+            .size(page.getSize())
+            .totalElements(page.getTotalElements())
+            .totalPages(page.getTotalPages())
+            .build();
     }
 
-    public List<Event> getAllEvents() {
-        return eventRepository.findAll();
+    public EventDetailResponse getEventDetail(Long id) {
+        return eventRepository.findDetailById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + id));
     }
 
     public Event getEventById(Long id) {
@@ -48,9 +84,11 @@ public class EventService {
         event.setActive(request.getActive());
         event.setRegistrationStartDate(request.getRegistrationStartDate());
         event.setRegistrationEndDate(request.getRegistrationEndDate());
+        event.setMaxParticipants(request.getMaxParticipants());
         event.setCreatedAt(LocalDateTime.now());
         event.setUpdatedAt(LocalDateTime.now());
-        
+        activeEventsCache.invalidate();
+
         return eventRepository.save(event);
     }
 
@@ -65,7 +103,13 @@ public class EventService {
         event.setRegistrationStartDate(request.getRegistrationStartDate());
         event.setRegistrationEndDate(request.getRegistrationEndDate());
         event.setUpdatedAt(LocalDateTime.now());
-        
+        Integer maxParticipants = request.getMaxParticipants();
+        if (maxParticipants != null && !maxParticipants.equals(event.getMaxParticipants())) {
+            eventCapacityService.resize(id, maxParticipants);
+            event.setMaxParticipants(maxParticipants);
+        }
+        activeEventsCache.invalidate();
+
         return eventRepository.save(event);
     }
 
@@ -73,6 +117,8 @@ public class EventService {
     public void deleteEvent(Long id) {
         Event event = getEventById(id);
         eventRepository.delete(event);
+        eventCapacityService.evict(id);
+        activeEventsCache.invalidate();
     }
 
     @Transactional
@@ -80,6 +126,7 @@ public class EventService {
         Event event = getEventById(id);
         event.setActive(!event.isActive());
         event.setUpdatedAt(LocalDateTime.now());
+        activeEventsCache.invalidate();
         return eventRepository.save(event);
     }
 } 
\ No newline at end of file
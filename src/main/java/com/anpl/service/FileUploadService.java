@@ -1,31 +1,53 @@
 package com.anpl.service;
 
+import com.anpl.service.ContentAddressedBlobStore.StoredBlob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Objects;
 import java.util.Set;
-import java.util.UUID;
 
+/**
+ * Accepts uploads and hands them to {@link ContentAddressedBlobStore}. Content is streamed to a staging
+ * file through a fixed-size buffer (base64 payloads are decoded on the fly) while its SHA-256 is
+ * computed, so no upload is ever held in memory as a whole. Images are then decoded by
+ * {@link ImageProcessingPipeline} and rejected before they are stored if they are unreadable or too large.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FileUploadService {
 
+    private final ImageProcessingPipeline imageProcessingPipeline;
+    private final ContentAddressedBlobStore blobStore;
+
     @Value("${file.upload.directory:./uploads}")
     private String uploadDirectory;
 
     private static final long MAX_FILE_SIZE = 1 * 1024 * 1024; // 1MB
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int SNIFF_LENGTH = 12;
     private static final String[] ALLOWED_EXTENSIONS = {".jpg", ".jpeg", ".png", ".pdf"};
     private static final Set<String> ALLOWED_IMAGE_MIME_TYPES = Set.of(
             "image/jpeg",
@@ -39,34 +61,61 @@ public class FileUploadService {
         // Validate file
         validateFile(file);
 
-        // Create upload directory if not exists
-        Path uploadPath = Paths.get(uploadDirectory, category);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+        try (InputStream input = file.getInputStream()) {
+            return store(input, category);
         }
+    }
 
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        String newFilename = UUID.randomUUID().toString() + extension;
-
-        // Save file
-        Path filePath = uploadPath.resolve(newFilename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-        log.info("File uploaded successfully: {}", filePath);
-
-        // Return relative path
-        return category + "/" + newFilename;
+    /**
+     * Moves a record's file reference from {@code current} to {@code replacement} and returns the value
+     * to store: the new blob gains a reference and the old file is released. Must run in the
+     * transaction that saves the record.
+     */
+    public String replaceReference(String current, String replacement) {
+        if (Objects.equals(current, replacement)) {
+            return current;
+        }
+        String stored = StringUtils.hasText(replacement) ? blobStore.acquire(replacement) : null;
+        if (StringUtils.hasText(current)) {
+            deleteFile(current);
+        }
+        return stored;
     }
 
-    public void deleteFile(String filePath) throws IOException {
+    /**
+     * Releases a file a record no longer points at. Blobs lose a reference; legacy per-category files
+     * are deleted once the surrounding transaction commits.
+     */
+    public void deleteFile(String filePath) {
+        if (ContentAddressedBlobStore.isBlobHandle(filePath)) {
+            blobStore.release(filePath);
+            return;
+        }
+        if (filePath.contains("..") || filePath.startsWith("/")) {
+            log.warn("Refusing to delete file outside the upload directory: {}", filePath);
+            return;
+        }
         Path path = Paths.get(uploadDirectory, filePath);
-        if (Files.exists(path)) {
-            Files.delete(path);
-            log.info("File deleted successfully: {}", filePath);
+        Runnable delete = () -> {
+            try {
+                if (Files.deleteIfExists(path)) {
+                    log.info("File deleted successfully: {}", filePath);
+                } else {
+                    log.warn("File not found for deletion: {}", filePath);
+                }
+            } catch (IOException e) {
+                log.warn("Failed to delete file {}: {}", filePath, e.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    delete.run();
+                }
+            });
         } else {
-            log.warn("File not found for deletion: {}", filePath);
+            delete.run();
         }
     }
 
@@ -103,6 +152,7 @@ public class FileUploadService {
         }
         String data = base64Data.trim();
         String mimeType = "image/png";
+        int dataStart = 0;
         if (data.startsWith("data:")) {
             int commaIndex = data.indexOf(',');
             if (commaIndex == -1) {
@@ -111,34 +161,162 @@ public class FileUploadService {
             String meta = data.substring(5, commaIndex);
             String[] parts = meta.split(";");
             mimeType = parts[0];
-            data = data.substring(commaIndex + 1);
+            dataStart = commaIndex + 1;
         }
         if (!ALLOWED_IMAGE_MIME_TYPES.contains(mimeType.toLowerCase())) {
             throw new IllegalArgumentException("Unsupported image type. Allowed: jpg, jpeg, png, gif, webp");
         }
-        byte[] decoded = Base64.getDecoder().decode(data);
-        if (decoded.length == 0) {
+        if (dataStart == data.length()) {
             throw new IllegalArgumentException("Image data is empty");
         }
-        if (decoded.length > MAX_FILE_SIZE) {
-            throw new IllegalArgumentException("Image size exceeds maximum limit of 1MB");
+        InputStream decoded = new MalformedInputGuard(
+                Base64.getDecoder().wrap(new AsciiRegionInputStream(data, dataStart)));
+        String handle = store(decoded, category);
+        log.info("Base64 image uploaded successfully: {}", handle);
+        return handle;
+    }
+
+    private String store(InputStream source, String category) throws IOException {
+        Path temp = Files.createTempFile(blobStore.stagingDirectory(), "upload-", ".tmp");
+        try {
+            byte[] head = source.readNBytes(SNIFF_LENGTH);
+            if (head.length == 0) {
+                throw new IllegalArgumentException("File is empty");
+            }
+            String detected = sniffType(head);
+            if (detected == null) {
+                throw new IllegalArgumentException("File content is not a supported image or PDF");
+            }
+
+            MessageDigest digest = sha256();
+            long total = head.length;
+            try (ReadableByteChannel in = Channels.newChannel(source);
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                digest.update(head);
+                out.write(ByteBuffer.wrap(head));
+                ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    total += read;
+                    if (total > MAX_FILE_SIZE) {
+                        throw new IllegalArgumentException("File size exceeds maximum limit of 1MB");
+                    }
+                    buffer.flip();
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+
+            if (!"pdf".equals(detected)) {
+                imageProcessingPipeline.verify(temp);
+            }
+
+            String extension = "jpeg".equals(detected) ? ".jpg" : "." + detected;
+            StoredBlob blob = blobStore.put(temp, HexFormat.of().formatHex(digest.digest()), extension, total);
+            log.info("Upload for {} stored as {}{}", category, blob.handle(), blob.created() ? "" : " (duplicate)");
+
+            if (blob.created() && !"pdf".equals(detected)) {
+                imageProcessingPipeline.submit(blob.handle());
+            }
+            return blob.handle();
+        } finally {
+            Files.deleteIfExists(temp);
         }
-        String extension = switch (mimeType.toLowerCase()) {
-            case "image/jpeg", "image/jpg" -> ".jpg";
-            case "image/gif" -> ".gif";
-            case "image/webp" -> ".webp";
-            default -> ".png";
-        };
+    }
 
-        Path uploadPath = Paths.get(uploadDirectory, category);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
-        String newFilename = UUID.randomUUID().toString() + extension;
-        Path filePath = uploadPath.resolve(newFilename);
-        Files.write(filePath, decoded, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-        log.info("Base64 image uploaded successfully: {}", filePath);
-        return category + "/" + newFilename;
     }
-}
 
+    /**
+     * Identifies the payload from its magic bytes; the client-supplied name or MIME type alone is not trusted.
+     */
+    private static String sniffType(byte[] head) {
+        if (head.length >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) {
+            return "jpeg";
+        }
+        if (head.length >= 4 && (head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G') {
+            return "png";
+        }
+        if (head.length >= 4 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F' && head[3] == '8') {
+            return "gif";
+        }
+        if (head.length >= 12 && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return "webp";
+        }
+        if (head.length >= 4 && head[0] == '%' && head[1] == 'P' && head[2] == 'D' && head[3] == 'F') {
+            return "pdf";
+        }
+        return null;
+    }
+
+    /**
+     * Reads the base64 part of a data URL straight out of the request string, without copying it.
+     */
+    private static final class AsciiRegionInputStream extends InputStream {
+        private final String source;
+        private int position;
+
+        private AsciiRegionInputStream(String source, int start) {
+            this.source = source;
+            this.position = start;
+        }
+
+        @Override
+        public int read() {
+            return position < source.length() ? source.charAt(position++) & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            int remaining = source.length() - position;
+            if (remaining <= 0) {
+                return -1;
+            }
+            int count = Math.min(length, remaining);
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = (byte) source.charAt(position++);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * The base64 decoder reports bad input as {@link IOException}; surface it as a client error instead.
+     */
+    private static final class MalformedInputGuard extends FilterInputStream {
+
+        private MalformedInputGuard(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() {
+            try {
+                return super.read();
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Invalid image data");
+            }
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            try {
+                return super.read(buffer, offset, length);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Invalid image data");
+            }
+        }
+    }
+}
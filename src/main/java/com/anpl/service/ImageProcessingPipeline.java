@@ -0,0 +1,118 @@
+package com.anpl.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Image checks for uploads. {@link #verify} runs on the uploading thread before the content is stored:
+ * it decodes the image (subsampled, so memory stays bounded) and rejects anything that is not a readable
+ * image of sane dimensions. Warming the thumbnail in {@link ImageVariantStore} does not need to hold up
+ * the request and runs on a small bounded pool; when the queue is full the submitting thread does the
+ * work itself, which throttles uploads instead of growing an unbounded backlog.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ImageProcessingPipeline {
+
+    /**
+     * Upper bound on pixels actually decoded while verifying; larger images are subsampled to fit.
+     */
+    private static final long VERIFY_DECODE_PIXELS = 1_000_000L;
+
+    private final ImageVariantStore variantStore;
+
+    @Value("${app.upload.pipeline.workers:2}")
+    private int workers;
+
+    @Value("${app.upload.pipeline.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.upload.max-image-pixels:40000000}")
+    private long maxImagePixels;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-pipeline-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Throws {@link IllegalArgumentException} unless {@code file} decodes as an image within the pixel limit.
+     */
+    public void verify(Path file) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Uploaded image could not be decoded");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels <= 0 || pixels > maxImagePixels) {
+                    throw new IllegalArgumentException("Uploaded image dimensions are too large");
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = (int) Math.ceil(Math.sqrt((double) pixels / VERIFY_DECODE_PIXELS));
+                if (step > 1) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                // Decoding the whole stream catches truncated or corrupt bodies behind a valid header
+                reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            if (e instanceof IllegalArgumentException rejected) {
+                throw rejected;
+            }
+            log.debug("Rejected undecodable upload {}: {}", file, e.getMessage());
+            throw new IllegalArgumentException("Uploaded image could not be decoded");
+        }
+    }
+
+    /**
+     * Warms the thumbnail of a verified, newly stored image in the background.
+     */
+    public void submit(String handle) {
+        executor.execute(() -> {
+            try {
+                variantStore.warm(handle);
+            } catch (RuntimeException e) {
+                log.warn("Failed to warm variants of uploaded image {}: {}", handle, e.getMessage());
+            }
+        });
+    }
+}
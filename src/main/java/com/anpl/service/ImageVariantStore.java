@@ -0,0 +1,326 @@
+package com.anpl.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Downscaled JPEG variants of uploaded images, so listings can show a small thumbnail instead of the
+ * full upload. Variants are generated on first request (or warmed by {@link ImageProcessingPipeline})
+ * into {@code <upload dir>/.variants/<size>/}, which the public /uploads mapping never serves. The
+ * directory is kept under a byte budget by evicting the least recently used variants; any evicted
+ * variant is simply regenerated the next time it is asked for. A variant handed out within the last
+ * {@code app.upload.variants.serve-grace-seconds} is never evicted, since its response may still be
+ * streaming the file (Tomcat's sendfile opens it only after the controller returns); the directory may
+ * briefly run over budget instead.
+ */
+@Component
+@Slf4j
+public class ImageVariantStore {
+
+    public static final int THUMBNAIL = 128;
+    public static final int PREVIEW = 512;
+    public static final String URL_PREFIX = "/thumbnails/";
+
+    private static final String VARIANT_DIRECTORY = ".variants";
+    private static final String VARIANT_EXTENSION = ".jpg";
+    private static final float JPEG_QUALITY = 0.82f;
+
+    @Value("${file.upload.directory:./uploads}")
+    private String uploadDirectory;
+
+    @Value("${app.upload.variants.max-bytes:268435456}")
+    private long maxBytes;
+
+    @Value("${app.upload.max-image-pixels:40000000}")
+    private long maxImagePixels;
+
+    @Value("${app.upload.variants.serve-grace-seconds:60}")
+    private long serveGraceSeconds;
+
+    private Path uploadRoot;
+    private Path variantRoot;
+
+    /** Variant path (relative to {@link #variantRoot}) to its entry, in least-recently-used order. */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    private final ConcurrentHashMap<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        uploadRoot = Paths.get(uploadDirectory).toAbsolutePath().normalize();
+        variantRoot = uploadRoot.resolve(VARIANT_DIRECTORY);
+        Files.createDirectories(variantRoot);
+        loadExistingVariants();
+    }
+
+    public static boolean isSupportedSize(int size) {
+        return size == THUMBNAIL || size == PREVIEW;
+    }
+
+    /**
+     * Public URL of the {@code size} variant of an uploaded image, or null when the upload is missing
+     * or not an image (PDFs have no variants).
+     */
+    public static String urlFor(String handle, int size) {
+        if (!StringUtils.hasText(handle) || handle.startsWith("http") || !isImageName(handle)) {
+            return null;
+        }
+        String relative = handle.startsWith("/uploads/") ? handle.substring("/uploads/".length()) : handle;
+        return URL_PREFIX + size + "/" + relative;
+    }
+
+    /**
+     * Returns the variant file, generating it if needed. Concurrent requests for the same variant
+     * share one generation. Returns null when the source is missing or cannot be decoded, in which case
+     * callers fall back to the original upload.
+     */
+    public Path variant(String handle, int size) {
+        if (!isSupportedSize(size)) {
+            throw new IllegalArgumentException("Unsupported variant size: " + size);
+        }
+        Path source = resolveSource(handle);
+        if (source == null) {
+            return null;
+        }
+        String key = size + "/" + uploadRoot.relativize(source) + VARIANT_EXTENSION;
+        Path target = variantRoot.resolve(key);
+        if (touch(key) && Files.isRegularFile(target)) {
+            return target;
+        }
+
+        CompletableFuture<Path> mine = new CompletableFuture<>();
+        CompletableFuture<Path> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return awaitQuietly(running);
+        }
+        try {
+            Path generated = Files.isRegularFile(target) ? target : generate(source, target, size);
+            if (generated != null) {
+                record(key, Files.size(generated));
+            }
+            mine.complete(generated);
+            return generated;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not generate {}px variant of {}: {}", size, handle, e.getMessage());
+            mine.complete(null);
+            return null;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Generates the thumbnail ahead of the first listing that needs it.
+     */
+    public void warm(String handle) {
+        if (isImageName(handle)) {
+            variant(handle, THUMBNAIL);
+        }
+    }
+
+    private Path resolveSource(String handle) {
+        if (!StringUtils.hasText(handle) || handle.startsWith(".") || handle.contains("/.")) {
+            return null;
+        }
+        Path source = uploadRoot.resolve(handle).normalize();
+        if (!source.startsWith(uploadRoot) || !Files.isRegularFile(source) || !isImageName(handle)) {
+            return null;
+        }
+        return source;
+    }
+
+    private Path generate(Path source, Path target, int size) throws IOException {
+        BufferedImage decoded = decode(source, size);
+        if (decoded == null) {
+            return null;
+        }
+        double scale = Math.min(1.0, (double) size / Math.max(decoded.getWidth(), decoded.getHeight()));
+        int width = Math.max(1, (int) Math.round(decoded.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(decoded.getHeight() * scale));
+
+        // JPEG has no alpha, so transparent PNGs are flattened onto white
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(decoded, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), "variant-", ".tmp");
+        try {
+            writeJpeg(scaled, temp);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return target;
+    }
+
+    /**
+     * Decodes the source, subsampling large images while reading so a 12MP photo never has to be
+     * fully materialised just to produce a 128px thumbnail.
+     */
+    private BufferedImage decode(Path source, int size) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxImagePixels) {
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / (size * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Marks the variant as just served, protecting it from eviction for the grace period.
+     */
+    private synchronized boolean touch(String key) {
+        return entries.computeIfPresent(key, (k, entry) -> new Entry(entry.bytes(), System.nanoTime())) != null;
+    }
+
+    private void record(String key, long bytes) {
+        synchronized (this) {
+            Entry previous = entries.put(key, new Entry(bytes, System.nanoTime()));
+            totalBytes += bytes - (previous != null ? previous.bytes() : 0L);
+        }
+        evictIfNeeded();
+    }
+
+    private void evictIfNeeded() {
+        long graceNanos = serveGraceSeconds * 1_000_000_000L;
+        while (true) {
+            String victim;
+            synchronized (this) {
+                if (totalBytes <= maxBytes || entries.isEmpty()) {
+                    return;
+                }
+                Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+                Map.Entry<String, Entry> entry = eldest.next();
+                if (System.nanoTime() - entry.getValue().servedAtNanos() < graceNanos) {
+                    // Everything left was served within the grace period and may be mid-transfer
+                    return;
+                }
+                victim = entry.getKey();
+                totalBytes -= entry.getValue().bytes();
+                eldest.remove();
+            }
+            try {
+                Files.deleteIfExists(variantRoot.resolve(victim));
+            } catch (IOException e) {
+                log.warn("Failed to evict image variant {}: {}", victim, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Seeds the LRU from variants left by a previous run, oldest first, then trims to the budget.
+     */
+    private void loadExistingVariants() throws IOException {
+        // Never served by this process, so immediately evictable
+        long notServed = System.nanoTime() - serveGraceSeconds * 1_000_000_000L - 1;
+        try (Stream<Path> files = Files.walk(variantRoot)) {
+            files.filter(path -> path.toString().endsWith(VARIANT_EXTENSION))
+                    .map(path -> {
+                        try {
+                            return Map.entry(path, Files.readAttributes(path, BasicFileAttributes.class));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .sorted(Comparator.comparing(entry -> entry.getValue().lastModifiedTime()))
+                    .forEach(entry -> {
+                        synchronized (this) {
+                            entries.put(variantRoot.relativize(entry.getKey()).toString(),
+                                    new Entry(entry.getValue().size(), notServed));
+                            totalBytes += entry.getValue().size();
+                        }
+                    });
+        }
+        evictIfNeeded();
+        log.info("Image variant cache: {} files, {} bytes (budget {})", entries.size(), totalBytes, maxBytes);
+    }
+
+    /**
+     * @param servedAtNanos {@link System#nanoTime()} of the last time the variant was handed out
+     */
+    private record Entry(long bytes, long servedAtNanos) {
+    }
+
+    private static Path awaitQuietly(CompletableFuture<Path> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            return null;
+        }
+    }
+
+    private static boolean isImageName(String handle) {
+        String lower = handle.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".jpg") || lower.endsWith(".jpeg") || lower.endsWith(".png") || lower.endsWith(".gif");
+    }
+}
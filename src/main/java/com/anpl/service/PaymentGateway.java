@@ -0,0 +1,40 @@
+package com.anpl.service;
+
+import com.anpl.exception.PaymentException;
+
+import java.util.Map;
+
+/**
+ * Remote payment provider. Implementations never run inside a database transaction: callers do
+ * their reads and writes in short transactions on either side of these calls, so gateway latency
+ * does not hold a pooled connection.
+ * <p>
+ * All failures surface as {@link PaymentException}.
+ */
+public interface PaymentGateway {
+
+    /**
+     * Creates an order. {@code receipt} doubles as our idempotency key and lets a gateway order be
+     * matched back to the local row that requested it.
+     */
+    GatewayOrder createOrder(long amountPaise, String currency, String receipt, Map<String, Object> notes);
+
+    GatewayOrder fetchOrder(String orderId);
+
+    /**
+     * Checks the checkout signature returned to the browser; throws if it does not match.
+     */
+    void verifyPaymentSignature(String orderId, String paymentId, String signature);
+
+    /**
+     * Checks the signature header of a webhook delivery against the raw request body.
+     */
+    void verifyWebhookSignature(String payload, String signature);
+
+    record GatewayOrder(String id, String status, long amountPaise, String receipt) {
+
+        public boolean isPaid() {
+            return "paid".equals(status);
+        }
+    }
+}
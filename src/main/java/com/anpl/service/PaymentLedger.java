@@ -0,0 +1,194 @@
+package com.anpl.service;
+
+import com.anpl.exception.PaymentException;
+import com.anpl.exception.ResourceNotFoundException;
+import com.anpl.model.BadmintonRegistrationBundle;
+import com.anpl.model.EventRegistration;
+import com.anpl.model.Payment;
+import com.anpl.model.PaymentStatus;
+import com.anpl.model.RegistrationStatus;
+import com.anpl.repository.BadmintonRegistrationBundleRepository;
+import com.anpl.repository.EventRegistrationRepository;
+import com.anpl.repository.PaymentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Local side of the payment flows. Every method is one short transaction with no remote calls;
+ * the services orchestrating a payment call {@link PaymentGateway} between these steps.
+ * State transitions are idempotent, so a replayed verification never double-applies.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentLedger {
+
+    private final PaymentRepository paymentRepository;
+    private final EventRegistrationRepository eventRegistrationRepository;
+    private final BadmintonRegistrationBundleRepository bundleRepository;
+    private final EventCapacityService eventCapacityService;
+
+    /**
+     * Latest order for the registration that can still be paid for the same amount, if any.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Payment> findOpenOrder(Long registrationId, BigDecimal amount) {
+        return paymentRepository.findFirstByRegistration_IdOrderByCreatedAtDesc(registrationId)
+                .filter(payment -> payment.getPaymentStatus() == PaymentStatus.PENDING)
+                .filter(payment -> payment.getRazorpayOrderId() != null)
+                .filter(payment -> payment.getAmount().compareTo(amount) == 0);
+    }
+
+    /**
+     * Deterministic per-attempt key. Two concurrent requests for the same attempt derive the same key,
+     * so the unique constraint lets exactly one of them record its order.
+     */
+    @Transactional(readOnly = true)
+    public String nextIdempotencyKey(Long registrationId) {
+        return "reg_" + registrationId + "_" + (paymentRepository.countByRegistration_Id(registrationId) + 1);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Payment> findByIdempotencyKey(String idempotencyKey) {
+        return paymentRepository.findByIdempotencyKey(idempotencyKey);
+    }
+
+    @Transactional
+    public Payment recordOrder(Long registrationId, BigDecimal amount, String orderId, String idempotencyKey) {
+        Payment payment = new Payment();
+        payment.setRegistration(eventRegistrationRepository.getReferenceById(registrationId));
+        payment.setAmount(amount);
+        payment.setRazorpayOrderId(orderId);
+        payment.setIdempotencyKey(idempotencyKey);
+        payment.setPaymentStatus(PaymentStatus.PENDING);
+        payment.setCreatedAt(LocalDateTime.now());
+        return paymentRepository.saveAndFlush(payment);
+    }
+
+    /**
+     * Applies a verified outcome to the payment and its registration. Returns {@code true} only when
+     * this call approved the registration, so callers send confirmations exactly once.
+     * <p>
+     * The order must be one recorded for this registration by {@link #recordOrder}, and a paid order
+     * must be for the amount recorded with it; anything else is rejected without touching either row.
+     *
+     * @param paidAmountPaise amount the gateway reports for the order; required when {@code paid}
+     * @param discardOnFailure delete the registration on failure instead of keeping it as FAILED
+     */
+    @Transactional
+    public boolean settleRegistration(Long registrationId,
+                                      String orderId,
+                                      String paymentId,
+                                      String signature,
+                                      Long paidAmountPaise,
+                                      boolean paid,
+                                      boolean discardOnFailure) {
+        EventRegistration registration = eventRegistrationRepository.findById(registrationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Registration not found"));
+        Payment payment = paymentRepository.findByRazorpayOrderId(orderId)
+                .orElseThrow(() -> new PaymentException("Unknown payment order"));
+        if (!payment.getRegistration().getId().equals(registrationId)) {
+            log.warn("Order {} belongs to registration {}, not {}", orderId,
+                    payment.getRegistration().getId(), registrationId);
+            throw new PaymentException("Payment order does not belong to this registration");
+        }
+
+        if (payment.getPaymentStatus() == PaymentStatus.COMPLETED) {
+            return false;
+        }
+        if (paid && (paidAmountPaise == null || paidAmountPaise != toPaise(payment.getAmount()))) {
+            log.warn("Order {} paid {} paise, expected {}", orderId, paidAmountPaise, toPaise(payment.getAmount()));
+            throw new PaymentException("Paid amount does not match the order");
+        }
+
+        // Webhook and reconciler settlements carry no checkout signature (and the reconciler no payment id)
+        if (paymentId != null) {
+            payment.setRazorpayPaymentId(paymentId);
+        }
+        if (signature != null) {
+            payment.setRazorpaySignature(signature);
+        }
+
+        Long eventId = registration.getEvent().getId();
+        if (paid) {
+            payment.setPaymentStatus(PaymentStatus.COMPLETED);
+            payment.setPaymentDate(LocalDateTime.now());
+            paymentRepository.save(payment);
+            if (!eventCapacityService.onStatusChange(eventId, registration.getRegistrationStatus(),
+                    RegistrationStatus.APPROVED)) {
+                // Paid after the last slot went: park it where admins can find it, to refund or make room
+                log.warn("Registration {} paid via order {} but event {} is full", registrationId, orderId, eventId);
+                registration.setRegistrationStatus(RegistrationStatus.PAID_OVER_CAPACITY);
+                eventRegistrationRepository.save(registration);
+                return false;
+            }
+            registration.setRegistrationStatus(RegistrationStatus.APPROVED);
+            eventRegistrationRepository.save(registration);
+            return true;
+        }
+
+        payment.setPaymentStatus(PaymentStatus.FAILED);
+        eventCapacityService.onStatusChange(eventId, registration.getRegistrationStatus(), RegistrationStatus.FAILED);
+        registration.setRegistrationStatus(RegistrationStatus.FAILED);
+        paymentRepository.save(payment);
+        if (discardOnFailure) {
+            eventRegistrationRepository.delete(registration);
+        } else {
+            eventRegistrationRepository.save(registration);
+        }
+        return false;
+    }
+
+    /**
+     * Attaches {@code orderId} to the bundle unless another request already did; returns the order id
+     * the bundle ends up with.
+     */
+    @Transactional
+    public String claimBundleOrder(Long bundleId, String orderId) {
+        if (bundleRepository.claimPaymentOrder(bundleId, orderId) == 1) {
+            return orderId;
+        }
+        return bundleRepository.findById(bundleId)
+                .map(BadmintonRegistrationBundle::getPaymentOrderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bundle not found"));
+    }
+
+    /**
+     * Marks a paid bundle and its entries approved. Returns {@code false} if it already was. The order
+     * must be the one claimed by {@link #claimBundleOrder} and paid in full.
+     */
+    @Transactional
+    public boolean settleBundle(Long bundleId, String orderId, String paymentId, long paidAmountPaise) {
+        BadmintonRegistrationBundle bundle = bundleRepository.findById(bundleId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bundle not found"));
+        if (!orderId.equals(bundle.getPaymentOrderId())) {
+            log.warn("Order {} is not the order of bundle {} ({})", orderId, bundleId, bundle.getPaymentOrderId());
+            throw new PaymentException("Payment order does not belong to this registration");
+        }
+        if (bundle.getBundleStatus() == RegistrationStatus.APPROVED) {
+            return false;
+        }
+        if (paidAmountPaise != bundle.getTotalAmount() * 100L) {
+            log.warn("Order {} paid {} paise, expected {}", orderId, paidAmountPaise, bundle.getTotalAmount() * 100L);
+            throw new PaymentException("Paid amount does not match the order");
+        }
+        bundle.setBundleStatus(RegistrationStatus.APPROVED);
+        if (paymentId != null) {
+            bundle.setPaymentReference(paymentId);
+        }
+        bundle.getEntries().forEach(entry -> entry.setEntryStatus(RegistrationStatus.APPROVED));
+        bundleRepository.save(bundle);
+        return true;
+    }
+
+    private static long toPaise(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
@@ -0,0 +1,160 @@
+package com.anpl.service;
+
+import com.anpl.exception.PaymentException;
+import com.anpl.model.BadmintonRegistrationBundle;
+import com.anpl.model.Payment;
+import com.anpl.model.PaymentStatus;
+import com.anpl.model.RegistrationStatus;
+import com.anpl.repository.BadmintonRegistrationBundleRepository;
+import com.anpl.repository.PaymentRepository;
+import com.anpl.service.PaymentGateway.GatewayOrder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Server-side payment confirmation. Razorpay webhooks settle orders as soon as they are paid, and
+ * a periodic sweep fetches only orders that have stayed PENDING past a grace period, in case a
+ * webhook was missed. Each sweep stamps the orders it checked, so the next one moves on to the rest. Both paths go through the same idempotent settlement as the checkout callback.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentReconciliationService {
+
+    private static final Set<String> PAID_EVENTS = Set.of("order.paid", "payment.captured");
+
+    private final PaymentGateway paymentGateway;
+    private final PaymentRepository paymentRepository;
+    private final BadmintonRegistrationBundleRepository bundleRepository;
+    private final RegistrationService registrationService;
+    private final BadmintonRegistrationService badmintonRegistrationService;
+
+    @Value("${app.payment.reconcile.stale-after-minutes:10}")
+    private long staleAfterMinutes;
+
+    @Value("${app.payment.reconcile.max-age-hours:48}")
+    private long maxAgeHours;
+
+    @Value("${app.payment.reconcile.batch-size:50}")
+    private int batchSize;
+
+    public void handleWebhook(String payload, String signature) {
+        paymentGateway.verifyWebhookSignature(payload, signature);
+
+        String eventType;
+        String orderId;
+        String paymentId;
+        long amountPaise;
+        try {
+            JSONObject event = new JSONObject(payload);
+            eventType = event.optString("event");
+            JSONObject body = event.optJSONObject("payload");
+            JSONObject payment = entity(body, "payment");
+            JSONObject order = entity(body, "order");
+            paymentId = payment != null ? payment.optString("id", null) : null;
+            orderId = payment != null ? payment.optString("order_id", null) : null;
+            if (orderId == null && order != null) {
+                orderId = order.optString("id", null);
+            }
+            amountPaise = payment != null ? payment.optLong("amount", -1)
+                    : order != null ? order.optLong("amount_paid", -1) : -1;
+        } catch (JSONException e) {
+            throw new PaymentException("Malformed webhook payload");
+        }
+
+        if (!PAID_EVENTS.contains(eventType)) {
+            log.debug("Ignoring Razorpay webhook event {}", eventType);
+            return;
+        }
+        if (orderId == null) {
+            log.warn("Razorpay {} webhook without an order id", eventType);
+            return;
+        }
+        if (amountPaise < 0) {
+            amountPaise = paymentGateway.fetchOrder(orderId).amountPaise();
+        }
+        try {
+            applyPaidOrder(orderId, paymentId, amountPaise);
+        } catch (PaymentException e) {
+            // Signed by Razorpay but not settleable here (wrong amount or order); redelivery would not help
+            log.warn("Rejected paid Razorpay order {}: {}", orderId, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.payment.reconcile.interval-ms:300000}",
+            initialDelayString = "${app.payment.reconcile.initial-delay-ms:60000}")
+    public void reconcileStaleOrders() {
+        LocalDateTime staleBefore = LocalDateTime.now().minusMinutes(staleAfterMinutes);
+        LocalDateTime notBefore = LocalDateTime.now().minusHours(maxAgeHours);
+        PageRequest batch = PageRequest.of(0, batchSize);
+
+        List<Payment> payments = paymentRepository.findStaleOrders(
+                PaymentStatus.PENDING, notBefore, staleBefore, batch);
+        for (Payment payment : payments) {
+            reconcile(payment.getRazorpayOrderId());
+        }
+        if (!payments.isEmpty()) {
+            paymentRepository.markReconciled(payments.stream().map(Payment::getId).toList(), LocalDateTime.now());
+        }
+
+        List<BadmintonRegistrationBundle> bundles = bundleRepository.findStaleOrders(
+                RegistrationStatus.PENDING, notBefore, staleBefore, batch);
+        for (BadmintonRegistrationBundle bundle : bundles) {
+            reconcile(bundle.getPaymentOrderId());
+        }
+        if (!bundles.isEmpty()) {
+            bundleRepository.markReconciled(bundles.stream().map(BadmintonRegistrationBundle::getId).toList(),
+                    LocalDateTime.now());
+        }
+
+        if (!payments.isEmpty() || !bundles.isEmpty()) {
+            log.info("Reconciled {} stale registration orders and {} stale badminton orders",
+                    payments.size(), bundles.size());
+        }
+    }
+
+    private void reconcile(String orderId) {
+        try {
+            GatewayOrder order = paymentGateway.fetchOrder(orderId);
+            if (order.isPaid()) {
+                applyPaidOrder(orderId, null, order.amountPaise());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to reconcile order {}: {}", orderId, e.getMessage());
+        }
+    }
+
+    private void applyPaidOrder(String orderId, String paymentId, long amountPaise) {
+        Optional<Payment> payment = paymentRepository.findByRazorpayOrderId(orderId);
+        if (payment.isPresent()) {
+            registrationService.applyPaidOrder(payment.get().getRegistration().getId(), orderId, paymentId,
+                    amountPaise);
+            return;
+        }
+        Optional<BadmintonRegistrationBundle> bundle = bundleRepository.findByPaymentOrderId(orderId);
+        if (bundle.isPresent()) {
+            badmintonRegistrationService.applyPaidOrder(bundle.get().getId(), orderId, paymentId, amountPaise);
+            return;
+        }
+        log.warn("Paid Razorpay order {} does not match any registration", orderId);
+    }
+
+    private static JSONObject entity(JSONObject payload, String key) {
+        if (payload == null) {
+            return null;
+        }
+        JSONObject wrapper = payload.optJSONObject(key);
+        return wrapper != null ? wrapper.optJSONObject("entity") : null;
+    }
+}
@@ -4,8 +4,12 @@ import com.anpl.dto.PaymentInitiateRequest;
 import com.anpl.dto.PaymentResponse;
 import com.anpl.dto.PaymentVerificationRequest;
 
+import java.math.BigDecimal;
+
 public interface PaymentService {
     PaymentResponse initiatePayment(PaymentInitiateRequest request);
-    void verifyPayment(PaymentVerificationRequest request);
+    PaymentResponse createOrder(Long registrationId, BigDecimal amount);
+    /** Returns {@code true} if this call approved the registration. */
+    boolean verifyPayment(PaymentVerificationRequest request);
     PaymentResponse getLatestPayment(Long registrationId);
-} 
\ No newline at end of file
+}
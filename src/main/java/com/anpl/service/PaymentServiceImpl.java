@@ -3,128 +3,96 @@ package com.anpl.service;
 import com.anpl.dto.PaymentInitiateRequest;
 import com.anpl.dto.PaymentResponse;
 import com.anpl.dto.PaymentVerificationRequest;
-import com.anpl.model.EventRegistration;
 import com.anpl.model.Payment;
-import com.anpl.model.PaymentStatus;
-import com.anpl.model.RegistrationStatus;
 import com.anpl.repository.EventRegistrationRepository;
 import com.anpl.repository.PaymentRepository;
 import com.anpl.exception.ResourceNotFoundException;
 import com.anpl.exception.PaymentException;
-import com.razorpay.Order;
-import com.razorpay.RazorpayClient;
-import com.razorpay.RazorpayException;
-import com.razorpay.Utils;
+import com.anpl.service.PaymentGateway.GatewayOrder;
 import lombok.RequiredArgsConstructor;
-import org.json.JSONObject;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.math.RoundingMode;
+import java.util.Map;
 
+/**
+ * Orchestrates event registration payments. Methods here are deliberately not transactional:
+ * gateway calls happen between the short transactions in {@link PaymentLedger}.
+ */
 @Service
 @RequiredArgsConstructor
 public class PaymentServiceImpl implements PaymentService {
+    private static final String CURRENCY = "INR";
+
     private final EventRegistrationRepository eventRegistrationRepository;
     private final PaymentRepository paymentRepository;
-    private final RazorpayClient razorpayClient;
-
-    @Value("${razorpay.key.id}")
-    private String razorpayKeyId;
-
-    @Value("${razorpay.key.secret}")
-    private String razorpayKeySecret;
+    private final PaymentGateway paymentGateway;
+    private final PaymentLedger paymentLedger;
 
     @Override
-    @Transactional
     public PaymentResponse initiatePayment(PaymentInitiateRequest request) {
-        try {
-            EventRegistration registration = eventRegistrationRepository.findById(request.getRegistrationId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Registration not found"));
-
-            JSONObject orderRequest = new JSONObject();
-            orderRequest.put("amount", request.getAmount() * 100); // Convert to paise
-            orderRequest.put("currency", "INR");
-            orderRequest.put("receipt", "rcpt_" + registration.getId());
+        if (!eventRegistrationRepository.existsById(request.getRegistrationId())) {
+            throw new ResourceNotFoundException("Registration not found");
+        }
+        return createOrder(request.getRegistrationId(), BigDecimal.valueOf(request.getAmount()));
+    }
 
-            Order order = razorpayClient.orders.create(orderRequest);
+    @Override
+    public PaymentResponse createOrder(Long registrationId, BigDecimal amount) {
+        Payment payment = paymentLedger.findOpenOrder(registrationId, amount)
+                .orElseGet(() -> openOrder(registrationId, amount));
 
-            // Save payment record
-            Payment payment = new Payment();
-            payment.setRegistration(registration);
-            payment.setAmount(BigDecimal.valueOf(request.getAmount()));
-            payment.setRazorpayOrderId(order.get("id"));
-            payment.setPaymentStatus(PaymentStatus.PENDING);
-            payment.setCreatedAt(LocalDateTime.now());
-            paymentRepository.save(payment);
+        return PaymentResponse.builder()
+                .razorpayOrderId(payment.getRazorpayOrderId())
+                .amount(payment.getAmount())
+                .status(payment.getPaymentStatus().toString())
+                .build();
+    }
 
-            return PaymentResponse.builder()
-                    .razorpayOrderId(order.get("id"))
-                    .amount(BigDecimal.valueOf(request.getAmount()))
-                    .status("PENDING")
-                    .build();
-        } catch (RazorpayException e) {
-            throw new PaymentException("Failed to initiate payment: " + e.getMessage());
+    private Payment openOrder(Long registrationId, BigDecimal amount) {
+        String idempotencyKey = paymentLedger.nextIdempotencyKey(registrationId);
+        long amountPaise = amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        GatewayOrder order = paymentGateway.createOrder(amountPaise, CURRENCY, idempotencyKey,
+                Map.of("registration_id", registrationId));
+        try {
+            return paymentLedger.recordOrder(registrationId, amount, order.id(), idempotencyKey);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request for the same attempt recorded its order first; that is the one to pay
+            return paymentLedger.findByIdempotencyKey(idempotencyKey).orElseThrow(() -> e);
         }
     }
 
     @Override
-    @Transactional
-    public void verifyPayment(PaymentVerificationRequest request) {
-        EventRegistration registration = eventRegistrationRepository.findById(request.getRegistrationId())
-            .orElseThrow(() -> new ResourceNotFoundException("Registration not found"));
+    public boolean verifyPayment(PaymentVerificationRequest request) {
+        Long registrationId = request.getRegistrationId();
+
+        // If signature is null or empty, mark as failed without verification
+        if (!StringUtils.hasText(request.getSignature())) {
+            paymentLedger.settleRegistration(registrationId, request.getOrderId(), request.getPaymentId(),
+                    request.getSignature(), null, false, false);
+            return false;
+        }
 
         try {
-            // Get/Create payment record
-            Payment payment = paymentRepository.findByRazorpayOrderId(request.getOrderId())
-                .orElse(new Payment());
-            
-            payment.setRegistration(registration);
-            payment.setRazorpayOrderId(request.getOrderId());
-            payment.setRazorpayPaymentId(request.getPaymentId());
-            payment.setRazorpaySignature(request.getSignature());
-            
-            // If signature is null or empty, mark as failed without verification
-            if (request.getSignature() == null || request.getSignature().trim().isEmpty()) {
-                payment.setPaymentStatus(PaymentStatus.FAILED);
-                registration.setRegistrationStatus(RegistrationStatus.FAILED);
-                paymentRepository.save(payment);
-                eventRegistrationRepository.save(registration);
-                return;
-            }
-            
-            // Verify signature
-            JSONObject attributes = new JSONObject();
-            attributes.put("razorpay_order_id", request.getOrderId());
-            attributes.put("razorpay_payment_id", request.getPaymentId());
-            attributes.put("razorpay_signature", request.getSignature());
-            
-            Utils.verifyPaymentSignature(attributes, request.getSignature());
-            
-            // Check payment status from Razorpay
-            Order order = razorpayClient.orders.fetch(request.getOrderId());
-            if ("paid".equals(order.get("status"))) {
-                payment.setPaymentStatus(PaymentStatus.COMPLETED);
-                payment.setPaymentDate(LocalDateTime.now());
-                registration.setRegistrationStatus(RegistrationStatus.APPROVED);
-                paymentRepository.save(payment);
-                eventRegistrationRepository.save(registration);
-            } else {
-                payment.setPaymentStatus(PaymentStatus.FAILED);
-                registration.setRegistrationStatus(RegistrationStatus.FAILED);
-                paymentRepository.save(payment);
-                eventRegistrationRepository.delete(registration);
-                //throw new PaymentException("Payment failed. Please try registering again.");
-            }
-            
-        } catch (RazorpayException e) {
-            // Set status to failed and delete registration on verification error
-            registration.setRegistrationStatus(RegistrationStatus.FAILED);
-            eventRegistrationRepository.delete(registration);
-            throw new PaymentException("Payment verification failed: " + e.getMessage());
+            paymentGateway.verifyPaymentSignature(request.getOrderId(), request.getPaymentId(), request.getSignature());
+        } catch (PaymentException e) {
+            // Drop the registration on verification error so the user can register again
+            paymentLedger.settleRegistration(registrationId, request.getOrderId(), request.getPaymentId(),
+                    request.getSignature(), null, false, true);
+            throw e;
+        }
+
+        GatewayOrder order = paymentGateway.fetchOrder(request.getOrderId());
+        if (!order.isPaid()) {
+            // A genuine checkout whose capture has not landed yet: keep the registration PENDING and let
+            // the webhook or the reconciler approve it once the gateway reports the order paid
+            return false;
         }
+        return paymentLedger.settleRegistration(registrationId, request.getOrderId(), request.getPaymentId(),
+                request.getSignature(), order.amountPaise(), true, false);
     }
 
     @Override
@@ -141,4 +109,4 @@ public class PaymentServiceImpl implements PaymentService {
             .build();
     }
 
-} 
\ No newline at end of file
+}
@@ -0,0 +1,96 @@
+package com.anpl.service;
+
+import com.anpl.exception.PaymentException;
+import com.razorpay.Order;
+import com.razorpay.RazorpayClient;
+import com.razorpay.RazorpayException;
+import com.razorpay.Utils;
+import lombok.RequiredArgsConstructor;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.payment.gateway", havingValue = "razorpay", matchIfMissing = true)
+public class RazorpayPaymentGateway implements PaymentGateway {
+
+    private final RazorpayClient razorpayClient;
+
+    @Value("${razorpay.key.secret}")
+    private String keySecret;
+
+    @Value("${razorpay.webhook.secret:}")
+    private String webhookSecret;
+
+    @Override
+    public GatewayOrder createOrder(long amountPaise, String currency, String receipt, Map<String, Object> notes) {
+        JSONObject orderRequest = new JSONObject();
+        orderRequest.put("amount", amountPaise);
+        orderRequest.put("currency", currency);
+        orderRequest.put("receipt", receipt);
+        if (notes != null && !notes.isEmpty()) {
+            orderRequest.put("notes", new JSONObject(notes));
+        }
+        try {
+            return toGatewayOrder(razorpayClient.orders.create(orderRequest));
+        } catch (RazorpayException e) {
+            throw new PaymentException("Failed to create order: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public GatewayOrder fetchOrder(String orderId) {
+        try {
+            return toGatewayOrder(razorpayClient.orders.fetch(orderId));
+        } catch (RazorpayException e) {
+            throw new PaymentException("Failed to fetch order: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void verifyPaymentSignature(String orderId, String paymentId, String signature) {
+        JSONObject attributes = new JSONObject();
+        attributes.put("razorpay_order_id", orderId);
+        attributes.put("razorpay_payment_id", paymentId);
+        attributes.put("razorpay_signature", signature);
+        try {
+            if (!Utils.verifyPaymentSignature(attributes, keySecret)) {
+                throw new PaymentException("Invalid payment signature");
+            }
+        } catch (RazorpayException e) {
+            throw new PaymentException("Payment verification failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void verifyWebhookSignature(String payload, String signature) {
+        if (!StringUtils.hasText(webhookSecret)) {
+            throw new PaymentException("Webhook secret is not configured");
+        }
+        if (!StringUtils.hasText(signature)) {
+            throw new PaymentException("Missing webhook signature");
+        }
+        try {
+            if (!Utils.verifyWebhookSignature(payload, signature, webhookSecret)) {
+                throw new PaymentException("Invalid webhook signature");
+            }
+        } catch (RazorpayException e) {
+            throw new PaymentException("Webhook verification failed: " + e.getMessage());
+        }
+    }
+
+    private GatewayOrder toGatewayOrder(Order order) {
+        Object amount = order.get("amount");
+        Object receipt = order.get("receipt");
+        return new GatewayOrder(
+                order.get("id"),
+                order.get("status"),
+                amount instanceof Number number ? number.longValue() : 0L,
+                receipt != null && !JSONObject.NULL.equals(receipt) ? receipt.toString() : null);
+    }
+}
@@ -4,8 +4,10 @@ import com.anpl.dto.BadmintonRegistrationProfileEntry;
 import com.anpl.dto.EventRegistrationResponse;
 import com.anpl.dto.OrderRequest;
 import com.anpl.dto.OrderResponse;
+import com.anpl.dto.PaymentResponse;
 import com.anpl.dto.PaymentVerificationRequest;
 import com.anpl.dto.RegistrationResponse;
+import com.anpl.dto.RegistrationStatusView;
 import com.anpl.model.EventRegistration;
 import com.anpl.model.Event;
 import com.anpl.model.PlayerProfile;
@@ -19,37 +21,25 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.UUID;
-import org.json.JSONObject;
-import com.razorpay.RazorpayException;
-import com.razorpay.Order;
-import com.razorpay.RazorpayClient;
 import com.anpl.repository.EventRegistrationRepository;
 import com.anpl.repository.EventRepository;
 import com.anpl.exception.ResourceNotFoundException;
-import com.anpl.exception.PaymentException;
-import com.anpl.repository.PaymentRepository;
 import com.anpl.repository.PlayerProfileRepository;
 import com.anpl.repository.CricketPlayerSkillsRepository;
 import com.anpl.repository.BadmintonRegistrationBundleRepository;
-import com.anpl.model.Payment;
-import com.anpl.model.PaymentStatus;
-import java.util.Optional;
 import java.math.BigDecimal;
 
 @Service
-@Transactional
 @RequiredArgsConstructor
 @Slf4j
 public class RegistrationService {
     private final EventRegistrationRepository eventRegistrationRepository;
     private final EventRepository eventRepository;
     private final SecurityUtils securityUtils;
-    private final RazorpayClient razorpayClient;
+    private final PaymentLedger paymentLedger;
     private final PaymentService paymentService;
     private final EventRegistrationService eventRegistrationService;
     private final BadmintonRegistrationBundleRepository badmintonRegistrationBundleRepository;
-    private final PaymentRepository paymentRepository;
     private final PlayerProfileRepository playerProfileRepository;
     private final CricketPlayerSkillsRepository cricketPlayerSkillsRepository;
     private final EmailService emailService;
@@ -65,33 +55,15 @@ public class RegistrationService {
             event.getId()
         );
 
-        // Create Razorpay order
-        try {
-            JSONObject orderRequest = new JSONObject();
-            orderRequest.put("amount", event.getPrice() * 100); // Convert to paise
-            orderRequest.put("currency", "INR");
-            orderRequest.put("receipt", "rcpt_" + UUID.randomUUID().toString().substring(0, 8));
-            orderRequest.put("notes", new JSONObject().put("registration_id", registration.getId()));
+        // Reuses the registration's open order, otherwise creates one outside any transaction
+        PaymentResponse payment = paymentService.createOrder(registration.getId(), BigDecimal.valueOf(event.getPrice()));
 
-            Order order = razorpayClient.orders.create(orderRequest);
-            
-            // Create payment record
-            Payment payment = new Payment();
-            payment.setRegistration(eventRegistrationRepository.getReferenceById(registration.getId()));
-            payment.setAmount(BigDecimal.valueOf(event.getPrice()));
-            payment.setRazorpayOrderId(order.get("id"));
-            payment.setPaymentStatus(PaymentStatus.PENDING);
-            paymentRepository.save(payment);
-            
-            return OrderResponse.builder()
-                .orderId(order.get("id"))
-                .amount(event.getPrice().longValue())
-                .currency("INR")
-                .registrationId(registration.getId())
-                .build();
-        } catch (RazorpayException e) {
-            throw new PaymentException("Failed to create order: " + e.getMessage());
-        }
+        return OrderResponse.builder()
+            .orderId(payment.getRazorpayOrderId())
+            .amount(event.getPrice().longValue())
+            .currency("INR")
+            .registrationId(registration.getId())
+            .build();
     }
 
     public EventRegistrationResponse buildEventRegistrationResponse(EventRegistration registration) {
@@ -108,15 +80,16 @@ public class RegistrationService {
             .build();
     }
 
-    @Transactional
     public RegistrationResponse verifyPaymentAndRegister(PaymentVerificationRequest request) {
-        paymentService.verifyPayment(request);
+        boolean approved = paymentService.verifyPayment(request);
         
         EventRegistrationResponse registration = eventRegistrationService.getRegistrationById(
             request.getRegistrationId()
         );
 
-        sendCricketConfirmationIfApplicable(request.getRegistrationId());
+        if (approved) {
+            sendCricketConfirmationIfApplicable(request.getRegistrationId());
+        }
         
         return RegistrationResponse.builder()
             .registrationId(registration.getId())
@@ -125,6 +98,7 @@ public class RegistrationService {
             .build();
     }
 
+    @Transactional(readOnly = true)
     public List<RegistrationResponse> getCurrentUserRegistrations() {
         Long userId = securityUtils.getCurrentUserId();
         List<EventRegistration> registrations = eventRegistrationService.getUserRegistrations(userId);
@@ -142,6 +116,7 @@ public class RegistrationService {
             .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<BadmintonRegistrationProfileEntry> getCurrentUserBadmintonEntries() {
         Long userId = securityUtils.getCurrentUserId();
         List<BadmintonRegistrationBundle> bundles = badmintonRegistrationBundleRepository.findByUserId(userId);
@@ -160,40 +135,33 @@ public class RegistrationService {
                 .collect(Collectors.toList());
     }
 
-    @Transactional
+    /**
+     * Served from the database only; payment confirmation arrives through the checkout callback,
+     * the Razorpay webhook or the reconciler in {@link PaymentReconciliationService}.
+     */
+    @Transactional(readOnly = true)
     public RegistrationResponse checkRegistrationStatus(Long registrationId) {
-        EventRegistration registration = eventRegistrationRepository.findById(registrationId)
+        RegistrationStatusView view = eventRegistrationRepository.findStatusView(registrationId)
             .orElseThrow(() -> new ResourceNotFoundException("Registration not found"));
 
-        try {
-            Optional<Payment> paymentOpt = paymentRepository.findFirstByRegistration_IdOrderByCreatedAtDesc(registrationId);
-            
-            if (paymentOpt.isPresent()) {
-                Payment payment = paymentOpt.get();
-                Order order = razorpayClient.orders.fetch(payment.getRazorpayOrderId());
-                
-                if ("paid".equals(order.get("status"))) {
-                    payment.setPaymentStatus(PaymentStatus.COMPLETED);
-                    registration.setRegistrationStatus(RegistrationStatus.APPROVED);
-                    paymentRepository.save(payment);
-                    eventRegistrationRepository.save(registration);
-
-                    sendCricketConfirmationIfApplicable(registrationId);
-                }
-            }
+        return RegistrationResponse.builder()
+            .registrationId(view.getRegistrationId())
+            .eventId(view.getEventId())
+            .eventName(view.getEventName())
+            .eventType(view.getEventType())
+            .registrationCode(view.getRegistrationNumber())
+            .status(view.getRegistrationStatus().toString())
+            .paymentStatus(view.getPaymentStatus() != null ? view.getPaymentStatus().toString() : "PENDING")
+            .createdAt(view.getCreatedAt())
+            .build();
+    }
 
-            return RegistrationResponse.builder()
-                .registrationId(registration.getId())
-                .eventId(registration.getEvent().getId())
-                .eventName(registration.getEvent().getName())
-                .eventType(registration.getEvent().getEventType())
-                .registrationCode(registration.getRegistrationNumber())
-                .status(registration.getRegistrationStatus().toString())
-                .paymentStatus(paymentOpt.map(p -> p.getPaymentStatus().toString()).orElse("PENDING"))
-                .createdAt(registration.getCreatedAt())
-                .build();
-        } catch (RazorpayException e) {
-            throw new PaymentException("Failed to check payment status: " + e.getMessage());
+    /**
+     * Settles a paid order confirmed by the gateway and sends the confirmation if this call approved it.
+     */
+    public void applyPaidOrder(Long registrationId, String orderId, String paymentId, long paidAmountPaise) {
+        if (paymentLedger.settleRegistration(registrationId, orderId, paymentId, null, paidAmountPaise, true, false)) {
+            sendCricketConfirmationIfApplicable(registrationId);
         }
     }
 
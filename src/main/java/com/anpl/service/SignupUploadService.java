@@ -0,0 +1,111 @@
+package com.anpl.service;
+
+import com.anpl.model.SignupUpload;
+import com.anpl.repository.SignupUploadRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Images uploaded from the signup form before the account exists. Each upload is handed back as a
+ * random, single-use token tied to its upload category; registration exchanges the token for the
+ * stored blob. Tokens nobody claims expire and are swept; their blobs, never referenced, are then
+ * reclaimed by {@link ContentAddressedBlobStore#sweepUnreferenced}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SignupUploadService {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final FileUploadService fileUploadService;
+    private final ContentAddressedBlobStore blobStore;
+    private final SignupUploadRepository signupUploadRepository;
+
+    @Value("${app.upload.signup.ttl-minutes:120}")
+    private long ttlMinutes;
+
+    @Value("${app.upload.signup.sweep-batch-size:200}")
+    private int sweepBatchSize;
+
+    @Transactional
+    public String upload(MultipartFile file, String category, String uploaderAddress) throws IOException {
+        String handle = fileUploadService.uploadFile(file, category);
+
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        LocalDateTime now = LocalDateTime.now();
+        SignupUpload upload = new SignupUpload();
+        upload.setTokenHash(hash(token));
+        upload.setBlobHandle(handle);
+        upload.setCategory(category);
+        upload.setUploaderAddress(uploaderAddress);
+        upload.setCreatedAt(now);
+        upload.setExpiresAt(now.plusMinutes(ttlMinutes));
+        signupUploadRepository.save(upload);
+        return token;
+    }
+
+    /**
+     * Exchanges a token from {@link #upload} for its blob handle, once and only for the category it was
+     * uploaded as. An inline base64 data URL is still accepted and stored as a new image. The returned
+     * handle already holds a reference for the record the caller stores it on.
+     */
+    @Transactional
+    public String resolve(String tokenOrDataUrl, String category) throws IOException {
+        if (!StringUtils.hasText(tokenOrDataUrl)) {
+            throw new IllegalArgumentException("Image data is required");
+        }
+        String value = tokenOrDataUrl.trim();
+        if (value.startsWith("data:")) {
+            return blobStore.acquire(fileUploadService.uploadBase64Image(value, category));
+        }
+        SignupUpload upload = signupUploadRepository.lockByTokenHash(hash(value))
+                .filter(candidate -> candidate.getCategory().equals(category))
+                .filter(candidate -> candidate.getExpiresAt().isAfter(LocalDateTime.now()))
+                .orElseThrow(() -> new IllegalArgumentException("Uploaded image not found or expired, please upload it again"));
+        signupUploadRepository.delete(upload);
+        return blobStore.acquire(upload.getBlobHandle());
+    }
+
+    @Scheduled(fixedDelayString = "${app.upload.signup.sweep-ms:600000}",
+            initialDelayString = "${app.upload.signup.sweep-ms:600000}")
+    @Transactional
+    public void sweepExpired() {
+        List<SignupUpload> expired = signupUploadRepository.lockExpired(LocalDateTime.now(),
+                PageRequest.of(0, sweepBatchSize));
+        signupUploadRepository.deleteAll(expired);
+        if (!expired.isEmpty()) {
+            log.info("Swept {} unclaimed signup uploads", expired.size());
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.anpl.service;
+
+import com.anpl.exception.PaymentException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory gateway for offline and load testing ({@code app.payment.gateway=stub}). An optional
+ * artificial latency makes it easy to show that connection pool usage does not grow with
+ * gateway response time.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.payment.gateway", havingValue = "stub")
+public class StubPaymentGateway implements PaymentGateway {
+
+    private final Map<String, GatewayOrder> orders = new ConcurrentHashMap<>();
+
+    @Value("${app.payment.stub.latency-ms:0}")
+    private long latencyMs;
+
+    @Value("${app.payment.stub.auto-capture:true}")
+    private boolean autoCapture;
+
+    @Override
+    public GatewayOrder createOrder(long amountPaise, String currency, String receipt, Map<String, Object> notes) {
+        simulateLatency();
+        String orderId = "order_stub_" + UUID.randomUUID().toString().replace("-", "").substring(0, 14);
+        GatewayOrder order = new GatewayOrder(orderId, "created", amountPaise, receipt);
+        orders.put(orderId, order);
+        log.debug("Stub gateway created order {} for receipt {}", orderId, receipt);
+        return order;
+    }
+
+    @Override
+    public GatewayOrder fetchOrder(String orderId) {
+        simulateLatency();
+        GatewayOrder order = orders.get(orderId);
+        if (order == null) {
+            throw new PaymentException("Failed to fetch order: unknown order " + orderId);
+        }
+        return autoCapture
+                ? new GatewayOrder(order.id(), "paid", order.amountPaise(), order.receipt())
+                : order;
+    }
+
+    @Override
+    public void verifyPaymentSignature(String orderId, String paymentId, String signature) {
+        if (!StringUtils.hasText(signature) || !orders.containsKey(orderId)) {
+            throw new PaymentException("Invalid payment signature");
+        }
+    }
+
+    @Override
+    public void verifyWebhookSignature(String payload, String signature) {
+        if (!StringUtils.hasText(signature)) {
+            throw new PaymentException("Missing webhook signature");
+        }
+    }
+
+    private void simulateLatency() {
+        if (latencyMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentException("Stub gateway interrupted");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.anpl.service;
+
+import com.anpl.dto.UserResponse;
+import com.anpl.model.User;
+import com.anpl.repository.UserRepository;
+import com.anpl.service.UserSearchIndex.Hit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Partner/user lookup behind {@code /api/users/search}. Ranking happens in {@link UserSearchIndex};
+ * only the winning rows are read from the database, by primary key. Before the index has loaded the
+ * search runs against the pg_trgm indexes instead. Results are served through
+ * {@link UserSearchResultCache} so repeated and extended queries skip both.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserDirectoryService {
+
+    public static final int MIN_QUERY_LENGTH = 3;
+    private static final int RESULT_LIMIT = 10;
+
+    private final UserRepository userRepository;
+    private final UserSearchIndex searchIndex;
+    private final UserSearchResultCache resultCache;
+
+    public List<UserResponse> search(String query) {
+        if (query == null || query.trim().length() < MIN_QUERY_LENGTH) {
+            return List.of();
+        }
+        String trimmed = query.trim();
+        return resultCache.getOrLoad(trimmed, RESULT_LIMIT, () -> load(trimmed));
+    }
+
+    private List<UserResponse> load(String trimmed) {
+        if (!searchIndex.isReady()) {
+            return userRepository.searchByTrigram(trimmed, "%" + escapeLike(trimmed) + "%", RESULT_LIMIT).stream()
+                    .map(UserResponse::fromUser)
+                    .collect(Collectors.toList());
+        }
+
+        List<Hit> hits = searchIndex.search(trimmed, RESULT_LIMIT);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, User> users = userRepository.findAllById(hits.stream().map(Hit::userId).toList()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return hits.stream()
+                .map(hit -> users.get(hit.userId()))
+                .filter(Objects::nonNull)
+                .map(UserResponse::fromUser)
+                .collect(Collectors.toList());
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
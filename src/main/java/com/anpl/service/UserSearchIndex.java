@@ -0,0 +1,417 @@
+package com.anpl.service;
+
+import com.anpl.dto.UserSearchDocument;
+import com.anpl.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram index over user name, registration number and house number for the partner
+ * search. Trigrams follow pg_trgm's scheme (each word padded with two leading blanks and one trailing)
+ * so results rank like {@code word_similarity()} in the database fallback. Kept in sync on user writes by
+ * {@link UserSearchIndexListener}, plus a periodic reload of rows whose {@code updated_at} moved, which
+ * picks up writes made by other instances or outside JPA. Users deleted elsewhere stay indexed, but
+ * callers read hits back by primary key and drop them. Until the startup load finishes
+ * {@link #isReady()} is false and callers should query the database instead.
+ *
+ * <p>Each document sits in an int slot and every trigram's posting list is a plain {@code int[]} of
+ * slots, so a query counts shared trigrams in a primitive open-addressing table instead of boxing
+ * every candidate.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserSearchIndex {
+
+    public record Hit(long userId, double score) {
+    }
+
+    private record Document(long id, String name, String registrationNumber, String houseNumber, long[] grams) {
+    }
+
+    private static final double MIN_SIMILARITY = 0.6;
+    /** Reloads look back this far past the last one, for rows stamped before but committed after it. */
+    private static final Duration DELTA_OVERLAP = Duration.ofMinutes(2);
+
+    private final UserRepository userRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private Document[] documents = new Document[1024];
+    private int slotCount;
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private final Map<Long, Posting> postings = new HashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private volatile boolean ready;
+    private volatile LocalDateTime loadedThrough;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Moves on every change to the indexed users, so cached search results can tell they are stale.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long started = System.nanoTime();
+        LocalDateTime startedAt = LocalDateTime.now();
+        try (Stream<UserSearchDocument> rows = userRepository.streamSearchDocuments()) {
+            // Writes committed during the load were indexed by the listener and are newer than these rows
+            rows.forEach(row -> index(row.getId(), row.getFullName(), row.getRegistrationNumber(),
+                    row.getHouseNumber(), false));
+        }
+        version.incrementAndGet();
+        loadedThrough = startedAt;
+        ready = true;
+        log.info("User search index loaded: {} users, {} trigrams in {} ms",
+                size(), postings.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${app.user-search.index.delta-reload-ms:60000}",
+            initialDelayString = "${app.user-search.index.delta-reload-ms:60000}")
+    @Transactional(readOnly = true)
+    public void reloadChanged() {
+        LocalDateTime since = loadedThrough;
+        if (!ready || since == null) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        int[] changed = {0};
+        try (Stream<UserSearchDocument> rows =
+                     userRepository.streamSearchDocumentsUpdatedSince(since.minus(DELTA_OVERLAP))) {
+            rows.forEach(row -> {
+                if (index(row.getId(), row.getFullName(), row.getRegistrationNumber(), row.getHouseNumber(), true)) {
+                    changed[0]++;
+                }
+            });
+        }
+        loadedThrough = startedAt;
+        if (changed[0] > 0) {
+            log.debug("User search index picked up {} changed users", changed[0]);
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void upsert(long id, String fullName, String registrationNumber, String houseNumber) {
+        if (!index(id, fullName, registrationNumber, houseNumber, true)) {
+            // Cached results also carry fields the index does not hold, which may be what changed
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns whether the index changed; re-indexing identical text is a no-op so overlapping delta
+     * reloads do not invalidate cached results.
+     */
+    private boolean index(long id, String fullName, String registrationNumber, String houseNumber, boolean replace) {
+        Document document = new Document(id, normalize(fullName), normalize(registrationNumber),
+                normalize(houseNumber), gramsOf(fullName, registrationNumber, houseNumber));
+        lock.writeLock().lock();
+        try {
+            Integer existing = slotsById.get(id);
+            int slot;
+            if (existing != null) {
+                Document previous = documents[existing];
+                if (!replace || sameText(previous, document)) {
+                    return false;
+                }
+                unlink(previous, existing);
+                slot = existing;
+            } else {
+                slot = allocateSlot();
+                slotsById.put(id, slot);
+            }
+            documents[slot] = document;
+            for (long gram : document.grams()) {
+                postings.computeIfAbsent(gram, key -> new Posting()).add(slot);
+            }
+            if (replace) {
+                version.incrementAndGet();
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsById.remove(id);
+            if (slot != null) {
+                unlink(documents[slot], slot);
+                documents[slot] = null;
+                if (freeCount == freeSlots.length) {
+                    freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+                }
+                freeSlots[freeCount++] = slot;
+                version.incrementAndGet();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Best {@code limit} matches for {@code query}, ranked by trigram word similarity with boosts for
+     * exact registration numbers, name prefixes and substrings.
+     */
+    public List<Hit> search(String query, int limit) {
+        String normalized = normalize(query);
+        long[] queryGrams = gramsOf(query, null, null);
+        if (normalized.isEmpty() || queryGrams.length == 0) {
+            return List.of();
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Posting[] lists = new Posting[queryGrams.length];
+            long postingTotal = 0;
+            for (int i = 0; i < queryGrams.length; i++) {
+                lists[i] = postings.get(queryGrams[i]);
+                if (lists[i] != null) {
+                    postingTotal += lists[i].size;
+                }
+            }
+            SlotCounter shared = new SlotCounter((int) Math.min(postingTotal, slotsById.size()));
+            for (Posting list : lists) {
+                if (list != null) {
+                    for (int i = 0; i < list.size; i++) {
+                        shared.increment(list.slots[i]);
+                    }
+                }
+            }
+            for (int i = 0; i < shared.capacity(); i++) {
+                int count = shared.countAt(i);
+                if (count == 0) {
+                    continue;
+                }
+                Document document = documents[shared.slotAt(i)];
+                double score = score(document, normalized, queryGrams.length, count);
+                if (score >= MIN_SIMILARITY) {
+                    hits.add(new Hit(document.id(), score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparingLong(Hit::userId));
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+
+    /**
+     * Scores just {@code userIds} against {@code query}, ranked and thresholded like {@link #search}.
+     * Users that are no longer indexed drop out.
+     */
+    public List<Hit> rescore(String query, Collection<Long> userIds) {
+        String normalized = normalize(query);
+        long[] queryGrams = gramsOf(query, null, null);
+        if (normalized.isEmpty() || queryGrams.length == 0) {
+            return List.of();
+        }
+        long[] sortedGrams = queryGrams.clone();
+        Arrays.sort(sortedGrams);
+
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : userIds) {
+                Integer slot = slotsById.get(id);
+                if (slot == null) {
+                    continue;
+                }
+                Document document = documents[slot];
+                int shared = 0;
+                for (long gram : document.grams()) {
+                    if (Arrays.binarySearch(sortedGrams, gram) >= 0) {
+                        shared++;
+                    }
+                }
+                double score = score(document, normalized, queryGrams.length, shared);
+                if (shared > 0 && score >= MIN_SIMILARITY) {
+                    hits.add(new Hit(document.id(), score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparingLong(Hit::userId));
+        return hits;
+    }
+
+    private static double score(Document document, String query, int queryGramCount, int sharedGrams) {
+        // Share of the query's trigrams found in the user (pg_trgm word_similarity), so a typo costs a
+        // couple of trigrams; the Jaccard term prefers users with less unmatched text.
+        double score = (double) sharedGrams / queryGramCount
+                + 0.1 * sharedGrams / (queryGramCount + document.grams().length - sharedGrams);
+        if (query.equals(document.registrationNumber())) {
+            score += 2.0;
+        } else if (document.name().startsWith(query)) {
+            score += 1.0;
+        } else if (document.name().contains(query) || document.registrationNumber().contains(query)
+                || document.houseNumber().equals(query)) {
+            score += 0.5;
+        }
+        return score;
+    }
+
+    private static boolean sameText(Document a, Document b) {
+        return a.name().equals(b.name()) && a.registrationNumber().equals(b.registrationNumber())
+                && a.houseNumber().equals(b.houseNumber());
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == documents.length) {
+            documents = Arrays.copyOf(documents, slotCount * 2);
+        }
+        return slotCount++;
+    }
+
+    private void unlink(Document document, int slot) {
+        for (long gram : document.grams()) {
+            Posting list = postings.get(gram);
+            if (list != null) {
+                list.remove(slot);
+                if (list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Distinct trigrams of the words in the given fields, each packed into a long (16 bits per char).
+     */
+    static long[] gramsOf(String... fields) {
+        Set<Long> grams = new HashSet<>();
+        for (String field : fields) {
+            if (field == null) {
+                continue;
+            }
+            for (String word : field.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                if (word.isEmpty()) {
+                    continue;
+                }
+                String padded = "  " + word + " ";
+                for (int i = 0; i + 3 <= padded.length(); i++) {
+                    grams.add(((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2));
+                }
+            }
+        }
+        long[] result = new long[grams.size()];
+        int index = 0;
+        for (Long gram : grams) {
+            result[index++] = gram;
+        }
+        return result;
+    }
+
+    /**
+     * Unordered slots of the documents containing one trigram. Removal swaps in the last slot, so
+     * updates cost one scan of the list and lookups none.
+     */
+    private static final class Posting {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Per-query count of shared trigrams by document slot: linear probing over parallel int arrays,
+     * sized up front for the number of candidates so it never resizes.
+     */
+    private static final class SlotCounter {
+        private final int[] keys;
+        private final int[] counts;
+        private final int mask;
+
+        SlotCounter(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+            keys = new int[capacity];
+            counts = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        void increment(int slot) {
+            int h = slot * 0x9E3779B9;
+            int i = (h ^ (h >>> 16)) & mask;
+            // Keys are stored as slot + 1 so 0 marks an empty cell
+            while (keys[i] != 0 && keys[i] != slot + 1) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = slot + 1;
+            counts[i]++;
+        }
+
+        int capacity() {
+            return keys.length;
+        }
+
+        int slotAt(int i) {
+            return keys[i] - 1;
+        }
+
+        int countAt(int i) {
+            return counts[i];
+        }
+    }
+}
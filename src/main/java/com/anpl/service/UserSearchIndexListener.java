@@ -0,0 +1,54 @@
+package com.anpl.service;
+
+import com.anpl.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on {@link User} that mirrors writes into {@link UserSearchIndex} once they commit.
+ * Hibernate obtains it from the Spring context; the index is looked up lazily because entity listeners
+ * are created while the EntityManagerFactory (which the index's repository needs) is still starting.
+ */
+@Component
+public class UserSearchIndexListener {
+
+    private final ObjectProvider<UserSearchIndex> searchIndex;
+
+    public UserSearchIndexListener(ObjectProvider<UserSearchIndex> searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(User user) {
+        long id = user.getId();
+        String fullName = user.getFullName();
+        String registrationNumber = user.getRegistrationNumber();
+        String houseNumber = user.getHouseNumber();
+        afterCommit(() -> searchIndex.getObject().upsert(id, fullName, registrationNumber, houseNumber));
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        long id = user.getId();
+        afterCommit(() -> searchIndex.getObject().remove(id));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package com.anpl.service;
+
+import com.anpl.exception.RateLimitExceededException;
+import com.anpl.util.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user token bucket for the partner search. The defaults allow a burst of fast typing plus a
+ * steady few searches a second, which a debounced client never reaches; scripts walking the
+ * directory get 429s.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserSearchRateLimiter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.user-search.rate-limit.capacity:20}")
+    private int capacity;
+
+    @Value("${app.user-search.rate-limit.refill-per-second:2}")
+    private double refillPerSecond;
+
+    private final Map<Long, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        if (capacity < 1 || !(refillPerSecond > 0)) {
+            throw new IllegalArgumentException(
+                    "app.user-search.rate-limit.capacity must be >= 1 and refill-per-second must be positive");
+        }
+        rejected = Counter.builder("user.search.rate_limited")
+                .description("Partner searches rejected by the per-user rate limit")
+                .register(meterRegistry);
+    }
+
+    public void acquire(Long userId) {
+        TokenBucket bucket = buckets.computeIfAbsent(userId, id -> new TokenBucket(capacity, refillPerSecond));
+        if (!bucket.tryConsume()) {
+            rejected.increment();
+            throw new RateLimitExceededException("Too many searches, please slow down",
+                    bucket.secondsUntilNextToken());
+        }
+    }
+
+    /**
+     * Drops buckets that have been idle long enough to be full again, so the map only holds users
+     * who searched recently.
+     */
+    @Scheduled(fixedDelayString = "${app.user-search.rate-limit.sweep-ms:300000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        long idleNanos = (long) Math.ceil(capacity / refillPerSecond * 1_000_000_000d);
+        buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+    }
+}
@@ -0,0 +1,177 @@
+package com.anpl.service;
+
+import com.anpl.dto.UserResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of partner search results keyed by the normalized query. The picker searches on
+ * every keystroke, so "rag", "ragh", "ragha" arrive in quick succession and neighbours in the same
+ * block type the same names. A result list shorter than the limit is complete, so a longer query that
+ * extends it is answered by re-scoring that list in the index instead of searching again. Entries carry the
+ * {@link UserSearchIndex#version()} they were built at and are ignored once any user changes.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserSearchResultCache {
+
+    private final UserSearchIndex searchIndex;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.user-search.cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${app.user-search.cache.max-size:5000}")
+    private int maxSize;
+
+    private final Map<String, CachedResult> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder prefixHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private Counter hitCounter;
+    private Counter prefixHitCounter;
+    private Counter missCounter;
+
+    @PostConstruct
+    public void init() {
+        hitCounter = Counter.builder("user.search.cache.requests")
+                .tag("result", "hit")
+                .description("Partner searches answered from an exact cached query")
+                .register(meterRegistry);
+        prefixHitCounter = Counter.builder("user.search.cache.requests")
+                .tag("result", "prefix_hit")
+                .description("Partner searches answered by filtering a cached shorter query")
+                .register(meterRegistry);
+        missCounter = Counter.builder("user.search.cache.requests")
+                .tag("result", "miss")
+                .description("Partner searches that had to run")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.search.db_queries_saved", this, cache -> cache.hits.sum() + cache.prefixHits.sum())
+                .description("Database round trips avoided by the partner search cache")
+                .register(meterRegistry);
+        Gauge.builder("user.search.cache.hit_ratio", this, UserSearchResultCache::hitRatio)
+                .description("Share of partner searches served from the cache")
+                .register(meterRegistry);
+        Gauge.builder("user.search.cache.size", entries, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cached results for {@code query}, or the loader's results (which are then cached).
+     * {@code limit} must be the limit the loader applies; it decides whether a list is complete.
+     */
+    public List<UserResponse> getOrLoad(String query, int limit, Supplier<List<UserResponse>> loader) {
+        String key = normalize(query);
+        long now = System.nanoTime();
+        long version = searchIndex.version();
+
+        CachedResult cached = entries.get(key);
+        if (cached != null && cached.isValid(now, version)) {
+            hits.increment();
+            hitCounter.increment();
+            return cached.results();
+        }
+
+        CachedResult refined = refineFromPrefix(key, now, version);
+        if (refined != null) {
+            prefixHits.increment();
+            prefixHitCounter.increment();
+            put(key, refined, now);
+            return refined.results();
+        }
+
+        misses.increment();
+        missCounter.increment();
+        List<UserResponse> loaded = List.copyOf(loader.get());
+        put(key, new CachedResult(loaded, loaded.size() < limit, version, expiry(now)), now);
+        return loaded;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Re-scores the longest complete cached prefix of {@code key} against the full query with
+     * {@link UserSearchIndex#rescore}, so typo matches survive and the order is the one a real search
+     * would give. Trigram matching is not strictly monotonic in the query, so when nothing in the prefix
+     * list still matches (typically a typo the prefix never covered) this gives up and the caller runs
+     * the search.
+     */
+    private CachedResult refineFromPrefix(String key, long now, long version) {
+        if (!searchIndex.isReady()) {
+            return null;
+        }
+        for (int length = key.length() - 1; length >= UserDirectoryService.MIN_QUERY_LENGTH; length--) {
+            CachedResult prefix = entries.get(key.substring(0, length));
+            if (prefix == null || !prefix.complete() || !prefix.isValid(now, version)) {
+                continue;
+            }
+            Map<Long, UserResponse> byId = new HashMap<>();
+            prefix.results().forEach(user -> byId.put(user.getId(), user));
+            List<UserResponse> narrowed = searchIndex.rescore(key, byId.keySet()).stream()
+                    .map(hit -> byId.get(hit.userId()))
+                    .toList();
+            if (narrowed.isEmpty()) {
+                return null;
+            }
+            // No fresher than the list it came from
+            return new CachedResult(narrowed, true, version, prefix.expiresAt());
+        }
+        return null;
+    }
+
+    private void put(String key, CachedResult result, long now) {
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        entries.put(key, result);
+    }
+
+    private void evict(long now) {
+        long version = searchIndex.version();
+        entries.entrySet().removeIf(entry -> !entry.getValue().isValid(now, version));
+        // Still full of live entries: drop an arbitrary slice rather than growing without bound
+        int excess = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        var iterator = entries.keySet().iterator();
+        while (excess-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private long expiry(long now) {
+        return now + ttlSeconds * 1_000_000_000L;
+    }
+
+    private double hitRatio() {
+        long served = hits.sum() + prefixHits.sum();
+        long total = served + misses.sum();
+        return total == 0 ? 0 : (double) served / total;
+    }
+
+    static String normalize(String query) {
+        return query.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private record CachedResult(List<UserResponse> results, boolean complete, long indexVersion, long expiresAt) {
+
+        boolean isValid(long now, long version) {
+            return indexVersion == version && expiresAt - now > 0;
+        }
+    }
+}
@@ -1,15 +1,18 @@
 package com.anpl.service;
 
+import com.anpl.dto.AuthTokensResponse;
 import com.anpl.dto.ChangePasswordRequest;
 import com.anpl.dto.LoginRequest;
 import com.anpl.dto.RegistrationRequest;
 import com.anpl.dto.UserResponse;
 import com.anpl.exception.DuplicateResourceException;
 import com.anpl.exception.InvalidCredentialsException;
+import com.anpl.exception.ResourceNotFoundException;
 import com.anpl.model.User;
 import com.anpl.model.UserRole;
 import com.anpl.repository.UserRepository;
-import com.anpl.security.JwtTokenProvider;
+import com.anpl.security.PrincipalCache;
+import com.anpl.util.RegistrationNumberGenerator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -25,9 +28,11 @@ import java.util.UUID;
 public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final JwtTokenProvider jwtTokenProvider;
+    private final AuthTokenService authTokenService;
     private final EmailService emailService;
-    private final FileUploadService fileUploadService;
+    private final SignupUploadService signupUploadService;
+    private final PrincipalCache principalCache;
+    private final RegistrationNumberGenerator registrationNumberGenerator;
 
     @Transactional
     public UserResponse registerUser(RegistrationRequest request) {
@@ -47,14 +52,15 @@ public class UserService {
         // Create new user
         User user = new User();
         try {
-            String aadhaarFrontPath = fileUploadService.uploadBase64Image(
+            // Normally tokens from /api/auth/uploads; inline data URLs are still accepted and streamed to disk
+            String aadhaarFrontPath = signupUploadService.resolve(
                     request.getAadhaarFrontPhotoData(),
                     "registration-aadhaar-front");
-            String aadhaarBackPath = fileUploadService.uploadBase64Image(
+            String aadhaarBackPath = signupUploadService.resolve(
                     request.getAadhaarBackPhotoData(),
                     "registration-aadhaar-back");
             String profilePhotoPath = StringUtils.hasText(request.getProfilePhotoData())
-                    ? fileUploadService.uploadBase64Image(request.getProfilePhotoData(), "registration-profile-photo")
+                    ? signupUploadService.resolve(request.getProfilePhotoData(), "registration-profile-photo")
                     : null;
 
             user.setFullName(request.getFullName());
@@ -73,15 +79,13 @@ public class UserService {
             user.setHouseNumber(request.getHouseNumber());
             user.setPassword(passwordEncoder.encode(request.getPassword()));
             user.setRole(UserRole.USER);
-            user.setRegistrationNumber(generateRegistrationNumber());
+            user.setRegistrationNumber(registrationNumberGenerator.generate());
             user.setCreatedAt(LocalDateTime.now());
 
             User savedUser = userRepository.save(user);
             emailService.sendWelcomeEmail(savedUser);
 
-            String token = jwtTokenProvider.generateToken(savedUser.getEmail());
-
-            return buildUserResponse(savedUser, token);
+            return buildUserResponse(savedUser, authTokenService.issue(savedUser));
         } catch (IOException ex) {
             throw new IllegalStateException("Failed to store identity documents", ex);
         }
@@ -94,9 +98,9 @@ public class UserService {
         if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
             throw new InvalidCredentialsException("Invalid credentials");
         }
+        rehashIfOutdated(user, request.getPassword());
 
-        String token = jwtTokenProvider.generateToken(user.getEmail());
-        return buildUserResponse(user, token);
+        return buildUserResponse(user, authTokenService.issue(user));
     }
 
     @Transactional
@@ -108,6 +112,7 @@ public class UserService {
         user.setResetToken(resetToken);
         user.setResetTokenExpiry(LocalDateTime.now().plusHours(24));
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
         String normalizedBase = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
         String resetUrl = normalizedBase + "/reset-password?token=" + resetToken;
         emailService.sendPasswordResetEmail(user, resetUrl);
@@ -126,26 +131,44 @@ public class UserService {
         user.setResetToken(null);
         user.setResetTokenExpiry(null);
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
+        authTokenService.revokeAllRefreshTokens(user.getId());
     }
 
     @Transactional
-    public void changePassword(User user, ChangePasswordRequest request) {
+    public void changePassword(Long userId, ChangePasswordRequest request) {
+        // The principal's user is a cached snapshot; check and write against the current row
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
             throw new InvalidCredentialsException("Current password is incorrect");
         }
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
+        authTokenService.revokeAllRefreshTokens(user.getId());
     }
 
-    private String generateResetToken() {
-        return UUID.randomUUID().toString();
+    /**
+     * Brings a hash made with an older cost or scheme up to the current settings while the plain
+     * password is at hand.
+     */
+    private void rehashIfOutdated(User user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        String upgraded = passwordEncoder.encode(rawPassword);
+        if (userRepository.replacePasswordHash(user.getId(), user.getPassword(), upgraded) == 1) {
+            user.setPassword(upgraded);
+            principalCache.invalidate(user.getEmail());
+        }
     }
 
-    private String generateRegistrationNumber() {
-        return "ANPL" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    private String generateResetToken() {
+        return UUID.randomUUID().toString();
     }
 
-    private UserResponse buildUserResponse(User user, String token) {
+    private UserResponse buildUserResponse(User user, AuthTokensResponse tokens) {
         return UserResponse.builder()
                 .id(user.getId())
                 .fullName(user.getFullName())
@@ -160,7 +183,9 @@ public class UserService {
                 .gender(user.getGender() != null ? user.getGender().name() : null)
                 .playerPhoto(user.getPlayerPhoto())
                 .hasAadhaarDocuments(user.getAadhaarFrontPhoto() != null && user.getAadhaarBackPhoto() != null)
-                .token(token)
+                .token(tokens.getToken())
+                .refreshToken(tokens.getRefreshToken())
+                .expiresIn(tokens.getExpiresIn())
                 .role(user.getRole().toString())
                 .build();
     }
@@ -1,13 +1,39 @@
 package com.anpl.util;
 
-import org.springframework.stereotype.Component;
-import java.util.UUID;
-
-@Component
-public class RegistrationNumberGenerator {
-    
-    public String generate() {
-        // Format: ANPL + Random 8 characters
-        return "ANPL" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+/**
+ * Mints user registration numbers, event registration numbers and badminton entry codes.
+ * Implementations must guarantee uniqueness without consulting the database.
+ */
+public interface RegistrationNumberGenerator {
+
+    String USER_PREFIX = "ANPL";
+    String CRICKET_PREFIX = "CRK";
+    String BADMINTON_PREFIX = "B";
+    String DEFAULT_EVENT_PREFIX = "REG";
+
+    String generate(String prefix);
+
+    /**
+     * User registration number.
+     */
+    default String generate() {
+        return generate(USER_PREFIX);
+    }
+
+    /**
+     * Registration number for an event of the given type (e.g. {@code CRICKET}, {@code BADMINTON}).
+     */
+    default String generateForEventType(String eventType) {
+        return generate(prefixForEventType(eventType));
+    }
+
+    static String prefixForEventType(String eventType) {
+        if ("CRICKET".equalsIgnoreCase(eventType)) {
+            return CRICKET_PREFIX;
+        }
+        if ("BADMINTON".equalsIgnoreCase(eventType)) {
+            return BADMINTON_PREFIX;
+        }
+        return DEFAULT_EVENT_PREFIX;
     }
-} 
\ No newline at end of file
+}
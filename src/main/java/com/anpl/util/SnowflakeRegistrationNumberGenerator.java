@@ -0,0 +1,202 @@
+package com.anpl.util;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style generator: 41 bits of milliseconds since 2024-01-01, 10 bits of node id and a
+ * 12-bit per-millisecond sequence, rendered as 13 Crockford base32 characters after the prefix.
+ * <p>
+ * Time and sequence share one {@link AtomicLong} advanced by CAS, so the generator never blocks.
+ * When a millisecond's 4096 sequence values run out, or the wall clock moves backwards, the logical
+ * clock simply runs ahead of it; values are therefore strictly increasing per node and codes sort
+ * in issue order.
+ * <p>
+ * Uniqueness across instances rests on the node id. Either every instance is configured with a distinct
+ * {@code app.registration-number.node-id}, or (the default, {@code -1}) each one leases a free id from
+ * {@code registration_number_nodes} at startup and keeps renewing it. An instance that could not renew
+ * for half the lease stops and renews (or leases a new id) before issuing anything else, so an id whose
+ * lease lapsed is never used by two instances at once.
+ */
+@Slf4j
+@Component
+public class SnowflakeRegistrationNumberGenerator implements RegistrationNumberGenerator {
+
+    private static final long EPOCH_MILLIS = 1704067200000L; // 2024-01-01T00:00:00Z
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13;
+    private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    /**
+     * Takes the lowest node id whose lease is free or lapsed. Two instances racing for the same id
+     * conflict on the primary key and the loser gets no row back, then tries again.
+     */
+    private static final String CLAIM_NODE = """
+            INSERT INTO registration_number_nodes AS r (node_id, holder, leased_until)
+            SELECT n, :holder, now() + make_interval(secs => :lease)
+            FROM generate_series(0, :maxNodeId) AS n
+            WHERE NOT EXISTS (SELECT 1 FROM registration_number_nodes l
+                              WHERE l.node_id = n AND l.leased_until > now())
+            ORDER BY n
+            LIMIT 1
+            ON CONFLICT (node_id) DO UPDATE
+            SET holder = EXCLUDED.holder, leased_until = EXCLUDED.leased_until
+            WHERE r.leased_until <= now()
+            RETURNING node_id
+            """;
+    private static final String RENEW_NODE = "UPDATE registration_number_nodes "
+            + "SET leased_until = now() + make_interval(secs => :lease) WHERE node_id = :nodeId AND holder = :holder";
+    private static final int CLAIM_ATTEMPTS = 5;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final long leaseSeconds;
+    private final String holder;
+    private volatile long nodeId;
+    /** System.nanoTime() after which the lease must be renewed before issuing; unused for a fixed node id. */
+    private volatile long renewBy;
+    /** (milliseconds since epoch << SEQUENCE_BITS) | sequence of the last issued value. */
+    private final AtomicLong lastTick = new AtomicLong();
+
+    @Autowired
+    public SnowflakeRegistrationNumberGenerator(
+            @Value("${app.registration-number.node-id:-1}") long configuredNodeId,
+            @Value("${app.registration-number.lease-seconds:600}") long leaseSeconds,
+            NamedParameterJdbcTemplate jdbcTemplate) {
+        if (configuredNodeId < -1 || configuredNodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("app.registration-number.node-id must be -1 (lease one) or between 0 and "
+                    + MAX_NODE_ID + ", got " + configuredNodeId);
+        }
+        this.leaseSeconds = leaseSeconds;
+        this.holder = holderName();
+        if (configuredNodeId >= 0) {
+            this.jdbcTemplate = null;
+            this.nodeId = configuredNodeId;
+            log.info("Registration number generator using configured node id {}", nodeId);
+        } else {
+            this.jdbcTemplate = jdbcTemplate;
+            renewLease();
+        }
+    }
+
+    /**
+     * Fixed node id, no lease.
+     */
+    SnowflakeRegistrationNumberGenerator(long nodeId) {
+        this(nodeId, 0, null);
+    }
+
+    @Override
+    public String generate(String prefix) {
+        long node = currentNodeId();
+        long tick = nextTick();
+        long id = ((tick >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+                | (node << SEQUENCE_BITS)
+                | (tick & SEQUENCE_MASK);
+
+        int prefixLength = prefix.length();
+        char[] chars = new char[prefixLength + ENCODED_LENGTH];
+        prefix.getChars(0, prefixLength, chars, 0);
+        for (int i = chars.length - 1; i >= prefixLength; i--) {
+            chars[i] = CROCKFORD[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    private long nextTick() {
+        long floor = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        while (true) {
+            long last = lastTick.get();
+            long next = Math.max(last + 1, floor);
+            if (lastTick.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.registration-number.lease-renew-ms:60000}")
+    public void renewLeaseOnSchedule() {
+        if (jdbcTemplate != null) {
+            renewLease();
+        }
+    }
+
+    @PreDestroy
+    public void releaseLease() {
+        if (jdbcTemplate != null) {
+            jdbcTemplate.update("DELETE FROM registration_number_nodes WHERE node_id = :nodeId AND holder = :holder",
+                    leaseParams());
+        }
+    }
+
+    private long currentNodeId() {
+        if (jdbcTemplate != null && System.nanoTime() - renewBy > 0) {
+            renewLease();
+        }
+        return nodeId;
+    }
+
+    /**
+     * Extends the held lease, or leases a new id if it was lost. The local deadline is half the lease,
+     * measured from before the statement ran, so it expires well before the database's.
+     */
+    private synchronized void renewLease() {
+        long started = System.nanoTime();
+        boolean renewed = renewBy != 0 && jdbcTemplate.update(RENEW_NODE, leaseParams()) == 1;
+        if (!renewed) {
+            long previous = nodeId;
+            nodeId = claimNodeId();
+            if (renewBy != 0) {
+                log.warn("Registration number node id {} lease was lost; now using node id {}", previous, nodeId);
+            } else {
+                log.info("Registration number generator leased node id {} as {}", nodeId, holder);
+            }
+        }
+        renewBy = started + leaseSeconds * 500_000_000L;
+    }
+
+    private long claimNodeId() {
+        MapSqlParameterSource params = leaseParams().addValue("maxNodeId", MAX_NODE_ID);
+        for (int attempt = 0; attempt < CLAIM_ATTEMPTS; attempt++) {
+            List<Long> claimed = jdbcTemplate.queryForList(CLAIM_NODE, params, Long.class);
+            if (!claimed.isEmpty()) {
+                return claimed.get(0);
+            }
+        }
+        throw new IllegalStateException("Could not lease a registration number node id; all "
+                + (MAX_NODE_ID + 1) + " may be taken");
+    }
+
+    private MapSqlParameterSource leaseParams() {
+        return new MapSqlParameterSource()
+                .addValue("holder", holder)
+                .addValue("nodeId", nodeId)
+                .addValue("lease", (double) leaseSeconds);
+    }
+
+    private static String holderName() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            host = "localhost";
+        }
+        return host + "/" + ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+    }
+}
@@ -0,0 +1,78 @@
+package com.anpl.util;
+
+/**
+ * Classic token bucket: holds up to {@code capacity} tokens and refills continuously at
+ * {@code refillPerSecond}. Thread-safe; intended to be kept per caller in a map. A bucket that never
+ * refills would never become droppable, so a zero or negative rate is rejected.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private double tokens;
+    private long refilledAt;
+    private volatile long lastUsedAt;
+
+    public TokenBucket(int capacity, double refillPerSecond) {
+        if (capacity < 1 || !(refillPerSecond > 0)) {
+            throw new IllegalArgumentException("Token bucket needs capacity >= 1 and a positive refill rate, got "
+                    + capacity + " and " + refillPerSecond);
+        }
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.refilledAt = System.nanoTime();
+        this.lastUsedAt = refilledAt;
+    }
+
+    /**
+     * Takes one token if available.
+     */
+    public synchronized boolean tryConsume() {
+        long now = System.nanoTime();
+        refill(now);
+        lastUsedAt = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Seconds until the next token is available (at least 1), for a {@code Retry-After} header.
+     */
+    public synchronized long secondsUntilNextToken() {
+        refill(System.nanoTime());
+        double missing = 1 - tokens;
+        if (missing <= 0) {
+            return 1;
+        }
+        return Math.max(1, (long) Math.ceil(missing / refillPerNano / 1_000_000_000d));
+    }
+
+    /**
+     * True once the bucket has been unused long enough to have refilled completely, i.e. dropping it
+     * and starting a fresh one later is indistinguishable to the caller.
+     */
+    public boolean isIdle(long now, long idleNanos) {
+        return now - lastUsedAt >= idleNanos;
+    }
+
+    /**
+     * True once the bucket would have refilled to capacity by {@code now}, i.e. dropping it and starting
+     * a fresh one later is indistinguishable to the caller, whatever its rate.
+     */
+    public synchronized boolean isFull(long now) {
+        long elapsed = Math.max(0, now - refilledAt);
+        return tokens + elapsed * refillPerNano >= capacity;
+    }
+
+    private void refill(long now) {
+        long elapsed = now - refilledAt;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+            refilledAt = now;
+        }
+    }
+}
@@ -21,14 +21,59 @@ api.interceptors.request.use(
     }
 );
 
+const clearAuth = () => {
+    localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
+    delete api.defaults.headers.common['Authorization'];
+};
+
+const storeTokens = ({ token, refreshToken }) => {
+    localStorage.setItem('token', token);
+    if (refreshToken) {
+        localStorage.setItem('refreshToken', refreshToken);
+    }
+    api.defaults.headers.common['Authorization'] = `Bearer ${token}`;
+};
+
+// One refresh at a time: concurrent 401s wait for the same rotation instead of racing it
+let refreshInFlight = null;
+const refreshAccessToken = () => {
+    if (!refreshInFlight) {
+        const refreshToken = localStorage.getItem('refreshToken');
+        refreshInFlight = (refreshToken
+            ? axios.post('/api/auth/refresh', { refreshToken })
+            : Promise.reject(new Error('No refresh token')))
+            .then((response) => {
+                storeTokens(response.data.data);
+                return response.data.data.token;
+            })
+            .finally(() => {
+                refreshInFlight = null;
+            });
+    }
+    return refreshInFlight;
+};
+
 // Add response interceptor to handle auth errors
 api.interceptors.response.use(
     (response) => response,
     async (error) => {
+        const original = error.config;
         if (error.response?.status === 401) {
+            const isAuthCall = original?.url?.startsWith('/auth/login') || original?.url?.startsWith('/auth/refresh');
+            if (original && !original._retried && !isAuthCall) {
+                original._retried = true;
+                try {
+                    const token = await refreshAccessToken();
+                    original.headers.Authorization = `Bearer ${token}`;
+                    return api(original);
+                } catch (refreshError) {
+                    // fall through to sign-out
+                }
+            }
+
             // Clear auth data
-            localStorage.removeItem('token');
-            delete api.defaults.headers.common['Authorization'];
+            clearAuth();
             
             // Only redirect if not already on login page
             if (!window.location.pathname.includes('/login')) {
@@ -43,6 +88,9 @@ const authApi = {
     login: (credentials) => api.post('/auth/login', credentials),
     register: (userData) => api.post('/auth/register', userData),
     me: () => api.get('/auth/me'),
+    logout: (refreshToken, token) =>
+        api.post('/auth/logout', refreshToken ? { refreshToken } : null,
+            token ? { headers: { Authorization: `Bearer ${token}` } } : undefined),
     changePassword: (payload) => api.post('/auth/change-password', payload)
 };
 
@@ -74,6 +122,8 @@ const adminApi = {
 
 const badmintonApi = {
     getCategories: () => api.get('/badminton-registrations/categories'),
+    getCategoryEligibility: (partnerId) =>
+        api.get('/badminton-registrations/categories/eligibility', { params: partnerId ? { partnerId } : {} }),
     submitBundle: (payload) => api.post('/badminton-registrations/complete', payload),
     createOrder: (bundleId) => api.post('/badminton-registrations/order', { bundleId }),
     verifyPayment: (payload) => api.post('/badminton-registrations/verify', payload),
@@ -88,5 +138,5 @@ const userApi = {
     search: (query) => api.get(`/users/search${buildQueryString({ query })}`)
 };
 
-export { authApi, registrationApi, adminApi, badmintonApi, userApi };
+export { authApi, registrationApi, adminApi, badmintonApi, userApi, storeTokens, clearAuth };
 export default api; 
\ No newline at end of file
@@ -1,6 +1,7 @@
 import React, { useEffect, useMemo, useState } from 'react';
 import {
   Alert,
+  Avatar,
   Box,
   Button,
   Chip,
@@ -11,12 +12,11 @@ import {
   DialogContent,
   DialogTitle,
   Divider,
-  FormControlLabel,
   Grid,
   IconButton,
+  MenuItem,
   Paper,
   Stack,
-  Switch,
   Tab,
   Tabs,
   Table,
@@ -24,6 +24,7 @@ import {
   TableCell,
   TableHead,
   TableRow,
+  TextField,
   Tooltip,
   Typography
 } from '@mui/material';
@@ -42,9 +43,16 @@ const statusColors = {
   APPROVED: 'success',
   REJECTED: 'error',
   FAILED: 'error',
-  CANCELLED: 'default'
+  CANCELLED: 'default',
+  PAID_OVER_CAPACITY: 'warning'
 };
 
+const statusViews = [
+  { value: 'APPROVED', label: 'Approved' },
+  { value: 'PAID_OVER_CAPACITY', label: 'Paid, event full' },
+  { value: 'REJECTED', label: 'Rejected' }
+];
+
 const getFileUrl = (path = '') => {
   if (!path) return '';
   if (path.startsWith('http://') || path.startsWith('https://') || path.startsWith('/')) {
@@ -55,6 +63,13 @@ const getFileUrl = (path = '') => {
 
 const isImage = (path = '') => /\.(png|jpe?g|gif|webp)$/i.test(path);
 
+// 512px server-side variant for the viewer; the original stays one click away
+const getPreviewUrl = (path = '') => {
+  const url = getFileUrl(path);
+  if (!url.startsWith('/uploads/') || !/\.(png|jpe?g|gif)$/i.test(url)) return url;
+  return url.replace(/^\/uploads\//, '/thumbnails/512/');
+};
+
 const formatDateTime = (value) => {
   if (!value) return '—';
   return new Date(value).toLocaleString('en-IN', {
@@ -68,29 +83,37 @@ const formatDateTime = (value) => {
 
 function AdminRegistrations() {
   const [registrations, setRegistrations] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState('');
   const [detailDialog, setDetailDialog] = useState({ open: false, data: null, loading: false });
-  const [docDialog, setDocDialog] = useState({ open: false, label: '', url: '' });
+  const [docDialog, setDocDialog] = useState({ open: false, label: '', url: '', previewUrl: '' });
   const [actionLoading, setActionLoading] = useState(null);
   const [eventFilter, setEventFilter] = useState('ALL');
-  const [showRejectedOnly, setShowRejectedOnly] = useState(false);
+  const [statusView, setStatusView] = useState('APPROVED');
 
   useEffect(() => {
     fetchRegistrations();
-  }, [eventFilter, showRejectedOnly]);
+  }, [eventFilter, statusView]);
+
+  const buildFilterParams = () => {
+    const params = { includeFailed: false };
+    params.status = statusView;
+    if (eventFilter !== 'ALL') {
+      params.eventType = eventFilter;
+    }
+    return params;
+  };
 
   const fetchRegistrations = async () => {
     try {
       setLoading(true);
       setError('');
-      const params = { includeFailed: false };
-      params.status = showRejectedOnly ? 'REJECTED' : 'APPROVED';
-      if (eventFilter !== 'ALL') {
-        params.eventType = eventFilter;
-      }
-      const response = await adminApi.getRegistrations(params);
-      setRegistrations(response.data.data || []);
+      const response = await adminApi.getRegistrations(buildFilterParams());
+      const page = response.data.data;
+      setRegistrations(page?.items || []);
+      setNextCursor(page?.hasMore ? page.nextCursor : null);
     } catch (err) {
       setError(err.response?.data?.message || 'Failed to load registrations');
     } finally {
@@ -98,16 +121,32 @@ function AdminRegistrations() {
     }
   };
 
+  const loadMoreRegistrations = async () => {
+    if (!nextCursor) return;
+    try {
+      setLoadingMore(true);
+      const response = await adminApi.getRegistrations({ ...buildFilterParams(), cursor: nextCursor });
+      const page = response.data.data;
+      setRegistrations((prev) => [...prev, ...(page?.items || [])]);
+      setNextCursor(page?.hasMore ? page.nextCursor : null);
+    } catch (err) {
+      setError(err.response?.data?.message || 'Failed to load registrations');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleViewDocs = (label, path) => {
     if (!path) return;
     setDocDialog({
       open: true,
       label,
-      url: getFileUrl(path)
+      url: getFileUrl(path),
+      previewUrl: getPreviewUrl(path)
     });
   };
 
-  const closeDocDialog = () => setDocDialog({ open: false, label: '', url: '' });
+  const closeDocDialog = () => setDocDialog({ open: false, label: '', url: '', previewUrl: '' });
 
   const openDetailDialog = async (registrationId) => {
     try {
@@ -182,16 +221,20 @@ function AdminRegistrations() {
           <Tab label="Cricket" value="CRICKET" />
           <Tab label="Badminton" value="BADMINTON" />
         </Tabs>
-        <FormControlLabel
-          control={
-            <Switch
-              checked={showRejectedOnly}
-              onChange={(e) => setShowRejectedOnly(e.target.checked)}
-              color="error"
-            />
-          }
-          label="Show only rejected registrations"
-        />
+        <TextField
+          select
+          size="small"
+          label="Status"
+          value={statusView}
+          onChange={(e) => setStatusView(e.target.value)}
+          sx={{ width: 220 }}
+        >
+          {statusViews.map((view) => (
+            <MenuItem key={view.value} value={view.value}>
+              {view.label}
+            </MenuItem>
+          ))}
+        </TextField>
       </Stack>
 
       {error && (
@@ -221,10 +264,19 @@ function AdminRegistrations() {
               {registrations.map((reg) => (
                 <TableRow key={reg.registrationId} hover>
                   <TableCell>
-                    <Typography variant="subtitle2">{reg.fullName || '—'}</Typography>
-                    <Typography variant="body2" color="text.secondary">
-                      {reg.phoneNumber || 'N/A'}
-                    </Typography>
+                    <Stack direction="row" spacing={1.5} alignItems="center">
+                      <Avatar
+                        src={reg.playerPhotoThumbnailUrl || undefined}
+                        alt={reg.fullName || ''}
+                        imgProps={{ loading: 'lazy' }}
+                      />
+                      <Box>
+                        <Typography variant="subtitle2">{reg.fullName || '—'}</Typography>
+                        <Typography variant="body2" color="text.secondary">
+                          {reg.phoneNumber || 'N/A'}
+                        </Typography>
+                      </Box>
+                    </Stack>
                   </TableCell>
                   <TableCell>
                     <Typography variant="subtitle2">{reg.eventName}</Typography>
@@ -320,6 +372,13 @@ function AdminRegistrations() {
             </TableBody>
           </Table>
         )}
+        {!loading && nextCursor && (
+          <Box display="flex" justifyContent="center" p={2}>
+            <Button variant="outlined" onClick={loadMoreRegistrations} disabled={loadingMore}>
+              {loadingMore ? <CircularProgress size={20} /> : 'Load more'}
+            </Button>
+          </Box>
+        )}
       </Paper>
 
       <Dialog open={docDialog.open} onClose={closeDocDialog} maxWidth="sm" fullWidth>
@@ -327,12 +386,14 @@ function AdminRegistrations() {
         <DialogContent dividers>
           {docDialog.url ? (
             isImage(docDialog.url) ? (
-              <Box
-                component="img"
-                src={docDialog.url}
-                alt={docDialog.label}
-                sx={{ width: '100%', borderRadius: 2 }}
-              />
+              <Box component="a" href={docDialog.url} target="_blank" rel="noopener noreferrer">
+                <Box
+                  component="img"
+                  src={docDialog.previewUrl || docDialog.url}
+                  alt={docDialog.label}
+                  sx={{ width: '100%', borderRadius: 2 }}
+                />
+              </Box>
             ) : (
               <Button
                 variant="contained"
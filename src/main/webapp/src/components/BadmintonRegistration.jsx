@@ -1,4 +1,4 @@
-import React, { useEffect, useMemo, useState } from 'react';
+import React, { useEffect, useMemo, useRef, useState } from 'react';
 import {
   Container,
   Box,
@@ -44,6 +44,8 @@ import { cricketTournamentRules } from '../constants/registrationRules';
 
 const steps = ['Player Photo', 'Select Categories', 'Review & Pay'];
 const MAX_FILE_SIZE_MB = 5;
+const PARTNER_SEARCH_MIN_LENGTH = 3;
+const PARTNER_SEARCH_DEBOUNCE_MS = 300;
 
 const getFileUrl = (path = '') => {
   if (!path) return '';
@@ -214,6 +216,8 @@ const BadmintonRegistration = () => {
     selfRelation: ''
   });
   const [searchLoading, setSearchLoading] = useState(false);
+  const searchTimerRef = useRef(null);
+  const searchRequestRef = useRef(0);
   const [photoPrefilled, setPhotoPrefilled] = useState(false);
   const [pendingBundleId, setPendingBundleId] = useState(null);
   const [hasPendingBundle, setHasPendingBundle] = useState(false);
@@ -292,6 +296,8 @@ const BadmintonRegistration = () => {
     setPhotoPrefilled(true);
   }, [user, photoPrefilled]);
 
+  useEffect(() => () => clearTimeout(searchTimerRef.current), []);
+
   const handleFileChange = async (e) => {
     const file = e.target.files[0];
     if (!file) return;
@@ -342,6 +348,9 @@ const BadmintonRegistration = () => {
   };
 
   const closeCategoryDialog = () => {
+    clearTimeout(searchTimerRef.current);
+    searchRequestRef.current += 1;
+    setSearchLoading(false);
     setDialogState((prev) => ({
       ...prev,
       open: false,
@@ -353,22 +362,33 @@ const BadmintonRegistration = () => {
     }));
   };
 
-  const handlePartnerSearch = async (value) => {
-    setDialogState((prev) => ({ ...prev, partnerQuery: value }));
-    if (!value || value.trim().length < 2) {
-      setDialogState((prev) => ({ ...prev, searchResults: [] }));
-      setSearchLoading(false);
-      return;
-    }
+  const runPartnerSearch = async (query, requestId) => {
     try {
-      setSearchLoading(true);
-      const response = await userApi.search(value.trim());
-      setDialogState((prev) => ({ ...prev, searchResults: response.data.data || [] }));
+      const response = await userApi.search(query);
+      if (requestId === searchRequestRef.current) {
+        setDialogState((prev) => ({ ...prev, searchResults: response.data.data || [] }));
+      }
     } catch (err) {
       console.error('Search failed', err);
     } finally {
+      if (requestId === searchRequestRef.current) {
+        setSearchLoading(false);
+      }
+    }
+  };
+
+  // Wait for a pause in typing, and ignore responses that arrive after a newer search started
+  const handlePartnerSearch = (value) => {
+    setDialogState((prev) => ({ ...prev, partnerQuery: value }));
+    clearTimeout(searchTimerRef.current);
+    const requestId = ++searchRequestRef.current;
+    if (!value || value.trim().length < PARTNER_SEARCH_MIN_LENGTH) {
+      setDialogState((prev) => ({ ...prev, searchResults: [] }));
       setSearchLoading(false);
+      return;
     }
+    setSearchLoading(true);
+    searchTimerRef.current = setTimeout(() => runPartnerSearch(value.trim(), requestId), PARTNER_SEARCH_DEBOUNCE_MS);
   };
 
   const addEntry = (entry) => {
@@ -66,7 +66,7 @@ const EventCard = ({ event, registrationStatus, onRegister, onCheckPayment }) =>
         </Typography>
         
         <Typography variant="body2" color="text.secondary" paragraph>
-          {event.description}
+          {event.summary ?? event.description}
         </Typography>
         
         <Box sx={{ mt: 2 }}>
@@ -1,6 +1,7 @@
 import React, { useState } from 'react';
 import { useNavigate, Link as RouterLink } from 'react-router-dom';
 import { useAuth } from '../contexts/AuthContext';
+import api from '../api/axios';
 import {
   Container,
   Box,
@@ -79,13 +80,21 @@ function Register() {
     setErrors((prev) => ({ ...prev, dateOfBirth: undefined }));
   };
 
-  const readFileAsDataUrl = (file) =>
-    new Promise((resolve, reject) => {
-      const reader = new FileReader();
-      reader.onload = () => resolve(reader.result);
-      reader.onerror = reject;
-      reader.readAsDataURL(file);
+  const uploadKinds = {
+    aadhaarFront: 'aadhaar-front',
+    aadhaarBack: 'aadhaar-back',
+    profilePhoto: 'profile-photo'
+  };
+
+  // Images are uploaded as binary up front; the form only carries the returned single-use tokens
+  const uploadImage = async (type, file) => {
+    const uploadData = new FormData();
+    uploadData.append('file', file);
+    const response = await api.post(`/auth/uploads/${uploadKinds[type]}`, uploadData, {
+      headers: { 'Content-Type': 'multipart/form-data' }
     });
+    return response.data.data.uploadToken;
+  };
 
   const handleMediaSelect = async (type, file) => {
     if (!file) return;
@@ -99,19 +108,27 @@ function Register() {
     }
     try {
       setErrors((prev) => ({ ...prev, [type]: undefined }));
-      const dataUrl = await readFileAsDataUrl(file);
-      setMediaState((prev) => ({
-        ...prev,
-        [type]: { preview: dataUrl }
-      }));
+      const filePath = await uploadImage(type, file);
+      setMediaState((prev) => {
+        if (prev[type].preview) {
+          URL.revokeObjectURL(prev[type].preview);
+        }
+        return {
+          ...prev,
+          [type]: { preview: URL.createObjectURL(file) }
+        };
+      });
       setFormData((prev) => ({
         ...prev,
-        aadhaarFrontPhotoData: type === 'aadhaarFront' ? dataUrl : prev.aadhaarFrontPhotoData,
-        aadhaarBackPhotoData: type === 'aadhaarBack' ? dataUrl : prev.aadhaarBackPhotoData,
-        profilePhotoData: type === 'profilePhoto' ? dataUrl : prev.profilePhotoData
+        aadhaarFrontPhotoData: type === 'aadhaarFront' ? filePath : prev.aadhaarFrontPhotoData,
+        aadhaarBackPhotoData: type === 'aadhaarBack' ? filePath : prev.aadhaarBackPhotoData,
+        profilePhotoData: type === 'profilePhoto' ? filePath : prev.profilePhotoData
       }));
     } catch (err) {
-      setErrors((prev) => ({ ...prev, [type]: 'Failed to read image' }));
+      setErrors((prev) => ({
+        ...prev,
+        [type]: err.response?.data?.message || 'Failed to upload image'
+      }));
     }
   };
 
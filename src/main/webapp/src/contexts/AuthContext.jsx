@@ -1,6 +1,6 @@
 import React, { createContext, useContext, useState, useEffect } from 'react';
 import api from '../api/axios';
-import { authApi } from '../api/axios';
+import { authApi, storeTokens, clearAuth } from '../api/axios';
 
 const AuthContext = createContext(null);
 
@@ -30,8 +30,7 @@ export const AuthProvider = ({ children }) => {
       }
     } catch (error) {
       console.error('Auth check failed:', error);
-      localStorage.removeItem('token');
-      delete api.defaults.headers.common['Authorization'];
+      clearAuth();
       setUser(null);
     } finally {
       setLoading(false);
@@ -43,10 +42,9 @@ export const AuthProvider = ({ children }) => {
       const response = await api.post('/auth/login', credentials);
       const { data } = response.data;
       
-      localStorage.setItem('token', data.token);
-      api.defaults.headers.common['Authorization'] = `Bearer ${data.token}`;
+      storeTokens(data);
       
-      const { token, ...userData } = data;
+      const { token, refreshToken, expiresIn, ...userData } = data;
       setUser(userData);
       
       return data;
@@ -62,8 +60,9 @@ export const AuthProvider = ({ children }) => {
   };
 
   const logout = () => {
-    localStorage.removeItem('token');
-    delete api.defaults.headers.common['Authorization'];
+    // Revoke the session server-side without holding up the UI
+    authApi.logout(localStorage.getItem('refreshToken'), localStorage.getItem('token')).catch(() => {});
+    clearAuth();
     setUser(null);
   };
 
@@ -0,0 +1,144 @@
+package com.anpl.controller;
+
+import com.anpl.service.ImageVariantStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Range and If-Range handling of {@link UploadController}: single ranges (open-ended, suffix, clamped),
+ * the 416 cases, headers that must be ignored in favour of the full body, and If-Range by ETag and by date.
+ */
+class UploadControllerRangeTest {
+
+    private static final String CONTENT = "0123456789";
+    private static final Instant MODIFIED = Instant.parse("2026-03-01T10:15:30Z");
+
+    @TempDir
+    Path uploadDir;
+
+    private UploadController controller;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path file = Files.writeString(uploadDir.resolve("note.txt"), CONTENT, StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file, FileTime.from(MODIFIED));
+        controller = new UploadController(uploadDir.toString(), mock(ImageVariantStore.class));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(nullValues = "null", value = {
+            "bytes=0-4,        206, bytes 0-4/10, 01234",
+            "bytes=5-,         206, bytes 5-9/10, 56789",
+            "bytes=-3,         206, bytes 7-9/10, 789",
+            "bytes=-30,        206, bytes 0-9/10, 0123456789",
+            "bytes=8-100,      206, bytes 8-9/10, 89",
+            "bytes= 2 - 3 ,    206, bytes 2-3/10, 23",
+            "bytes=9-9,        206, bytes 9-9/10, 9",
+            "bytes=0-1;3-4,    200, null,         0123456789",
+            "'bytes=0-1,3-4',  200, null,         0123456789",
+            "items=0-4,        200, null,         0123456789",
+            "bytes=a-b,        200, null,         0123456789",
+            "bytes=4,          200, null,         0123456789"
+    })
+    void servesSingleRanges(String range, int status, String contentRange, String body) throws Exception {
+        MockHttpServletResponse response = get(range, null);
+
+        assertThat(response.getStatus()).isEqualTo(status);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo(contentRange);
+        assertThat(response.getContentAsString()).isEqualTo(body);
+        assertThat(response.getContentLengthLong()).isEqualTo(body.length());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({"bytes=10-", "bytes=20-30", "bytes=-0", "bytes=3-1"})
+    void unsatisfiableRangeIs416(String range) throws Exception {
+        MockHttpServletResponse response = get(range, null);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+    }
+
+    @Test
+    void ifRangeWithTheCurrentEtagKeepsTheRange() throws Exception {
+        String etag = get(null, null).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse response = get("bytes=0-1", etag);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("01");
+    }
+
+    @Test
+    void ifRangeWithAnotherEtagSendsTheFullBody() throws Exception {
+        MockHttpServletResponse response = get("bytes=0-1", "\"stale\"");
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void ifRangeWithAWeakEtagSendsTheFullBody() throws Exception {
+        String etag = get(null, null).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse response = get("bytes=0-1", "W/" + etag);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void ifRangeByDateHonoursTheRangeOnlyForTheCurrentVersion() throws Exception {
+        String current = DateTimeFormatter.RFC_1123_DATE_TIME.format(MODIFIED.atZone(ZoneOffset.UTC));
+        String older = DateTimeFormatter.RFC_1123_DATE_TIME.format(MODIFIED.minusSeconds(60).atZone(ZoneOffset.UTC));
+
+        assertThat(get("bytes=0-1", current).getStatus()).isEqualTo(206);
+        assertThat(get("bytes=0-1", older).getStatus()).isEqualTo(200);
+        assertThat(get("bytes=0-1", "not a date").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void headReportsTheRangeWithoutABody() throws Exception {
+        MockHttpServletRequest request = request("bytes=2-5", null);
+        request.setMethod("HEAD");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.serve(request, response);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentLengthLong()).isEqualTo(4);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    private MockHttpServletResponse get(String range, String ifRange) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.serve(request(range, ifRange), response);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String range, String ifRange) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/note.txt");
+        if (range != null) {
+            request.addHeader(HttpHeaders.RANGE, range);
+        }
+        if (ifRange != null) {
+            request.addHeader(HttpHeaders.IF_RANGE, ifRange);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,93 @@
+package com.anpl.dto;
+
+import com.anpl.model.Event;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Payload size and serialization time of the event list before (entities, with the full description,
+ * rules and audit columns) and after ({@link EventSummaryResponse}) the projection. Prints both so a
+ * change to either shape shows up in the numbers.
+ */
+class EventPayloadSizeTest {
+
+    private static final int EVENTS = 100;
+    private static final int ROUNDS = 200;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void summaryListIsAFractionOfTheEntityList() throws Exception {
+        List<Event> entities = new ArrayList<>();
+        List<EventSummaryResponse> summaries = new ArrayList<>();
+        for (long id = 1; id <= EVENTS; id++) {
+            Event event = event(id);
+            entities.add(event);
+            summaries.add(summaryOf(event));
+        }
+
+        byte[] entityJson = objectMapper.writeValueAsBytes(entities);
+        byte[] summaryJson = objectMapper.writeValueAsBytes(summaries);
+        long entityNanos = timeSerialization(entities);
+        long summaryNanos = timeSerialization(summaries);
+        System.out.printf("events=%d entity-list=%d bytes (%.3f ms) summary-list=%d bytes (%.3f ms)%n",
+                EVENTS, entityJson.length, entityNanos / 1e6, summaryJson.length, summaryNanos / 1e6);
+
+        assertThat(summaryJson.length).isLessThan(entityJson.length / 4);
+    }
+
+    private long timeSerialization(Object value) throws Exception {
+        for (int i = 0; i < ROUNDS; i++) {
+            objectMapper.writeValueAsBytes(value);
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            objectMapper.writeValueAsBytes(value);
+        }
+        return (System.nanoTime() - started) / ROUNDS;
+    }
+
+    /**
+     * Sized like the production events: a few KB of description plus a rules document link.
+     */
+    private static Event event(long id) {
+        LocalDateTime opens = LocalDateTime.of(2026, 1, 1, 9, 0).plusDays(id);
+        Event event = new Event();
+        event.setId(id);
+        event.setName("ANPL Premier League " + id);
+        event.setDescription("Teams of eight play a league stage followed by knockouts. ".repeat(60));
+        event.setEventType("CRICKET");
+        event.setPrice(800.0);
+        event.setYear(2026);
+        event.setActive(true);
+        event.setRegistrationStartDate(opens);
+        event.setRegistrationEndDate(opens.plusWeeks(2));
+        event.setEventStartDate(opens.plusWeeks(4));
+        event.setEventEndDate(opens.plusWeeks(5));
+        event.setMaxParticipants(120);
+        event.setCurrentParticipants(40);
+        event.setVenue("Main ground");
+        event.setRulesDocument("/uploads/rules/premier-league-" + id + ".pdf");
+        event.setCreatedAt(opens.minusMonths(1));
+        event.setUpdatedAt(opens.minusDays(3));
+        return event;
+    }
+
+    private static EventSummaryResponse summaryOf(Event event) {
+        String description = event.getDescription();
+        return new EventSummaryResponse(event.getId(), event.getName(), event.getEventType(), event.getPrice(),
+                event.getYear(), event.isActive(), event.getRegistrationStartDate(), event.getRegistrationEndDate(),
+                event.getEventStartDate(), event.getEventEndDate(), event.getMaxParticipants(),
+                event.getCurrentParticipants(), event.getVenue(),
+                description.substring(0, Math.min(description.length(), 280)));
+    }
+}
@@ -0,0 +1,130 @@
+package com.anpl.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Credential-stuffing burst against the login throttle: thousands of attempts from a few dozen
+ * addresses over a few hundred accounts, each admitted attempt costing one real BCrypt check. Reports
+ * the BCrypt CPU actually spent and checks it stays within what the buckets allow. Opt-in because it
+ * hashes for real: {@code mvn test -Dtest=AuthRateLimitFilterLoadTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AuthRateLimitFilterLoadTest {
+
+    private static final int ATTEMPTS = 5_000;
+    private static final int ADDRESSES = 50;
+    private static final int ACCOUNTS = 200;
+    private static final int THREADS = 32;
+    private static final int IP_CAPACITY = 20;
+    private static final double IP_REFILL_PER_MINUTE = 10;
+
+    @Test
+    void burstIsCappedBeforeBcrypt() throws Exception {
+        AuthRateLimitFilter filter = new AuthRateLimitFilter(new StripedRateLimitBackend(100_000),
+                new ObjectMapper(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "loginIpCapacity", IP_CAPACITY);
+        ReflectionTestUtils.setField(filter, "loginIpRefillPerMinute", IP_REFILL_PER_MINUTE);
+        ReflectionTestUtils.setField(filter, "loginEmailCapacity", 5);
+        ReflectionTestUtils.setField(filter, "loginEmailRefillPerMinute", 1.0);
+        // Unused here, but init() rejects the empty limits that unset fields would give
+        ReflectionTestUtils.setField(filter, "resetIpCapacity", 5);
+        ReflectionTestUtils.setField(filter, "resetIpRefillPerMinute", 1.0);
+        ReflectionTestUtils.setField(filter, "resetEmailCapacity", 3);
+        ReflectionTestUtils.setField(filter, "resetEmailRefillPerMinute", 0.1);
+        ReflectionTestUtils.setField(filter, "uploadIpCapacity", 10);
+        ReflectionTestUtils.setField(filter, "uploadIpRefillPerMinute", 3.0);
+        filter.init();
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(10);
+        String storedHash = bcrypt.encode("correct horse battery staple");
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        AtomicInteger hashed = new AtomicInteger();
+        AtomicLong hashCpuNanos = new AtomicLong();
+        AtomicInteger throttled = new AtomicInteger();
+        // CPU is measured on the hashing pool's threads, where BCrypt actually runs
+        PasswordEncoder timed = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return bcrypt.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                long cpu = threads.getCurrentThreadCpuTime();
+                try {
+                    return bcrypt.matches(rawPassword, encodedPassword);
+                } finally {
+                    hashCpuNanos.addAndGet(threads.getCurrentThreadCpuTime() - cpu);
+                    hashed.incrementAndGet();
+                }
+            }
+        };
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(timed, 2, ATTEMPTS);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        long started = System.nanoTime();
+        try {
+            List<Future<?>> attempts = new ArrayList<>();
+            for (int i = 0; i < ATTEMPTS; i++) {
+                int attempt = i;
+                attempts.add(pool.submit(() -> {
+                    start.await();
+                    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+                    request.setRemoteAddr("203.0.113." + (attempt % ADDRESSES));
+                    request.setContentType("application/json");
+                    request.setContent(("{\"email\":\"user" + (attempt % ACCOUNTS) + "@example.com\","
+                            + "\"password\":\"guess" + attempt + "\"}").getBytes(StandardCharsets.UTF_8));
+                    MockHttpServletResponse response = new MockHttpServletResponse();
+                    filter.doFilter(request, response,
+                            (req, res) -> encoder.matches("guess" + attempt, storedHash));
+                    if (response.getStatus() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                        throttled.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> attempt : attempts) {
+                attempt.get(10, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+            encoder.shutdown();
+        }
+        double elapsedMinutes = (System.nanoTime() - started) / 60e9;
+
+        long cpuMillis = hashCpuNanos.get() / 1_000_000;
+        long unthrottledMillis = hashed.get() == 0 ? 0 : cpuMillis * ATTEMPTS / hashed.get();
+        System.out.printf("attempts=%d hashed=%d throttled=%d bcrypt-cpu=%dms (unthrottled ~%dms) elapsed=%.1fs%n",
+                ATTEMPTS, hashed.get(), throttled.get(), cpuMillis, unthrottledMillis, elapsedMinutes * 60);
+
+        long allowed = ADDRESSES * (IP_CAPACITY + (long) Math.ceil(elapsedMinutes * IP_REFILL_PER_MINUTE));
+        assertThat(hashed.get() + throttled.get()).isEqualTo(ATTEMPTS);
+        assertThat((long) hashed.get()).isLessThanOrEqualTo(allowed);
+    }
+}
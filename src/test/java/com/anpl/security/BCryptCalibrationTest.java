@@ -0,0 +1,62 @@
+package com.anpl.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Calibration stays within its bounds however fast or slow the host is, and the configured encoder
+ * writes prefixed hashes at that cost while flagging anything older for a rehash.
+ */
+class BCryptCalibrationTest {
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void neverCalibratesBelowTheFloor() {
+        assertThat(BCryptCalibration.strengthFor(0)).isEqualTo(10);
+    }
+
+    @Test
+    void neverCalibratesAboveTheCeiling() {
+        assertThat(BCryptCalibration.strengthFor(Long.MAX_VALUE)).isEqualTo(16);
+    }
+
+    @Test
+    void calibratedStrengthGrowsWithTheTarget() {
+        assertThat(BCryptCalibration.strengthFor(60_000)).isGreaterThanOrEqualTo(BCryptCalibration.strengthFor(1));
+    }
+
+    @Test
+    void encoderWritesPrefixedHashesAndFlagsOutdatedOnes() {
+        encoder = (BoundedPasswordEncoder) passwordEncoder(5);
+
+        String current = encoder.encode("secret");
+        String legacy = new BCryptPasswordEncoder(5).encode("secret");
+        String weaker = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret");
+
+        assertThat(current).startsWith("{bcrypt}$2a$05$");
+        assertThat(encoder.matches("secret", current)).isTrue();
+        assertThat(encoder.matches("secret", legacy)).isTrue();
+        assertThat(encoder.matches("secret", weaker)).isTrue();
+        assertThat(encoder.upgradeEncoding(current)).isFalse();
+        assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+        assertThat(encoder.upgradeEncoding(weaker)).isTrue();
+    }
+
+    private static PasswordEncoder passwordEncoder(int strength) {
+        SecurityConfig config = new SecurityConfig(mock(JwtAuthenticationFilter.class), mock(AuthRateLimitFilter.class));
+        return config.passwordEncoder(strength, 250, 1, 8);
+    }
+}
@@ -0,0 +1,102 @@
+package com.anpl.security;
+
+import com.anpl.model.User;
+import com.anpl.model.UserRole;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * One parser serves every request, verified tokens are answered from the cache until their {@code exp},
+ * and the cache stays bounded.
+ */
+class JwtTokenProviderTest {
+
+    private JwtTokenProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        provider = provider(60_000, 100);
+    }
+
+    @Test
+    void parserIsBuiltOnceAndReused() {
+        Object parser = ReflectionTestUtils.getField(provider, "parser");
+
+        provider.parseClaims(provider.generateToken(user(1L)));
+        provider.parseClaims(provider.generateToken(user(2L)));
+
+        assertThat(ReflectionTestUtils.getField(provider, "parser")).isSameAs(parser);
+    }
+
+    @Test
+    void verifiedTokenIsAnsweredFromTheCache() {
+        String token = provider.generateToken(user(1L));
+
+        Claims first = provider.parseClaims(token);
+        Claims second = provider.parseClaims(token);
+
+        assertThat(first.getSubject()).isEqualTo("user1@example.com");
+        assertThat(second).isSameAs(first);
+        assertThat(cache()).hasSize(1);
+    }
+
+    @Test
+    void cachedTokenStopsVerifyingAtItsExpiry() throws InterruptedException {
+        provider = provider(1_000, 100);
+        String token = provider.generateToken(user(1L));
+        Claims claims = provider.parseClaims(token);
+        assertThat(claims).isNotNull();
+
+        Thread.sleep(Math.max(0, claims.getExpiration().getTime() - System.currentTimeMillis()) + 50);
+
+        assertThat(provider.parseClaims(token)).isNull();
+        assertThat(cache()).isEmpty();
+    }
+
+    @Test
+    void tamperedTokenIsRejectedAndNotCached() {
+        String token = provider.generateToken(user(1L));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(provider.parseClaims(tampered)).isNull();
+        assertThat(provider.validateToken(null)).isFalse();
+        assertThat(cache()).isEmpty();
+    }
+
+    @Test
+    void cacheStaysWithinItsBound() {
+        provider = provider(60_000, 4);
+        for (long id = 1; id <= 20; id++) {
+            assertThat(provider.parseClaims(provider.generateToken(user(id)))).isNotNull();
+        }
+
+        assertThat(cache().size()).isLessThanOrEqualTo(4);
+    }
+
+    private Map<?, ?> cache() {
+        return (Map<?, ?>) ReflectionTestUtils.getField(provider, "verifiedTokens");
+    }
+
+    private static JwtTokenProvider provider(long expirationMs, int cacheSize) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", "test-secret-that-is-long-enough-for-hs256-signing");
+        ReflectionTestUtils.setField(provider, "jwtExpirationInMs", expirationMs);
+        ReflectionTestUtils.setField(provider, "verifiedCacheMaxSize", cacheSize);
+        provider.init();
+        return provider;
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        user.setRole(UserRole.USER);
+        return user;
+    }
+}
@@ -0,0 +1,90 @@
+package com.anpl.security;
+
+import com.anpl.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Caching, copy-on-read and the generation check that stops a load racing {@link PrincipalCache#invalidate}
+ * from re-caching the pre-change user.
+ */
+class PrincipalCacheTest {
+
+    private static final String SUBJECT = "player@example.com";
+
+    private PrincipalCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new PrincipalCache();
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(cache, "maxSize", 100);
+    }
+
+    @Test
+    void secondLookupIsServedFromTheCacheAsACopy() {
+        User first = cache.getOrLoad(SUBJECT, loader("Old")).getUser();
+        first.setFullName("Mutated by request");
+
+        User second = cache.getOrLoad(SUBJECT, loader("New")).getUser();
+
+        assertThat(loads).hasValue(1);
+        assertThat(second.getFullName()).isEqualTo("Old");
+    }
+
+    @Test
+    void invalidateForcesAReload() {
+        cache.getOrLoad(SUBJECT, loader("Old"));
+
+        cache.invalidate(SUBJECT);
+
+        assertThat(cache.getOrLoad(SUBJECT, loader("New")).getUser().getFullName()).isEqualTo("New");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void loadThatRacedAnInvalidationIsNotCached() {
+        // The loader read the old row, then a writer committed and invalidated before the put
+        Supplier<User> racing = () -> {
+            User stale = loader("Old").get();
+            cache.invalidate(SUBJECT);
+            return stale;
+        };
+
+        assertThat(cache.getOrLoad(SUBJECT, racing).getUser().getFullName()).isEqualTo("Old");
+
+        assertThat(cache.getOrLoad(SUBJECT, loader("New")).getUser().getFullName()).isEqualTo("New");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void invalidatingAnotherSubjectDoesNotBlockCaching() {
+        Supplier<User> racing = () -> {
+            User user = loader("Old").get();
+            cache.invalidate("someone-else@example.com");
+            return user;
+        };
+
+        cache.getOrLoad(SUBJECT, racing);
+        cache.getOrLoad(SUBJECT, loader("New"));
+
+        assertThat(loads).hasValue(1);
+    }
+
+    private Supplier<User> loader(String fullName) {
+        return () -> {
+            loads.incrementAndGet();
+            User user = new User();
+            user.setEmail(SUBJECT);
+            user.setFullName(fullName);
+            return user;
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package com.anpl.security;
+
+import com.anpl.security.RateLimitBackend.BucketLimit;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The in-memory backend on top of {@link com.anpl.util.TokenBucket}: burst then Retry-After, independent
+ * keys, idle eviction, and limits that could never refill being refused up front.
+ */
+class StripedRateLimitBackendTest {
+
+    private final StripedRateLimitBackend backend = new StripedRateLimitBackend(1_000);
+
+    @Test
+    void grantsTheBurstThenReportsSecondsToTheNextToken() {
+        BucketLimit limit = new BucketLimit(3, 1.0 / 60);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(backend.tryAcquire("login:ip:10.0.0.1", limit)).isZero();
+        }
+
+        assertThat(backend.tryAcquire("login:ip:10.0.0.1", limit)).isBetween(59L, 60L);
+        assertThat(backend.tryAcquire("login:ip:10.0.0.2", limit)).isZero();
+    }
+
+    @Test
+    void sweepDropsOnlyBucketsThatHaveRefilled() throws Exception {
+        backend.tryAcquire("fast", new BucketLimit(1, 1_000));
+        backend.tryAcquire("slow", new BucketLimit(1, 1.0 / 60));
+        Thread.sleep(20);
+
+        backend.evictIdle();
+
+        assertThat(keys()).containsExactly("slow");
+    }
+
+    @Test
+    void limitThatNeverRefillsIsRejected() {
+        assertThatThrownBy(() -> new BucketLimit(5, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BucketLimit(5, Double.NaN)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BucketLimit(0, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> keys() {
+        Set<String> keys = new HashSet<>();
+        for (Object stripe : (Object[]) ReflectionTestUtils.getField(backend, "stripes")) {
+            keys.addAll(((Map<String, ?>) ReflectionTestUtils.getField(stripe, "buckets")).keySet());
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,68 @@
+package com.anpl.service;
+
+import com.anpl.dto.AdminRegistrationPageResponse;
+import com.anpl.dto.AdminRegistrationSummaryResponse;
+import com.anpl.repository.CricketPlayerSkillsRepository;
+import com.anpl.repository.EventRegistrationRepository;
+import com.anpl.repository.PlayerProfileRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The admin registrations cursor is client-supplied; anything malformed must surface as
+ * {@link IllegalArgumentException} (a 400) and never reach the repository.
+ */
+class AdminServiceCursorTest {
+
+    private final EventRegistrationRepository registrationRepository = mock(EventRegistrationRepository.class);
+    private final AdminService adminService = new AdminService(registrationRepository,
+            mock(PlayerProfileRepository.class), mock(CricketPlayerSkillsRepository.class),
+            mock(EventRegistrationService.class));
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "bm8tc2VwYXJhdG9y", "MjAyNi0wMS0wMVQxMDowMHxhYmM",
+            "eWVzdGVyZGF5fDQy", "fDQy", "MjAyNi0wMS0wMVQxMDowMHw"})
+    void malformedCursorIsAnIllegalArgument(String cursor) {
+        assertThatThrownBy(() -> adminService.getRegistrationSummaries(null, null, false, cursor, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void nextCursorRoundTrips() {
+        LocalDateTime updatedAt = LocalDateTime.of(2026, 1, 1, 10, 0, 30);
+        when(registrationRepository.findAdminSummaries(isNull(), isNull(), anyBoolean(), any()))
+                .thenReturn(List.of(row(2L, updatedAt), row(1L, updatedAt.minusMinutes(1))));
+
+        AdminRegistrationPageResponse first = adminService.getRegistrationSummaries(null, null, false, null, 1);
+        adminService.getRegistrationSummaries(null, null, false, first.getNextCursor(), 1);
+
+        verify(registrationRepository).findAdminSummariesAfter(isNull(), isNull(), eq(false), eq(updatedAt), eq(2L),
+                any());
+        String raw = new String(Base64.getUrlDecoder().decode(first.getNextCursor()), StandardCharsets.UTF_8);
+        assertThat(raw).isEqualTo(updatedAt + "|2");
+    }
+
+    private static AdminRegistrationSummaryResponse row(Long id, LocalDateTime updatedAt) {
+        return AdminRegistrationSummaryResponse.builder()
+                .registrationId(id)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.anpl.service;
+
+import com.anpl.exception.InvalidCredentialsException;
+import com.anpl.model.RefreshToken;
+import com.anpl.model.User;
+import com.anpl.repository.RefreshTokenRepository;
+import com.anpl.repository.UserRepository;
+import com.anpl.security.AccessTokenRevocationList;
+import com.anpl.security.JwtTokenProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Refresh when consume() loses: reuse is judged on the re-read row, not on the copy loaded before the
+ * concurrent rotation, and only a rotation inside the grace window earns a sibling token.
+ */
+class AuthTokenServiceRefreshTest {
+
+    private static final String RAW = "presented-refresh-token";
+
+    private final JwtTokenProvider jwtTokenProvider = mock(JwtTokenProvider.class);
+    private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private AuthTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AuthTokenService(jwtTokenProvider, refreshTokenRepository, userRepository,
+                mock(AccessTokenRevocationList.class));
+        ReflectionTestUtils.setField(service, "refreshExpirationInMs", 60_000L);
+        ReflectionTestUtils.setField(service, "reuseGraceInMs", 10_000L);
+        User user = new User();
+        user.setId(7L);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        when(jwtTokenProvider.generateToken(any())).thenReturn("access");
+    }
+
+    @Test
+    void replayOfATokenRotatedAfterItWasLoadedRevokesTheFamily() {
+        // Loaded while still live; by the time consume() ran it had been rotated well outside the grace window
+        RefreshToken presented = token(null, null, LocalDateTime.now().plusMinutes(5));
+        RefreshToken current = token(LocalDateTime.now().minusMinutes(1), 2L, presented.getExpiresAt());
+        stubRefresh(presented, current);
+
+        assertThatThrownBy(() -> service.refresh(RAW)).isInstanceOf(InvalidCredentialsException.class);
+
+        verify(refreshTokenRepository).revokeFamily(eq("family-1"), any());
+    }
+
+    @Test
+    void expiredButUnrevokedTokenIsRejectedWithoutRevokingTheFamily() {
+        RefreshToken presented = token(null, null, LocalDateTime.now().minusSeconds(1));
+        stubRefresh(presented, token(null, null, presented.getExpiresAt()));
+
+        assertThatThrownBy(() -> service.refresh(RAW)).isInstanceOf(InvalidCredentialsException.class);
+
+        verify(refreshTokenRepository, never()).revokeFamily(anyString(), any());
+    }
+
+    @Test
+    void rotationInsideTheGraceWindowIssuesASibling() {
+        RefreshToken presented = token(null, null, LocalDateTime.now().plusMinutes(5));
+        RefreshToken current = token(LocalDateTime.now().minusSeconds(1), 2L, presented.getExpiresAt());
+        RefreshToken successor = token(null, null, LocalDateTime.now().plusMinutes(5));
+        stubRefresh(presented, current);
+        when(refreshTokenRepository.findById(2L)).thenReturn(Optional.of(successor));
+
+        assertThat(service.refresh(RAW).getToken()).isEqualTo("access");
+
+        verify(refreshTokenRepository, never()).revokeFamily(anyString(), any());
+        verify(refreshTokenRepository, never()).markReplaced(any(), any());
+    }
+
+    private void stubRefresh(RefreshToken presented, RefreshToken current) {
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(presented));
+        when(refreshTokenRepository.consume(eq(1L), any())).thenReturn(0);
+        when(refreshTokenRepository.findById(1L)).thenReturn(Optional.of(current));
+    }
+
+    private static RefreshToken token(LocalDateTime revokedAt, Long replacedById, LocalDateTime expiresAt) {
+        RefreshToken token = new RefreshToken();
+        token.setId(1L);
+        token.setUserId(7L);
+        token.setFamilyId("family-1");
+        token.setRevokedAt(revokedAt);
+        token.setReplacedById(replacedById);
+        token.setExpiresAt(expiresAt);
+        return token;
+    }
+}
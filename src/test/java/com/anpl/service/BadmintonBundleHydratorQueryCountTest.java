@@ -0,0 +1,101 @@
+package com.anpl.service;
+
+import com.anpl.model.BadmintonRegistrationEntry;
+import com.anpl.model.User;
+import com.anpl.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hibernate statistics over {@link BadmintonBundleHydrator#loadPartners}: a bundle with a dozen double
+ * and family entries resolves all its partners with one prepared statement. Opt-in, like
+ * {@link EventCapacityPostgresTest}: run against a scratch database with
+ * {@code database/anpl_sports_schema.sql} loaded via {@code -Dtest.postgres.url=...}. The test
+ * transaction is rolled back, so the users it creates are not kept.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfSystemProperty(named = "test.postgres.url", matches = ".+")
+class BadmintonBundleHydratorQueryCountTest {
+
+    private static final int PARTNERS = 12;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("test.postgres.url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("test.postgres.username", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getProperty("test.postgres.password", ""));
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void resolvesEveryPartnerWithOneStatement() {
+        List<Long> partnerIds = new ArrayList<>();
+        for (int i = 0; i < PARTNERS; i++) {
+            partnerIds.add(entityManager.persistAndGetId(user(i), Long.class));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<BadmintonRegistrationEntry> entries = new ArrayList<>();
+        for (int i = 0; i < PARTNERS; i += 2) {
+            BadmintonRegistrationEntry entry = new BadmintonRegistrationEntry();
+            entry.setPartnerUserId(partnerIds.get(i));
+            entry.setSecondaryPartnerUserId(partnerIds.get(i + 1));
+            entries.add(entry);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Map<Long, User> partners = new BadmintonBundleHydrator(userRepository).loadPartners(entries);
+
+        assertThat(partners).hasSize(PARTNERS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private static User user(int i) {
+        String suffix = Long.toString(System.nanoTime(), 36) + i;
+        User user = new User();
+        user.setFullName("Hydrator Partner " + i);
+        user.setFathersName("Parent " + i);
+        user.setDateOfBirth(LocalDate.of(1990, 1, 1).plusDays(i));
+        user.setEmail("hydrator-" + suffix + "@example.test");
+        user.setPhoneNumber("90000000" + String.format("%02d", i));
+        user.setPassword("not-a-real-hash");
+        user.setRegistrationNumber("T" + suffix);
+        user.setBlock("A");
+        user.setHouseNumber("H-" + i);
+        // Unique columns derive from the clock so the test does not clash with rows already in the database
+        user.setAadhaarNumber(String.format("%012d", (System.nanoTime() / 100 + i) % 1_000_000_000_000L));
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+        return user;
+    }
+}
@@ -0,0 +1,63 @@
+package com.anpl.service;
+
+import com.anpl.model.BadmintonRegistrationEntry;
+import com.anpl.model.User;
+import com.anpl.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Partner resolution goes through one {@code findAllById} over every primary and secondary partner,
+ * never a lookup per entry. {@link BadmintonBundleHydratorQueryCountTest} counts the SQL on PostgreSQL.
+ */
+class BadmintonBundleHydratorTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final BadmintonBundleHydrator hydrator = new BadmintonBundleHydrator(userRepository);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void loadsAllPartnersWithOneLookup() {
+        when(userRepository.findAllById(any())).thenReturn(List.of(user(11L), user(12L), user(13L)));
+
+        Map<Long, User> partners = hydrator.loadPartners(List.of(
+                entry(11L, null), entry(12L, 13L), entry(11L, 12L), entry(null, null)));
+
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(userRepository, times(1)).findAllById(ids.capture());
+        verify(userRepository, never()).findById(any());
+        assertThat(ids.getValue()).containsExactlyInAnyOrder(11L, 12L, 13L);
+        assertThat(partners).containsOnlyKeys(11L, 12L, 13L);
+    }
+
+    @Test
+    void skipsTheQueryWhenNoEntryHasAPartner() {
+        assertThat(hydrator.loadPartners(List.of(entry(null, null)))).isEmpty();
+        verify(userRepository, never()).findAllById(any());
+    }
+
+    private static BadmintonRegistrationEntry entry(Long partnerId, Long secondaryPartnerId) {
+        BadmintonRegistrationEntry entry = new BadmintonRegistrationEntry();
+        entry.setPartnerUserId(partnerId);
+        entry.setSecondaryPartnerUserId(secondaryPartnerId);
+        return entry;
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,95 @@
+package com.anpl.service;
+
+import com.anpl.model.BadmintonCategory;
+import com.anpl.model.BadmintonCategoryType;
+import com.anpl.repository.BadmintonCategoryRepository;
+import com.anpl.service.BadmintonCategoryCatalogue.Snapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The catalogue version and ETag move only when category content changes, and only then are the
+ * compiled category rules dropped.
+ */
+class BadmintonCategoryCatalogueTest {
+
+    private final BadmintonCategoryRepository repository = mock(BadmintonCategoryRepository.class);
+    private final BadmintonCategoryRules rules = mock(BadmintonCategoryRules.class);
+    private final BadmintonCategoryCatalogue catalogue =
+            new BadmintonCategoryCatalogue(repository, rules, new ObjectMapper());
+
+    @Test
+    void unchangedReloadKeepsTheVersion() {
+        when(repository.findAll()).thenReturn(categories("U15"), categories("U15"));
+
+        Snapshot first = catalogue.refresh();
+        Snapshot second = catalogue.refresh();
+
+        assertThat(first.version()).isEqualTo(1);
+        assertThat(second).isSameAs(first);
+        verify(rules, times(1)).invalidate();
+    }
+
+    @Test
+    void editedCategoryBumpsTheVersionAndDropsCompiledRules() {
+        when(repository.findAll()).thenReturn(categories("U15"), categories("U17"));
+
+        Snapshot first = catalogue.refresh();
+        Snapshot second = catalogue.refresh();
+
+        assertThat(second.version()).isEqualTo(first.version() + 1);
+        assertThat(second.etag()).isNotEqualTo(first.etag());
+        assertThat(second.byId(1L).getAgeLimit()).isEqualTo("U17");
+        assertThat(catalogue.snapshot()).isSameAs(second);
+        verify(rules, times(2)).invalidate();
+    }
+
+    @Test
+    void inactiveCategoriesAreListedOnlyById() {
+        when(repository.findAll()).thenReturn(categories("U15"));
+
+        Snapshot snapshot = catalogue.snapshot();
+
+        assertThat(snapshot.active()).extracting(BadmintonCategory::getId).containsExactly(2L, 1L);
+        assertThat(snapshot.options()).hasSize(2);
+        assertThat(snapshot.byId(3L).getName()).isEqualTo("Retired Doubles");
+        assertThat(snapshot.byId(99L)).isNull();
+    }
+
+    @Test
+    void lookupByNullIdDoesNotLoad() {
+        assertThat(catalogue.byId(null)).isNull();
+        verify(repository, never()).findAll();
+    }
+
+    /**
+     * Fresh instances per call, as the repository returns: ids out of order, one inactive.
+     */
+    private static List<BadmintonCategory> categories(String boysAgeLimit) {
+        return List.of(
+                category(3L, "Retired Doubles", false, 0, null),
+                category(1L, "Boys Singles", true, 2, boysAgeLimit),
+                category(2L, "Mixed Doubles", true, 1, null));
+    }
+
+    private static BadmintonCategory category(Long id, String name, boolean active, int displayOrder,
+                                              String ageLimit) {
+        BadmintonCategory category = new BadmintonCategory();
+        category.setId(id);
+        category.setName(name);
+        category.setCategoryType(BadmintonCategoryType.SOLO);
+        category.setActive(active);
+        category.setDisplayOrder(displayOrder);
+        category.setAgeLimit(ageLimit);
+        return category;
+    }
+}
@@ -0,0 +1,83 @@
+package com.anpl.service;
+
+import com.anpl.model.BadmintonCategory;
+import com.anpl.model.BadmintonCategoryType;
+import com.anpl.model.Gender;
+import com.anpl.service.BadmintonCategoryRules.CategoryRule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Eligibility matrix of the compiled category rules: age limits parsed from {@code ageLimit}, gender
+ * implied by the category name, and the age check at the boundaries.
+ */
+class BadmintonCategoryRulesTest {
+
+    private final BadmintonCategoryRules rules = new BadmintonCategoryRules();
+
+    @ParameterizedTest(name = "{0} ({1}, {2})")
+    @CsvSource(nullValues = "null", value = {
+            "Boys Singles,         SOLO,   U15,    null, 15,   MALE",
+            "Girls Singles,        SOLO,   u-13,   null, 13,   FEMALE",
+            "Men's Doubles,        DOUBLE, 35+,    35,   null, MALE",
+            "Mens Singles,         SOLO,   Open,   null, null, MALE",
+            "Men 40 Plus,          DOUBLE, 40 +,   40,   null, MALE",
+            "Womens Singles,       SOLO,   null,   null, null, FEMALE",
+            "Women's Doubles,      DOUBLE, 45+,    45,   null, FEMALE",
+            "Ladies Doubles,       DOUBLE, '',     null, null, FEMALE",
+            "Mixed Doubles,        DOUBLE, U19,    null, 19,   null",
+            "Open Singles,         SOLO,   U,      null, null, null",
+            "Mother and Daughter,  FAMILY, Open,   null, null, null",
+            "Father and Son Men,   FAMILY, 18+,    18,   null, null"
+    })
+    void compilesAgeLimitsAndGender(String name, BadmintonCategoryType type, String ageLimit,
+                                    Integer minAge, Integer maxAge, Gender gender) {
+        CategoryRule rule = BadmintonCategoryRules.compile(category(1L, name, type, ageLimit));
+
+        assertThat(rule.minAge()).isEqualTo(minAge);
+        assertThat(rule.maxAge()).isEqualTo(maxAge);
+        assertThat(rule.requiredGender()).isEqualTo(gender);
+    }
+
+    @ParameterizedTest(name = "age {1} against {0}")
+    @CsvSource(nullValues = "null", value = {
+            "U15, 14,   true",
+            "U15, 15,   true",
+            "U15, 16,   false",
+            "35+, 34,   false",
+            "35+, 35,   true",
+            "35+, 70,   true",
+            "Open, 8,   true",
+            "U15, null, true"
+    })
+    void acceptsAgesWithinTheLimit(String ageLimit, Integer age, boolean accepted) {
+        CategoryRule rule = BadmintonCategoryRules.compile(
+                category(1L, "Singles", BadmintonCategoryType.SOLO, ageLimit));
+
+        assertThat(rule.acceptsAge(age)).isEqualTo(accepted);
+    }
+
+    @Test
+    void rulesAreCompiledOnceUntilInvalidated() {
+        BadmintonCategory category = category(7L, "Boys Singles", BadmintonCategoryType.SOLO, "U15");
+        CategoryRule first = rules.ruleFor(category);
+
+        category.setAgeLimit("U17");
+        assertThat(rules.ruleFor(category)).isSameAs(first);
+
+        rules.invalidate();
+        assertThat(rules.ruleFor(category).maxAge()).isEqualTo(17);
+    }
+
+    private static BadmintonCategory category(Long id, String name, BadmintonCategoryType type, String ageLimit) {
+        BadmintonCategory category = new BadmintonCategory();
+        category.setId(id);
+        category.setName(name);
+        category.setCategoryType(type);
+        category.setAgeLimit(ageLimit);
+        return category;
+    }
+}
@@ -0,0 +1,66 @@
+package com.anpl.service;
+
+import com.anpl.model.EmailOutboxMessage;
+import com.anpl.model.EmailOutboxStatus;
+import com.anpl.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A claimed message the worker pool refuses must not stay registered as in flight: the gauge and the
+ * renewed leases are rolled back and the row goes straight back to PENDING.
+ */
+class EmailOutboxDispatcherTest {
+
+    private final EmailOutboxRepository outboxRepository = mock(EmailOutboxRepository.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new EmailOutboxDispatcher(outboxRepository, mock(JavaMailSender.class),
+                mock(PlatformTransactionManager.class), meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 5);
+        ReflectionTestUtils.setField(dispatcher, "workers", 1);
+        ReflectionTestUtils.setField(dispatcher, "leaseSeconds", 120L);
+        dispatcher.init();
+    }
+
+    @Test
+    void rejectedSubmissionIsReleasedInsteadOfLeakingItsLease() throws Exception {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setId(42L);
+        message.setAttempts(2);
+        message.setStatus(EmailOutboxStatus.PENDING);
+        when(outboxRepository.lockDueBatch(any(), anyInt())).thenReturn(List.of(message));
+        dispatcher.shutdown();
+
+        dispatcher.dispatch();
+
+        verify(outboxRepository).completeAttempt(eq(42L), eq(message.getLeaseToken()),
+                eq(EmailOutboxStatus.PENDING), eq(2), any(), isNull(), isNull());
+        assertThat(meterRegistry.get("email.outbox.in_flight").gauge().value()).isZero();
+
+        dispatcher.renewLeases();
+
+        verify(outboxRepository, never()).renewLeases(anyList(), any(), any());
+    }
+}
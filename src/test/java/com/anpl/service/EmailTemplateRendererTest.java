@@ -0,0 +1,95 @@
+package com.anpl.service;
+
+import com.anpl.model.User;
+import com.anpl.service.EmailTemplateRenderer.AssetSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.cache.ICache;
+import org.thymeleaf.cache.TemplateCacheKey;
+import org.thymeleaf.engine.TemplateModel;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Templates are parsed once at startup and served from the pinned cache afterwards; each render only
+ * merges its own model over the shared brand and asset variables.
+ */
+class EmailTemplateRendererTest {
+
+    private EmailTemplateRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        renderer = new EmailTemplateRenderer();
+        ReflectionTestUtils.setField(renderer, "brandName", "ANPL Test");
+        ReflectionTestUtils.setField(renderer, "defaultLogoUrl", "https://cdn.test/logo-default.png");
+        ReflectionTestUtils.setField(renderer, "cricketLogoUrl", "https://cdn.test/logo-cricket.png");
+        ReflectionTestUtils.setField(renderer, "badmintonLogoUrl", "https://cdn.test/logo-badminton.png");
+        ReflectionTestUtils.setField(renderer, "defaultBannerUrl", "https://cdn.test/banner-default.png");
+        ReflectionTestUtils.setField(renderer, "cricketBannerUrl", "https://cdn.test/banner-cricket.png");
+        ReflectionTestUtils.setField(renderer, "badmintonBannerUrl", "https://cdn.test/banner-badminton.png");
+        renderer.init();
+    }
+
+    @Test
+    void everyTemplateIsParsedAtStartup() {
+        assertThat(cachedTemplates().keySet()).containsExactlyInAnyOrderElementsOf(EmailTemplateRenderer.TEMPLATES);
+    }
+
+    @Test
+    void rendersReuseTheParsedTemplate() {
+        Map<String, TemplateModel> before = cachedTemplates();
+
+        renderer.render("password-reset", AssetSet.DEFAULT, passwordResetModel("https://anpl.test/reset/1"));
+        renderer.render("password-reset", AssetSet.DEFAULT, passwordResetModel("https://anpl.test/reset/2"));
+
+        Map<String, TemplateModel> after = cachedTemplates();
+        assertThat(after).hasSameSizeAs(before);
+        assertThat(after.get("password-reset")).isSameAs(before.get("password-reset"));
+    }
+
+    @Test
+    void mergesBrandAssetAndMessageVariables() {
+        String html = renderer.render("password-reset", AssetSet.CRICKET, passwordResetModel("https://anpl.test/reset/1"));
+
+        assertThat(html)
+                .contains("ANPL Test")
+                .contains("https://cdn.test/logo-cricket.png")
+                .contains("https://cdn.test/banner-cricket.png")
+                .contains("https://anpl.test/reset/1")
+                .contains("Asha Rao");
+    }
+
+    @Test
+    void reusedBufferDoesNotLeakIntoEarlierResults() {
+        String first = renderer.render("password-reset", AssetSet.DEFAULT, passwordResetModel("https://anpl.test/reset/1"));
+        String second = renderer.render("password-reset", AssetSet.DEFAULT, passwordResetModel("https://anpl.test/reset/2"));
+
+        assertThat(first).contains("https://anpl.test/reset/1").doesNotContain("https://anpl.test/reset/2");
+        assertThat(second).contains("https://anpl.test/reset/2").doesNotContain("https://anpl.test/reset/1");
+    }
+
+    private Map<String, TemplateModel> cachedTemplates() {
+        SpringTemplateEngine engine = (SpringTemplateEngine) ReflectionTestUtils.getField(renderer, "templateEngine");
+        ICache<TemplateCacheKey, TemplateModel> cache = engine.getCacheManager().getTemplateCache();
+        return cache.keySet().stream()
+                .collect(Collectors.toMap(TemplateCacheKey::getTemplate, cache::get));
+    }
+
+    private static Map<String, Object> passwordResetModel(String resetUrl) {
+        User user = new User();
+        user.setFullName("Asha Rao");
+        Map<String, Object> model = new HashMap<>();
+        model.put("user", user);
+        model.put("resetUrl", resetUrl);
+        model.put("ctaUrl", resetUrl);
+        model.put("ctaLabel", "Reset Password");
+        return model;
+    }
+}
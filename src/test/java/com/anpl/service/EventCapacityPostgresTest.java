@@ -0,0 +1,149 @@
+package com.anpl.service;
+
+import com.anpl.model.Event;
+import com.anpl.model.RegistrationStatus;
+import com.anpl.repository.EventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * What {@link EventCapacityServiceConcurrencyTest} cannot show: the conditional UPDATE behind
+ * {@link EventRepository#tryReserveSlot} and the {@code chk_events_participants} constraint, on a real
+ * PostgreSQL with one transaction per approval. Opt-in; point it at a scratch database with
+ * {@code database/anpl_sports_schema.sql} loaded:
+ * {@code mvn test -Dtest=EventCapacityPostgresTest
+ * -Dtest.postgres.url=jdbc:postgresql://localhost:5432/scratch?currentSchema=anpl_sports
+ * -Dtest.postgres.password=...}.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "test.postgres.url", matches = ".+")
+class EventCapacityPostgresTest {
+
+    private static final int CAPACITY = 100;
+    private static final int APPROVALS = 500;
+    private static final int THREADS = 64;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("test.postgres.url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("test.postgres.username", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getProperty("test.postgres.password", ""));
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+    private EventCapacityService service;
+    private Long eventId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        service = new EventCapacityService(eventRepository, mock(ActiveEventsCache.class));
+        ReflectionTestUtils.setField(service, "mirrorTtlMs", 30_000L);
+
+        Event event = new Event();
+        event.setName("Capacity test");
+        event.setDescription("Created and deleted by EventCapacityPostgresTest");
+        event.setEventType("CRICKET");
+        event.setPrice(0.0);
+        event.setYear(2026);
+        event.setMaxParticipants(CAPACITY);
+        event.setCreatedAt(LocalDateTime.now());
+        event.setUpdatedAt(LocalDateTime.now());
+        eventId = eventRepository.save(event).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventRepository.deleteById(eventId);
+    }
+
+    @Test
+    void concurrentApprovalsNeverOversell() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        int approved = 0;
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < APPROVALS; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return transactionTemplate.execute(status -> service.onStatusChange(eventId,
+                            RegistrationStatus.PENDING, RegistrationStatus.APPROVED));
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> result : results) {
+                if (result.get(2, TimeUnit.MINUTES)) {
+                    approved++;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(approved).isEqualTo(CAPACITY);
+        assertThat(eventRepository.findCurrentParticipants(eventId)).isEqualTo(CAPACITY);
+        assertThat(service.currentParticipants(eventId)).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    void constraintRejectsACountAboveCapacity() {
+        assertThatThrownBy(() -> jdbcTemplate.update(
+                "UPDATE events SET current_participants = max_participants + 1 WHERE id = ?", eventId))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void resizeRefusesToGoBelowTheApprovedCount() {
+        for (int i = 0; i < 10; i++) {
+            transactionTemplate.execute(status -> service.onStatusChange(eventId,
+                    RegistrationStatus.PENDING, RegistrationStatus.APPROVED));
+        }
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> service.resize(eventId, 9)))
+                .isInstanceOf(IllegalArgumentException.class);
+        transactionTemplate.executeWithoutResult(status -> service.resize(eventId, 10));
+        Boolean approvedPastCapacity = transactionTemplate.execute(status -> service.onStatusChange(eventId,
+                RegistrationStatus.PENDING, RegistrationStatus.APPROVED));
+        assertThat(approvedPastCapacity).isFalse();
+    }
+}
@@ -0,0 +1,147 @@
+package com.anpl.service;
+
+import com.anpl.model.Event;
+import com.anpl.model.RegistrationStatus;
+import com.anpl.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Covers the in-memory side of {@link EventCapacityService} only: the participant mirror and its
+ * after-commit deltas under hundreds of racing approvals. The repository is an atomic stub, so this
+ * proves nothing about the conditional UPDATE or the CHECK constraint; {@link EventCapacityPostgresTest}
+ * runs the same race against PostgreSQL.
+ */
+class EventCapacityServiceConcurrencyTest {
+
+    private static final long EVENT_ID = 7L;
+    private static final int CAPACITY = 100;
+    private static final int APPROVALS = 500;
+    private static final int THREADS = 64;
+
+    private final AtomicInteger row = new AtomicInteger();
+    private EventCapacityService service;
+
+    @BeforeEach
+    void setUp() {
+        EventRepository eventRepository = mock(EventRepository.class);
+        when(eventRepository.tryReserveSlot(anyLong())).thenAnswer(invocation -> {
+            int current;
+            do {
+                current = row.get();
+                if (current >= CAPACITY) {
+                    return 0;
+                }
+            } while (!row.compareAndSet(current, current + 1));
+            return 1;
+        });
+        when(eventRepository.releaseSlot(anyLong())).thenAnswer(invocation -> {
+            int current;
+            do {
+                current = row.get();
+                if (current <= 0) {
+                    return 0;
+                }
+            } while (!row.compareAndSet(current, current - 1));
+            return 1;
+        });
+        when(eventRepository.findCurrentParticipants(anyLong())).thenAnswer(invocation -> row.get());
+
+        service = new EventCapacityService(eventRepository, mock(ActiveEventsCache.class));
+        ReflectionTestUtils.setField(service, "mirrorTtlMs", 30_000L);
+    }
+
+    @Test
+    void concurrentApprovalsNeverOversell() throws Exception {
+        int approved = race(APPROVALS, () ->
+                service.onStatusChange(EVENT_ID, RegistrationStatus.PENDING, RegistrationStatus.APPROVED));
+
+        assertThat(approved).isEqualTo(CAPACITY);
+        assertThat(row.get()).isEqualTo(CAPACITY);
+        assertThat(service.currentParticipants(EVENT_ID)).isEqualTo(CAPACITY);
+        assertThatThrownBy(() -> service.ensureNotFull(event()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void releasesAndReapprovalsKeepTheCountExact() throws Exception {
+        race(CAPACITY, () ->
+                service.onStatusChange(EVENT_ID, RegistrationStatus.PENDING, RegistrationStatus.APPROVED));
+        // Warm the mirror so the mixed phase exercises the after-commit deltas, not a reload
+        assertThat(service.currentParticipants(EVENT_ID)).isEqualTo(CAPACITY);
+
+        AtomicInteger turn = new AtomicInteger();
+        race(APPROVALS, () -> turn.getAndIncrement() % 2 == 0
+                ? service.onStatusChange(EVENT_ID, RegistrationStatus.APPROVED, RegistrationStatus.REJECTED)
+                : service.onStatusChange(EVENT_ID, RegistrationStatus.PENDING, RegistrationStatus.APPROVED));
+
+        assertThat(row.get()).isBetween(0, CAPACITY);
+        assertThat(service.currentParticipants(EVENT_ID)).isEqualTo(row.get());
+    }
+
+    private int race(int calls, BooleanSupplier call) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < calls; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return inTransaction(call);
+                }));
+            }
+            start.countDown();
+            int succeeded = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    succeeded++;
+                }
+            }
+            return succeeded;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the call with transaction synchronization active and then "commits" it, firing the
+     * after-commit callbacks the service registered.
+     */
+    private static boolean inTransaction(BooleanSupplier call) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            boolean result = call.getAsBoolean();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            return result;
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Event event() {
+        Event event = new Event();
+        event.setId(EVENT_ID);
+        event.setName("Open");
+        event.setMaxParticipants(CAPACITY);
+        return event;
+    }
+}
@@ -0,0 +1,51 @@
+package com.anpl.service;
+
+import com.anpl.model.EventRegistration;
+import com.anpl.model.RegistrationStatus;
+import com.anpl.repository.EventRegistrationRepository;
+import com.anpl.repository.EventRepository;
+import com.anpl.repository.UserRepository;
+import com.anpl.util.RegistrationNumberGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Parked PAID_OVER_CAPACITY registrations are approved oldest first until the raised capacity is used up.
+ */
+class EventRegistrationServiceOverCapacityTest {
+
+    private static final long EVENT_ID = 7L;
+
+    private final EventRegistrationRepository registrationRepository = mock(EventRegistrationRepository.class);
+    private final EventCapacityService capacityService = mock(EventCapacityService.class);
+    private final EventRegistrationService service = new EventRegistrationService(registrationRepository,
+            mock(UserRepository.class), mock(EventRepository.class), mock(RegistrationNumberGenerator.class),
+            capacityService);
+
+    @Test
+    void approvesParkedRegistrationsUntilTheEventIsFull() {
+        List<EventRegistration> parked = List.of(parked(1L), parked(2L), parked(3L));
+        when(registrationRepository.lockByEventAndStatus(EVENT_ID, RegistrationStatus.PAID_OVER_CAPACITY))
+                .thenReturn(parked);
+        when(capacityService.onStatusChange(eq(EVENT_ID), eq(RegistrationStatus.PAID_OVER_CAPACITY),
+                eq(RegistrationStatus.APPROVED)))
+                .thenReturn(true, true, false);
+
+        assertThat(service.approveOverCapacity(EVENT_ID)).isEqualTo(2);
+        assertThat(parked).extracting(EventRegistration::getRegistrationStatus).containsExactly(
+                RegistrationStatus.APPROVED, RegistrationStatus.APPROVED, RegistrationStatus.PAID_OVER_CAPACITY);
+    }
+
+    private static EventRegistration parked(Long id) {
+        EventRegistration registration = new EventRegistration();
+        registration.setId(id);
+        registration.setRegistrationStatus(RegistrationStatus.PAID_OVER_CAPACITY);
+        return registration;
+    }
+}
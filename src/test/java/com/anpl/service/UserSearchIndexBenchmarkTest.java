@@ -0,0 +1,87 @@
+package com.anpl.service;
+
+import com.anpl.repository.UserRepository;
+import com.anpl.service.UserSearchIndex.Hit;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Search latency of {@link UserSearchIndex} at 10k, 100k and 1M synthetic users. Opt-in, since the 1M
+ * case needs a couple of GB of heap:
+ * {@code mvn test -Dtest=UserSearchIndexBenchmarkTest -Dbenchmark=true -DargLine=-Xmx3g}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class UserSearchIndexBenchmarkTest {
+
+    private static final String[] SYLLABLES = {
+            "ra", "vi", "an", "sh", "ka", "ma", "ni", "ta", "pr", "ee", "ja", "ya", "su", "de", "la", "ro"};
+    private static final int WARMUP_QUERIES = 2_000;
+    private static final int MEASURED_QUERIES = 5_000;
+
+    @ParameterizedTest
+    @ValueSource(ints = {10_000, 100_000, 1_000_000})
+    void searchLatency(int users) {
+        Random random = new Random(42);
+        UserSearchIndex index = new UserSearchIndex(mock(UserRepository.class));
+        String[] names = new String[users];
+
+        long buildStarted = System.nanoTime();
+        for (int id = 1; id <= users; id++) {
+            names[id - 1] = word(random) + " " + word(random);
+            index.upsert(id, names[id - 1], "ANPL" + id, "B-" + (id % 500));
+        }
+        long buildMs = (System.nanoTime() - buildStarted) / 1_000_000;
+
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            index.search(query(random, names), 10);
+        }
+        long[] nanos = new long[MEASURED_QUERIES];
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            String query = query(random, names);
+            long started = System.nanoTime();
+            index.search(query, 10);
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("users=%d build=%dms p50=%.2fms p99=%.2fms max=%.2fms%n", users, buildMs,
+                nanos[nanos.length / 2] / 1e6, nanos[nanos.length * 99 / 100] / 1e6, nanos[nanos.length - 1] / 1e6);
+
+        List<Hit> exact = index.search("ANPL" + users, 10);
+        assertThat(exact).isNotEmpty();
+        assertThat(exact.get(0).userId()).isEqualTo(users);
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int i = 0; i < syllables; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return word.toString();
+    }
+
+    /**
+     * A mix of what the partner search sees: name prefixes, full names with a typo, and registration numbers.
+     */
+    private static String query(Random random, String[] names) {
+        String name = names[random.nextInt(names.length)];
+        return switch (random.nextInt(3)) {
+            case 0 -> name.substring(0, Math.min(name.length(), 3 + random.nextInt(4)));
+            case 1 -> {
+                char[] chars = name.toCharArray();
+                int at = random.nextInt(chars.length);
+                chars[at] = chars[at] == 'a' ? 'e' : 'a';
+                yield new String(chars);
+            }
+            default -> "ANPL" + (1 + random.nextInt(names.length));
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package com.anpl.service;
+
+import com.anpl.dto.AuthTokensResponse;
+import com.anpl.dto.LoginRequest;
+import com.anpl.model.User;
+import com.anpl.repository.UserRepository;
+import com.anpl.security.PrincipalCache;
+import com.anpl.util.RegistrationNumberGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A successful login rewrites an outdated hash with a compare-and-set, and leaves current hashes and
+ * concurrently changed passwords alone.
+ */
+class UserServiceRehashTest {
+
+    private static final String EMAIL = "player@example.com";
+    private static final String PASSWORD = "correct horse";
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PrincipalCache principalCache = mock(PrincipalCache.class);
+    private final AuthTokenService authTokenService = mock(AuthTokenService.class);
+    private final PasswordEncoder passwordEncoder = encoder(5);
+    private final UserService userService = new UserService(userRepository, passwordEncoder, authTokenService,
+            mock(EmailService.class), mock(SignupUploadService.class), principalCache,
+            mock(RegistrationNumberGenerator.class));
+
+    @Test
+    void legacyHashIsUpgradedOnLogin() {
+        String legacy = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        User user = user(legacy);
+        when(userRepository.replacePasswordHash(eq(1L), eq(legacy), anyString())).thenReturn(1);
+
+        userService.login(login());
+
+        verify(userRepository).replacePasswordHash(eq(1L), eq(legacy), anyString());
+        assertThat(user.getPassword()).startsWith("{bcrypt}$2a$05$");
+        assertThat(passwordEncoder.matches(PASSWORD, user.getPassword())).isTrue();
+        verify(principalCache).invalidate(EMAIL);
+    }
+
+    @Test
+    void currentHashIsLeftAlone() {
+        user(passwordEncoder.encode(PASSWORD));
+
+        userService.login(login());
+
+        verify(userRepository, never()).replacePasswordHash(any(), any(), any());
+        verify(principalCache, never()).invalidate(any());
+    }
+
+    @Test
+    void concurrentPasswordChangeWins() {
+        String legacy = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        User user = user(legacy);
+        when(userRepository.replacePasswordHash(eq(1L), eq(legacy), anyString())).thenReturn(0);
+
+        userService.login(login());
+
+        assertThat(user.getPassword()).isEqualTo(legacy);
+        verify(principalCache, never()).invalidate(any());
+    }
+
+    private User user(String hash) {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(EMAIL);
+        user.setPassword(hash);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        when(authTokenService.issue(user)).thenReturn(new AuthTokensResponse("access", "refresh", 900L));
+        return user;
+    }
+
+    private static LoginRequest login() {
+        LoginRequest request = new LoginRequest();
+        request.setEmail(EMAIL);
+        request.setPassword(PASSWORD);
+        return request;
+    }
+
+    /**
+     * Same shape as the production encoder (see SecurityConfig), minus the bounded pool.
+     */
+    private static PasswordEncoder encoder(int strength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+}
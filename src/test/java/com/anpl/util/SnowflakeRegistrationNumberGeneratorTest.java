@@ -0,0 +1,101 @@
+package com.anpl.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SnowflakeRegistrationNumberGeneratorTest {
+
+    private static final int THREADS = 16;
+    private static final int PER_THREAD = 50_000;
+
+    @Test
+    void concurrentIdsAreUniqueWithinAndAcrossNodes() throws Exception {
+        List<SnowflakeRegistrationNumberGenerator> nodes = List.of(
+                new SnowflakeRegistrationNumberGenerator(1), new SnowflakeRegistrationNumberGenerator(2));
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<String>>> batches = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                SnowflakeRegistrationNumberGenerator generator = nodes.get(t % nodes.size());
+                batches.add(pool.submit(() -> {
+                    start.await();
+                    List<String> ids = new ArrayList<>(PER_THREAD);
+                    for (int i = 0; i < PER_THREAD; i++) {
+                        ids.add(generator.generate(RegistrationNumberGenerator.CRICKET_PREFIX));
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+
+            Set<String> seen = new HashSet<>(THREADS * PER_THREAD * 2);
+            for (Future<List<String>> batch : batches) {
+                List<String> ids = batch.get(1, TimeUnit.MINUTES);
+                for (int i = 0; i < ids.size(); i++) {
+                    assertThat(seen.add(ids.get(i))).as("duplicate %s", ids.get(i)).isTrue();
+                    if (i > 0) {
+                        // One node's values strictly increase, and the fixed-width encoding keeps that order
+                        assertThat(ids.get(i)).isGreaterThan(ids.get(i - 1));
+                    }
+                }
+            }
+            assertThat(seen).hasSize(THREADS * PER_THREAD);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsNodeIdsOutsideTheRange() {
+        assertThatThrownBy(() -> new SnowflakeRegistrationNumberGenerator(-2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeRegistrationNumberGenerator(1024))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void leasesANodeIdWhenNoneIsConfigured() {
+        NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        when(jdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(7L));
+
+        SnowflakeRegistrationNumberGenerator generator = new SnowflakeRegistrationNumberGenerator(-1, 600, jdbcTemplate);
+        SnowflakeRegistrationNumberGenerator fixed = new SnowflakeRegistrationNumberGenerator(7);
+
+        // Same node id: the codes differ only in time and sequence, so compare the node bits directly
+        assertThat(nodeBits(generator.generate("X"))).isEqualTo(nodeBits(fixed.generate("X")));
+    }
+
+    /**
+     * Decodes the 10 node-id bits from a code (13 Crockford base32 characters after the prefix).
+     */
+    private static long nodeBits(String code) {
+        String alphabet = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+        long value = 0;
+        for (char c : code.substring(code.length() - 13).toCharArray()) {
+            value = (value << 5) | alphabet.indexOf(c);
+        }
+        return (value >>> 12) & 1023;
+    }
+}